@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+import java.util.List;
+
+/**
+ * A {@link Directive} that can be handed many rows at once without the first row in error stopping the others.
+ *
+ * <p>A {@link RecipePipeline} executing rows in batches hands a whole batch to {@link #execute(List,
+ * ExecutorContext, RowErrors)}, and only the rows without errors go on to the next directive. Directives that
+ * don't implement this interface are handed the rows of a batch one at a time, as they stop at the first row in
+ * error without telling which row it was.</p>
+ */
+@PublicEvolving
+public interface BatchDirective extends Directive {
+  /**
+   * Executes the directive on rows, each row being changed in place. The errors of rows are reported rather than
+   * thrown, the other rows being executed regardless. Rows in error may be left in any state.
+   *
+   * @param rows to be executed.
+   * @param context in which the rows are executed.
+   * @param errors to which the errors of rows are reported, by position of the row in {@code rows}.
+   * @throws DirectiveExecutionException if the rows can't be executed at all.
+   */
+  void execute(List<Row> rows, ExecutorContext context, RowErrors errors) throws DirectiveExecutionException;
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resolves the positions of a fixed set of columns in rows, once per distinct row layout.
+ *
+ * <p>Directives usually operate on the same columns of rows that share the same layout. A directive
+ * creates an instance in {@code initialize} with the names of the columns it operates on and uses it
+ * in {@code execute} in place of {@link Row#find(String)}. The position of a column is remembered along with the
+ * names of the columns of the row it was found in. It is reused for a row which has the same names up to that
+ * position, or the same names altogether for a column which was not found, whether or not the row is a copy of
+ * the previous one. Names are compared by reference first, which is all it takes for rows built from the same
+ * schema or by the same directive. Columns are only looked up by name, one at a time, when that is not the
+ * case, and always in rows wide enough to be indexed.</p>
+ *
+ * <p>An instance is not thread safe, and is expected to be owned by a single directive instance.</p>
+ */
+@PublicEvolving
+public final class ColumnSlots {
+  private static final int UNRESOLVED = -2;
+
+  private final String[] columns;
+  private final int[] slots;
+  // Names of the columns of the row in which the slots were resolved.
+  private String[] layout = new String[0];
+  // Number of times the slots were resolved by name.
+  private int lookups;
+
+  public ColumnSlots(String... columns) {
+    this.columns = columns.clone();
+    this.slots = new int[columns.length];
+    Arrays.fill(slots, UNRESOLVED);
+  }
+
+  public ColumnSlots(List<String> columns) {
+    this(columns.toArray(new String[0]));
+  }
+
+  /**
+   * Finds the index of the first column in a row.
+   *
+   * @param row to be searched.
+   * @return -1 if not present, else the index at which the column is found.
+   */
+  public int find(Row row) {
+    return find(row, 0);
+  }
+
+  /**
+   * Finds the index of a column in a row.
+   *
+   * @param row to be searched.
+   * @param column position of the column in the list of columns this instance was created with.
+   * @return -1 if not present, else the index at which the column is found.
+   */
+  public int find(Row row, int column) {
+    int width = row.width();
+    if (width >= Row.INDEX_MIN_WIDTH) {
+      // Wide rows are indexed, which finds any column as fast.
+      return row.find(columns[column]);
+    }
+    int slot = slots[column];
+    if (slot >= 0 && hasLayout(row, slot + 1)) {
+      return slot;
+    }
+    boolean sameLayout = width == layout.length && hasLayout(row, width);
+    if (slot == -1 && sameLayout) {
+      return slot;
+    }
+
+    if (!sameLayout) {
+      layout = new String[width];
+      for (int i = 0; i < width; i++) {
+        layout[i] = row.getColumn(i);
+      }
+      Arrays.fill(slots, UNRESOLVED);
+    }
+    lookups++;
+    slot = row.find(columns[column]);
+    slots[column] = slot;
+    return slot;
+  }
+
+  // Whether the first columns of the row have the names of the layout.
+  private boolean hasLayout(Row row, int width) {
+    if (row.width() < width || layout.length < width) {
+      return false;
+    }
+    for (int i = 0; i < width; i++) {
+      String name = row.getColumn(i);
+      if (name != layout[i] && !layout[i].equals(name)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number of times a column was looked up by name in a row, for tests.
+   */
+  int getLookups() {
+    return lookups;
+  }
+}
@@ -19,14 +19,22 @@ import io.cdap.cdap.api.data.schema.Schema;
 
 import java.io.Serializable;
 import java.util.List;
+import javax.annotation.Nullable;
 
 /**
  * Response after executing directives remotely
  * Please make sure all fields are registered with {@link io.cdap.wrangler.utils.KryoSerializer}
  */
 public class RemoteDirectiveResponse implements Serializable {
+    /**
+     * Reason of the termination of a task worker that loaded user directives, which may hold state in the classes of
+     * the worker.
+     */
+    public static final String USER_DIRECTIVES = "user.directives";
+
     private final List<Row> rows;
     private final Schema outputSchema;
+    private final String terminationReason;
 
     /**
      * Only used by {@link io.cdap.wrangler.utils.KryoSerializer}
@@ -36,8 +44,17 @@ public class RemoteDirectiveResponse implements Serializable {
     }
 
     public RemoteDirectiveResponse(List<Row> rows, Schema outputSchema) {
+        this(rows, outputSchema, null);
+    }
+
+    /**
+     * @param terminationReason why the task worker that executed the directives terminates, such as
+     *                          {@link #USER_DIRECTIVES}, null if it is reused
+     */
+    public RemoteDirectiveResponse(List<Row> rows, Schema outputSchema, @Nullable String terminationReason) {
         this.rows = rows;
         this.outputSchema = outputSchema;
+        this.terminationReason = terminationReason;
     }
 
     public List<Row> getRows() {
@@ -47,4 +64,13 @@ public class RemoteDirectiveResponse implements Serializable {
     public Schema getOutputSchema() {
         return outputSchema;
     }
+
+    /**
+     * Returns why the task worker that executed the directives terminates rather than being reused, null if it is
+     * reused.
+     */
+    @Nullable
+    public String getTerminationReason() {
+        return terminationReason;
+    }
 }
@@ -20,7 +20,9 @@ import io.cdap.wrangler.api.annotations.PublicEvolving;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -30,23 +32,39 @@ import java.util.Objects;
 public final class Row implements Serializable {
   private static final long serialVersionUID = -7505703059736709602L;
 
-  // Name of the columns held by the row.
+  // Rows narrower than this are searched linearly, as building the index would cost more than it saves.
+  static final int INDEX_MIN_WIDTH = 16;
+
+  // Name of the columns held by the row. The list can be shared with copies of the row, see ownColumns().
   private List<String> columns = new ArrayList<>();
 
   // Values held by the row.
   private List<Object> values = new ArrayList<>();
 
+  // Same instance as columns when this row may change it in place, as it created the list and never gave it to
+  // another row. Tracking ownership by identity keeps it right when the columns are set by a deserializer rather
+  // than by a constructor.
+  private transient List<String> ownedColumns = columns;
+
+  // Index of the first columns of the row, built lazily. Never changed once built, so it is shared with copies
+  // along with the columns, and dropped whenever the positions of the columns change.
+  private transient ColumnIndex index;
+
   public Row() {
   }
 
   /**
-   * Makes a copy of the row.
+   * Makes a copy of the row. The copy shares the column names of the row, and from then on both the row and its
+   * copy copy the column names before changing them, so that neither sees the changes of the other.
    *
    * @param row to be copied to 'this' object.
    */
   public Row(Row row) {
     this.values = new ArrayList<>(row.values);
-    this.columns = new ArrayList<>(row.columns);
+    this.columns = row.columns;
+    this.ownedColumns = null;
+    row.ownedColumns = null;
+    this.index = row.index;
   }
 
   /**
@@ -56,6 +74,7 @@ public final class Row implements Serializable {
    */
   public Row(List<String> columns) {
     this.columns = new ArrayList<>(columns);
+    this.ownedColumns = this.columns;
     this.values = new ArrayList<>(columns.size());
   }
 
@@ -67,6 +86,7 @@ public final class Row implements Serializable {
    */
   public Row(String name, Object value) {
     this.columns = new ArrayList<>(1);
+    this.ownedColumns = this.columns;
     this.values = new ArrayList<>(1);
     this.columns.add(name);
     this.values.add(value);
@@ -89,7 +109,9 @@ public final class Row implements Serializable {
    * @param name of the column to be set at idx.
    */
   public void setColumn(int idx, String name) {
+    ownColumns();
     columns.set(idx, name);
+    index = null;
   }
 
   /**
@@ -136,6 +158,7 @@ public final class Row implements Serializable {
    * @param value to be added to row.
    */
   public Row add(String name, Object value) {
+    ownColumns();
     columns.add(name);
     values.add(value);
     return this;
@@ -147,8 +170,10 @@ public final class Row implements Serializable {
    * @param idx for which the value and column are removed.
    */
   public Row remove(int idx) {
+    ownColumns();
     columns.remove(idx);
     values.remove(idx);
+    index = null;
     return this;
   }
 
@@ -171,7 +196,25 @@ public final class Row implements Serializable {
    * @return -1 if not present, else the index at which the column is found.
    */
   public int find(String col, int firstIdx) {
-    for (int i = firstIdx, columnsSize = columns.size(); i < columnsSize; i++) {
+    int width = columns.size();
+    int start = firstIdx;
+    if (width >= INDEX_MIN_WIDTH) {
+      ColumnIndex columnIndex = index;
+      if (columnIndex == null || width - columnIndex.width > Math.max(INDEX_MIN_WIDTH, width / 8)) {
+        // Readers of a row shared between threads may each build an index, they are all the same.
+        columnIndex = new ColumnIndex(columns);
+        index = columnIndex;
+      }
+      Integer idx = columnIndex.positions.get(fold(col));
+      if (idx == null) {
+        // Only the columns added since the index was built are left to search.
+        start = Math.max(firstIdx, columnIndex.width);
+      } else if (idx >= firstIdx) {
+        // The index holds the first occurrence, only search further when it is before firstIdx.
+        return idx;
+      }
+    }
+    for (int i = start; i < width; i++) {
       String name = columns.get(i);
       if (col.equalsIgnoreCase(name)) {
         return i;
@@ -180,6 +223,60 @@ public final class Row implements Serializable {
     return -1;
   }
 
+  /**
+   * Makes sure this row holds its own list of column names before it gets changed, copying it if it
+   * might be shared with other rows.
+   */
+  private void ownColumns() {
+    if (ownedColumns != columns) {
+      columns = new ArrayList<>(columns);
+      ownedColumns = columns;
+    }
+  }
+
+  /**
+   * Folds the case of a column name, so that two names are equal once folded if and only if they are
+   * equal ignoring case as defined by {@link String#equalsIgnoreCase(String)}.
+   */
+  private static String fold(String name) {
+    int length = name.length();
+    int i = 0;
+    while (i < length && foldChar(name.charAt(i)) == name.charAt(i)) {
+      i++;
+    }
+    if (i == length) {
+      return name;
+    }
+    char[] chars = name.toCharArray();
+    for (; i < length; i++) {
+      chars[i] = foldChar(chars[i]);
+    }
+    return new String(chars);
+  }
+
+  private static char foldChar(char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  /**
+   * Case folded names of the first columns of a row, mapped to the position of their first occurrence. It is never
+   * changed once built, so that rows can share it and read it from any thread.
+   */
+  private static final class ColumnIndex {
+    private final Map<String, Integer> positions;
+    // Number of columns indexed.
+    private final int width;
+
+    private ColumnIndex(List<String> columns) {
+      Map<String, Integer> positions = new HashMap<>();
+      for (int i = 0; i < columns.size(); i++) {
+        positions.putIfAbsent(fold(columns.get(i)), i);
+      }
+      this.positions = positions;
+      this.width = columns.size();
+    }
+  }
+
   /**
    * @return  width of the row.
    */
@@ -195,6 +292,14 @@ public final class Row implements Serializable {
     return columns.size();
   }
 
+  /**
+   * @return true if every column of the row has a value, which is not the case of a row created with only the
+   * names of its columns.
+   */
+  public boolean hasAllValues() {
+    return values.size() == columns.size();
+  }
+
   /**
    * @return List of fields of record.
    */
@@ -236,8 +341,10 @@ public final class Row implements Serializable {
       setValue(idx, value);
     } else {
       if (index < columns.size() && index < values.size()) {
+        ownColumns();
         columns.add(index, name);
         values.add(index, value);
+        this.index = null;
       }
     }
   }
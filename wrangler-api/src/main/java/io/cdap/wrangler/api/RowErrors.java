@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Errors of the rows handed to a {@link BatchDirective}, by position of the row in the list it was handed.
+ *
+ * <p>Each error is either an {@link ErrorRowException}, for the row to be sent to the error collector as when the
+ * directive throws it for a single row, or a {@link ReportErrorAndProceed}.</p>
+ */
+@PublicEvolving
+public final class RowErrors {
+  private final BitSet failed = new BitSet();
+  private final Map<Integer, Exception> errors = new HashMap<>();
+
+  /**
+   * Reports the error of a row.
+   *
+   * @param row position of the row.
+   * @param error of the row, replacing any error reported before for it.
+   */
+  public void add(int row, ErrorRowException error) {
+    put(row, error);
+  }
+
+  /**
+   * Reports the error of a row, which is reported and skipped.
+   *
+   * @param row position of the row.
+   * @param error of the row, replacing any error reported before for it.
+   */
+  public void add(int row, ReportErrorAndProceed error) {
+    put(row, error);
+  }
+
+  /**
+   * Returns whether an error was reported for a row.
+   */
+  public boolean contains(int row) {
+    return failed.get(row);
+  }
+
+  /**
+   * Returns the error reported for a row, either an {@link ErrorRowException} or a {@link ReportErrorAndProceed},
+   * null if there is none.
+   */
+  @Nullable
+  public Exception get(int row) {
+    return failed.get(row) ? errors.get(row) : null;
+  }
+
+  /**
+   * Returns whether no error was reported.
+   */
+  public boolean isEmpty() {
+    return failed.isEmpty();
+  }
+
+  /**
+   * Forgets the errors reported, so that the instance can be handed another list of rows.
+   */
+  public void clear() {
+    failed.clear();
+    errors.clear();
+  }
+
+  private void put(int row, Exception error) {
+    if (row < 0) {
+      throw new IndexOutOfBoundsException("Invalid row position " + row);
+    }
+    failed.set(row);
+    errors.put(row, error);
+  }
+}
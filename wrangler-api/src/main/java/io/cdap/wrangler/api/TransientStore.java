@@ -61,4 +61,14 @@ public interface TransientStore extends Serializable {
    * @return list of all the variables.
    */
   Set<String> getVariables();
+
+  /**
+   * Checks if a variable is present in the store.
+   *
+   * @param name of the variable to be checked.
+   * @return true if found, false otherwise.
+   */
+  default boolean contains(String name) {
+    return getVariables().contains(name);
+  }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks column lookups by name on rows of different widths, comparing {@link Row#find(String)}
+ * with the plain linear case insensitive scan it replaces.
+ *
+ * <p>Run with the {@link #main(String[])} method from the test classpath.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowBenchmark {
+
+  // Number of lookups done on each row, roughly what a recipe of that many directives does.
+  private static final int LOOKUPS = 40;
+
+  @Param({"10", "50", "300"})
+  private int width;
+
+  private Row row;
+  private List<String> columns;
+  private String[] lookups;
+
+  @Setup
+  public void setup() {
+    row = new Row();
+    columns = new ArrayList<>();
+    for (int i = 0; i < width; i++) {
+      row.add("column_" + i, i);
+      columns.add("column_" + i);
+    }
+    lookups = new String[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      lookups[i] = "COLUMN_" + ((i * 7919) % width);
+    }
+  }
+
+  @Benchmark
+  public void find(Blackhole blackhole) {
+    for (String lookup : lookups) {
+      blackhole.consume(row.find(lookup));
+    }
+  }
+
+  @Benchmark
+  public void findOnCopiedRow(Blackhole blackhole) {
+    Row copy = new Row(row);
+    for (String lookup : lookups) {
+      blackhole.consume(copy.find(lookup));
+    }
+  }
+
+  @Benchmark
+  public void linearScan(Blackhole blackhole) {
+    for (String lookup : lookups) {
+      int found = -1;
+      for (int i = 0; i < columns.size(); i++) {
+        if (lookup.equalsIgnoreCase(columns.get(i))) {
+          found = i;
+          break;
+        }
+      }
+      blackhole.consume(found);
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(RowBenchmark.class.getSimpleName()).build()).run();
+  }
+}
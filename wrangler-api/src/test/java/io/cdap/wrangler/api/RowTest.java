@@ -0,0 +1,216 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link Row}
+ */
+public class RowTest {
+
+  private static Row wideRow(int width) {
+    Row row = new Row();
+    for (int i = 0; i < width; i++) {
+      row.add("Col_" + i, i);
+    }
+    return row;
+  }
+
+  @Test
+  public void testFindOnWideRowIsCaseInsensitive() {
+    Row row = wideRow(100);
+    Assert.assertEquals(0, row.find("col_0"));
+    Assert.assertEquals(57, row.find("COL_57"));
+    Assert.assertEquals(99, row.find("Col_99"));
+    Assert.assertEquals(-1, row.find("col_100"));
+    Assert.assertEquals(42, row.getValue("cOl_42"));
+  }
+
+  @Test
+  public void testFindReturnsFirstOccurrenceFromIndex() {
+    Row row = wideRow(20);
+    row.add("dup", "first");
+    row.add("DUP", "second");
+    Assert.assertEquals(20, row.find("dup"));
+    Assert.assertEquals(20, row.find("Dup", 20));
+    Assert.assertEquals(21, row.find("dup", 21));
+    Assert.assertEquals(-1, row.find("dup", 22));
+    Assert.assertEquals(-1, row.find("col_3", 4));
+  }
+
+  @Test
+  public void testFindAfterColumnChanges() {
+    Row row = wideRow(30);
+    Assert.assertEquals(10, row.find("col_10"));
+
+    row.remove(0);
+    Assert.assertEquals(9, row.find("col_10"));
+    Assert.assertEquals(-1, row.find("col_0"));
+
+    row.setColumn(9, "renamed");
+    Assert.assertEquals(-1, row.find("col_10"));
+    Assert.assertEquals(9, row.find("RENAMED"));
+
+    row.add("added", "value");
+    Assert.assertEquals(29, row.find("Added"));
+
+    row.addOrSetAtIndex(0, "first", "value");
+    Assert.assertEquals(0, row.find("first"));
+    Assert.assertEquals(10, row.find("renamed"));
+
+    row.addOrSet("col_5", "updated");
+    Assert.assertEquals(31, row.width());
+    Assert.assertEquals("updated", row.getValue("col_5"));
+  }
+
+  @Test
+  public void testFindColumnsAddedAfterIndexing() {
+    Row row = wideRow(20);
+    for (int i = 20; i < 200; i++) {
+      // Looked up before being added, then after, with the index built at various widths.
+      Assert.assertEquals(-1, row.find("col_" + i));
+      row.add("Col_" + i, i);
+      Assert.assertEquals(i, row.find("COL_" + i));
+      Assert.assertEquals(i / 2, row.find("col_" + (i / 2)));
+    }
+    row.add("col_5", "duplicate");
+    Assert.assertEquals(5, row.find("col_5"));
+    Assert.assertEquals(200, row.find("col_5", 6));
+  }
+
+  @Test
+  public void testCopyIsIndexedIndependently() {
+    Row row = wideRow(20);
+    Assert.assertEquals(5, row.find("col_5"));
+
+    Row copy = new Row(row);
+    copy.remove(0);
+    Assert.assertEquals(5, row.find("col_5"));
+    Assert.assertEquals(4, copy.find("col_5"));
+  }
+
+  @Test
+  public void testCopiesDoNotSeeEachOthersColumnChanges() {
+    Row row = new Row("a", 1).add("b", 2);
+    Row copy = new Row(row);
+    Row copyOfCopy = new Row(copy);
+
+    copy.setColumn(0, "x");
+    copy.add("c", 3);
+    row.remove(1);
+    copyOfCopy.addOrSetAtIndex(0, "z", 0);
+
+    Assert.assertEquals("a", row.getColumn(0));
+    Assert.assertEquals(1, row.width());
+    Assert.assertEquals("x", copy.getColumn(0));
+    Assert.assertEquals("b", copy.getColumn(1));
+    Assert.assertEquals(3, copy.width());
+    Assert.assertEquals("z", copyOfCopy.getColumn(0));
+    Assert.assertEquals("a", copyOfCopy.getColumn(1));
+    Assert.assertEquals(3, copyOfCopy.width());
+  }
+
+  @Test
+  public void testCopiesShareColumnsUntilChanged() throws Exception {
+    Row row = new Row("a", 1).add("b", 2);
+    Field columns = Row.class.getDeclaredField("columns");
+    columns.setAccessible(true);
+
+    Row copy = new Row(row);
+    Row other = new Row(row);
+    Assert.assertSame(columns.get(row), columns.get(copy));
+    Assert.assertSame(columns.get(row), columns.get(other));
+
+    row.add("c", 3);
+    row.setColumn(0, "x");
+    Assert.assertEquals("a", copy.getColumn(0));
+    Assert.assertEquals(2, copy.width());
+    Assert.assertEquals(-1, copy.find("c"));
+    Assert.assertSame(columns.get(copy), columns.get(other));
+    Assert.assertEquals("x", row.getColumn(0));
+    Assert.assertEquals(3, row.width());
+  }
+
+  @Test
+  public void testDeserializedRowsDoNotShareColumnChanges() throws Exception {
+    Row row = new Row("a", 1).add("b", 2);
+    List<Row> rows = new ArrayList<>(Arrays.asList(row, new Row(row)));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+      oos.writeObject(rows);
+    }
+    List<Row> read;
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      read = (List<Row>) ois.readObject();
+    }
+
+    Assert.assertEquals(rows, read);
+    read.get(0).add("c", 3);
+    Assert.assertEquals(3, read.get(0).width());
+    Assert.assertEquals(2, read.get(1).width());
+    Assert.assertEquals(-1, read.get(1).find("c"));
+  }
+
+  @Test
+  public void testColumnSlots() {
+    ColumnSlots slots = new ColumnSlots("B", "c");
+    Row row = new Row("a", 1).add("b", 2);
+    Row copy = new Row(row);
+    Assert.assertEquals(1, slots.find(row));
+    Assert.assertEquals(-1, slots.find(row, 1));
+    Assert.assertEquals(1, slots.find(copy));
+
+    copy.add("c", 3);
+    Assert.assertEquals(2, slots.find(copy, 1));
+    copy.remove(0);
+    Assert.assertEquals(0, slots.find(copy));
+    Assert.assertEquals(1, slots.find(copy, 1));
+    Assert.assertEquals(-1, slots.find(row, 1));
+  }
+
+  @Test
+  public void testColumnSlotsAreReusedAcrossRowsWithTheSameColumns() {
+    ColumnSlots slots = new ColumnSlots("b", "c");
+    Assert.assertEquals(1, slots.find(new Row("a", 1).add("b", 2)));
+    Assert.assertEquals(-1, slots.find(new Row("a", 1).add("b", 2), 1));
+    Assert.assertEquals(2, slots.getLookups());
+
+    // Rows built independently with the same columns, or the same columns up to the one found.
+    Assert.assertEquals(1, slots.find(new Row("a", 3).add("b", 4)));
+    Assert.assertEquals(-1, slots.find(new Row("a", 3).add("b", 4), 1));
+    Assert.assertEquals(1, slots.find(new Row("a", 5).add("b", 6).add("d", 7)));
+    Assert.assertEquals(2, slots.getLookups());
+
+    // A column missing from a row may be in a wider one.
+    Assert.assertEquals(3, slots.find(new Row("a", 5).add("b", 6).add("d", 7).add("c", 8), 1));
+    Assert.assertEquals(3, slots.getLookups());
+    Assert.assertEquals(0, slots.find(new Row("b", 1).add("a", 2)));
+    Assert.assertEquals(4, slots.getLookups());
+  }
+}
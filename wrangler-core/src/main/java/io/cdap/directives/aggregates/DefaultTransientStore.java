@@ -74,6 +74,17 @@ public class DefaultTransientStore implements TransientStore {
     return vars;
   }
 
+  /**
+   * Checks if a variable is present in the store.
+   *
+   * @param name of the variable to be checked.
+   * @return true if found, false otherwise.
+   */
+  @Override
+  public boolean contains(String name) {
+    return global.containsKey(name) || local.containsKey(name);
+  }
+
   /**
    * Resets the state of this store.
    */
@@ -55,6 +55,8 @@ public class IncrementTransientVariable implements Directive {
   private String variable;
   private long incrementBy;
   private EL el;
+  // Context the expression is evaluated with, bound to each row in turn.
+  private ELContext ctx;
 
   @Override
   public UsageDefinition define() {
@@ -80,18 +82,11 @@ public class IncrementTransientVariable implements Directive {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      // Move the fields from the row into the context.
-      ELContext ctx = new ELContext();
-      ctx.set("this", row);
-      for (String var : el.variables()) {
-        ctx.set(var, row.getValue(var));
-      }
-
-      // Transient variables are added.
-      if (context != null) {
-        for (String variable : context.getTransientStore().getVariables()) {
-          ctx.set(variable, context.getTransientStore().get(variable));
-        }
+      // Bind the row to the context, its fields are resolved as the expression reads them.
+      if (ctx == null) {
+        ctx = new ELContext(context, el, row);
+      } else {
+        ctx.reset(context, row);
       }
 
       // Execution of the script / expression based on the row data
@@ -55,6 +55,8 @@ import static io.cdap.wrangler.metrics.JexlCategoryMetricUtils.getJexlCategoryMe
 public class SetTransientVariable implements Directive {
   public static final String NAME = "set-variable";
   private EL el;
+  // Context the expression is evaluated with, bound to each row in turn.
+  private ELContext ctx;
   private String variable;
 
   @Override
@@ -84,8 +86,12 @@ public class SetTransientVariable implements Directive {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context, el, row);
+      // Bind the row to the context, its fields are resolved as the expression reads them.
+      if (ctx == null) {
+        ctx = new ELContext(context, el, row);
+      } else {
+        ctx.reset(context, row);
+      }
 
       // Execution of the script / expression based on the row data
       // mapped into context.
@@ -16,26 +16,34 @@
 
 package io.cdap.directives.external;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.BatchDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ErrorRowException;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.LazyNumber;
 import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowErrors;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnNameList;
+import io.cdap.wrangler.api.parser.Properties;
 import io.cdap.wrangler.api.parser.Text;
+import io.cdap.wrangler.api.parser.Token;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 import org.apache.http.HttpEntity;
@@ -45,34 +53,69 @@ import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.nio.charset.Charset;
+import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A directives that invokes HTTP endpoint to merge the results back into dataset.
+ *
+ * <p>Requests are sent through a pool of kept-alive connections. When the directive is given several rows at once,
+ * their requests can be sent concurrently, and the responses are merged back into the rows in order, each row
+ * erroring out on its own. Identical requests can be sent only once, and responses can be cached for a while. All
+ * of this is set by the {@code options} argument, see {@link #CONCURRENCY}, {@link #DEDUPLICATE} and
+ * {@link #CACHE_TTL_SECONDS}.</p>
  */
 @Plugin(type = Directive.TYPE)
 @Name(InvokeHttp.NAME)
 @Categories(categories = { "http"})
 @Description("Invokes an HTTP endpoint, passing columns as a JSON map (potentially slow).")
-public class InvokeHttp implements Directive, Lineage {
+public class InvokeHttp implements BatchDirective, Lineage {
   public static final String NAME = "invoke-http";
+  /**
+   * Option of the maximum number of requests sent at the same time, 1 by default.
+   */
+  public static final String CONCURRENCY = "concurrency";
+  /**
+   * Option that, when {@code true}, sends the requests of rows with the same values only once.
+   */
+  public static final String DEDUPLICATE = "deduplicate";
+  /**
+   * Option of the number of seconds responses are cached for, identified by their request. Responses are not
+   * cached by default.
+   */
+  public static final String CACHE_TTL_SECONDS = "cache-ttl-seconds";
+  private static final Logger LOG = LoggerFactory.getLogger(InvokeHttp.class);
+  private static final Gson GSON = new Gson();
+  private static final Type RESPONSE_TYPE = new TypeToken<Map<String, Object>>() { }.getType();
+  private static final long MAX_CACHED_RESPONSES = 10000;
+
   private String url;
   private List<String> columns;
-  private Gson gson;
   private Map<String, String> headers = new HashMap<>();
+  private int concurrency;
+  private boolean deduplicate;
+  private Cache<String, String> responses;
+  private CloseableHttpClient client;
+  private ExecutorService executor;
 
   @Override
   public UsageDefinition define() {
@@ -81,12 +124,13 @@ public class InvokeHttp implements Directive, Lineage {
     builder.define("url", TokenType.TEXT);
     builder.define("column", TokenType.COLUMN_NAME_LIST);
     builder.define("header", TokenType.TEXT, Optional.TRUE);
+    builder.define("options", TokenType.PROPERTIES,
+                   "prop:{concurrency=<n>,deduplicate=<true|false>,cache-ttl-seconds=<n>}", Optional.TRUE);
     return builder.build();
   }
 
   @Override
   public void initialize(Arguments args) throws DirectiveParseException {
-    gson = new Gson();
     this.url = ((Text) args.value("url")).value();
     this.columns = ((ColumnNameList) args.value("column")).value();
     String hdrs = null;
@@ -115,16 +159,87 @@ public class InvokeHttp implements Directive, Lineage {
         headers.put(key, value);
       }
     }
+
+    concurrency = 1;
+    deduplicate = false;
+    long ttl = 0;
+    if (args.contains("options")) {
+      Map<String, Token> options = ((Properties) args.value("options")).value();
+      for (Map.Entry<String, Token> option : options.entrySet()) {
+        Object value = option.getValue().value();
+        switch (option.getKey()) {
+          case CONCURRENCY:
+            concurrency = (int) positive(option.getKey(), value);
+            break;
+          case DEDUPLICATE:
+            if (!(value instanceof Boolean)) {
+              throw new DirectiveParseException(
+                NAME, String.format("Option '%s' must be either true or false.", DEDUPLICATE));
+            }
+            deduplicate = (Boolean) value;
+            break;
+          case CACHE_TTL_SECONDS:
+            ttl = positive(option.getKey(), value);
+            break;
+          default:
+            throw new DirectiveParseException(
+              NAME, String.format("Unknown option '%s', options are '%s', '%s' and '%s'.", option.getKey(),
+                                  CONCURRENCY, DEDUPLICATE, CACHE_TTL_SECONDS));
+        }
+      }
+    }
+    if (ttl > 0) {
+      responses = CacheBuilder.newBuilder()
+        .expireAfterWrite(ttl, TimeUnit.SECONDS)
+        .maximumSize(MAX_CACHED_RESPONSES)
+        .build();
+    }
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(concurrency);
+    connectionManager.setDefaultMaxPerRoute(concurrency);
+    client = HttpClients.custom().setConnectionManager(connectionManager).build();
+  }
+
+  private static long positive(String option, Object value) throws DirectiveParseException {
+    if (!(value instanceof LazyNumber) || ((LazyNumber) value).longValue() < 1
+      || ((LazyNumber) value).longValue() > Integer.MAX_VALUE) {
+      throw new DirectiveParseException(NAME, String.format("Option '%s' must be a positive integer.", option));
+    }
+    return ((LazyNumber) value).longValue();
   }
 
   @Override
   public void destroy() {
-    // no-op
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+    if (client != null) {
+      try {
+        client.close();
+      } catch (IOException e) {
+        LOG.warn("Unable to close the HTTP client of directive '{}'.", NAME, e);
+      }
+      client = null;
+    }
   }
 
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context)
     throws DirectiveExecutionException, ErrorRowException {
+    RowErrors errors = new RowErrors();
+    execute(rows, context, errors);
+    for (int i = 0; i < rows.size(); i++) {
+      if (errors.contains(i)) {
+        throw (ErrorRowException) errors.get(i);
+      }
+    }
+    return rows;
+  }
+
+  @Override
+  public void execute(List<Row> rows, ExecutorContext context, RowErrors errors) {
+    List<String> requests = new ArrayList<>(rows.size());
     for (Row row : rows) {
       Map<String, Object> parameters = new HashMap<>();
       for (String column : columns) {
@@ -133,17 +248,21 @@ public class InvokeHttp implements Directive, Lineage {
           parameters.put(column, row.getValue(idx));
         }
       }
+      requests.add(GSON.toJson(parameters));
+    }
+
+    List<Future<String>> results = invokeAll(requests);
+    for (int i = 0; i < rows.size(); i++) {
       try {
-        Map<String, Object> result = invokeHttp(url, parameters, headers);
+        Map<String, Object> result = GSON.fromJson(get(results.get(i)), RESPONSE_TYPE);
         for (Map.Entry<String, Object> entry : result.entrySet()) {
-          row.addOrSet(entry.getKey(), entry.getValue());
+          rows.get(i).addOrSet(entry.getKey(), entry.getValue());
         }
       } catch (Exception e) {
-        // If there are any issues, they will be pushed on the error port.
-        throw new ErrorRowException(NAME, e.getMessage(), 500);
+        // If there are any issues, the row will be pushed on the error port.
+        errors.add(i, new ErrorRowException(NAME, e.getMessage(), 500));
       }
     }
-    return rows;
   }
 
   @Override
@@ -154,9 +273,54 @@ public class InvokeHttp implements Directive, Lineage {
       .build();
   }
 
-  private class ServiceResponseHandler implements ResponseHandler<Map<String, Object>> {
+  /**
+   * Returns the responses to the requests, in order. A single request is sent by the calling thread, several are
+   * sent concurrently.
+   */
+  private List<Future<String>> invokeAll(List<String> requests) {
+    List<Future<String>> results = new ArrayList<>(requests.size());
+    Map<String, Future<String>> sent = new HashMap<>();
+    for (String request : requests) {
+      Future<String> result = deduplicate ? sent.get(request) : null;
+      if (result == null) {
+        String cached = responses == null ? null : responses.getIfPresent(request);
+        if (cached != null) {
+          result = Futures.immediateFuture(cached);
+        } else if (requests.size() == 1 || concurrency == 1) {
+          try {
+            result = Futures.immediateFuture(invoke(request));
+          } catch (IOException e) {
+            result = Futures.immediateFailedFuture(e);
+          }
+        } else {
+          result = getExecutor().submit(() -> invoke(request));
+        }
+        sent.put(request, result);
+      }
+      results.add(result);
+    }
+    return results;
+  }
+
+  private ExecutorService getExecutor() {
+    if (executor == null) {
+      executor = Executors.newFixedThreadPool(
+        concurrency, new ThreadFactoryBuilder().setNameFormat(NAME + "-%d").setDaemon(true).build());
+    }
+    return executor;
+  }
+
+  private static String get(Future<String> result) throws Exception {
+    try {
+      return result.get();
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+    }
+  }
+
+  private static class ServiceResponseHandler implements ResponseHandler<String> {
     @Override
-    public Map<String, Object> handleResponse(HttpResponse response) throws IOException {
+    public String handleResponse(HttpResponse response) throws IOException {
       StatusLine statusLine = response.getStatusLine();
       HttpEntity entity = response.getEntity();
       if (statusLine.getStatusCode() >= 300) {
@@ -167,32 +331,20 @@ public class InvokeHttp implements Directive, Lineage {
       if (entity == null) {
         throw new ClientProtocolException("Response contains no content");
       }
-      Gson gson = new GsonBuilder().create();
-      Reader reader = new InputStreamReader(entity.getContent(), Charset.forName("UTF-8"));
-      return gson.fromJson(reader, new TypeToken<Map<String, Object>>() { }.getType());
+      return EntityUtils.toString(entity, StandardCharsets.UTF_8);
     }
   }
 
-  private Map<String, Object> invokeHttp(String url, Map<String, Object> parameters,
-                                         Map<String, String> headers) throws IOException {
-    CloseableHttpClient client = null;
-    try {
-      String body = gson.toJson(parameters);
-      HttpPost post = new HttpPost(url);
-      post.addHeader("Content-type", "application/json; charset=UTF-8");
-      for (Map.Entry<String, String> entry : headers.entrySet()) {
-        post.addHeader(entry.getKey(), entry.getValue());
-      }
-      BasicHttpEntity entity = new BasicHttpEntity();
-      InputStream stream = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
-      entity.setContent(stream);
-      post.setEntity(entity);
-      client = HttpClients.createDefault();
-      return client.execute(post, new ServiceResponseHandler());
-    } finally {
-      if (client != null) {
-        client.close();
-      }
+  private String invoke(String body) throws IOException {
+    HttpPost post = new HttpPost(url);
+    for (Map.Entry<String, String> entry : headers.entrySet()) {
+      post.addHeader(entry.getKey(), entry.getValue());
+    }
+    post.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+    String response = client.execute(post, new ServiceResponseHandler());
+    if (responses != null) {
+      responses.put(body, response);
     }
+    return response;
   }
 }
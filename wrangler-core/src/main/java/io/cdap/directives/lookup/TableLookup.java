@@ -16,51 +16,89 @@
 
 package io.cdap.directives.lookup;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.cdap.api.common.Bytes;
 import io.cdap.cdap.api.data.DatasetInstantiationException;
 import io.cdap.cdap.etl.api.Lookup;
+import io.cdap.cdap.etl.api.StageMetrics;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.BatchDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.LazyNumber;
+import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowErrors;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
+import io.cdap.wrangler.api.parser.Properties;
 import io.cdap.wrangler.api.parser.Text;
+import io.cdap.wrangler.api.parser.Token;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * An directive that performs a lookup into a Table Dataset and adds the row values into the record.
+ *
+ * <p>The keys of the rows given at once are looked up together. Looked up rows can be cached, including the keys
+ * that are not in the table, within a number of keys and for a time that are set by the {@link #CACHE_SIZE} and
+ * {@link #CACHE_TTL_SECONDS} options. Cache hits, misses and evictions are counted in the metrics of the
+ * context.</p>
  */
 @Plugin(type = Directive.TYPE)
 @Name(TableLookup.NAME)
 @Categories(categories = { "lookup"})
 @Description("Uses the given column as a key to perform a lookup into the specified table.")
-public class TableLookup implements Directive, Lineage {
+public class TableLookup implements BatchDirective, Lineage {
   public static final String NAME = "table-lookup";
+  /**
+   * Option of the maximum number of keys cached, nothing is cached unless it is set.
+   */
+  public static final String CACHE_SIZE = "cache-size";
+  /**
+   * Option of the number of seconds a looked up row is cached for, 60 by default.
+   */
+  public static final String CACHE_TTL_SECONDS = "cache-ttl-seconds";
+  static final String CACHE_HITS = "lookup.cache.hits";
+  static final String CACHE_MISSES = "lookup.cache.misses";
+  static final String CACHE_EVICTIONS = "lookup.cache.evictions";
+  private static final long DEFAULT_CACHE_TTL_SECONDS = 60;
+
   private String column;
   private String table;
 
   private boolean initialized;
   private io.cdap.cdap.etl.api.lookup.TableLookup tableLookup;
+  // Columns and values of the looked up rows, empty for keys that are not in the table.
+  private Cache<String, Map<String, String>> cache;
+  private CacheStats reported;
 
   @Override
   public UsageDefinition define() {
     UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
     builder.define("column", TokenType.COLUMN_NAME);
     builder.define("table", TokenType.TEXT);
+    builder.define("options", TokenType.PROPERTIES, "prop:{cache-size=<n>,cache-ttl-seconds=<n>}", Optional.TRUE);
     return builder.build();
   }
 
@@ -69,11 +107,48 @@ public class TableLookup implements Directive, Lineage {
     this.column = ((ColumnName) args.value("column")).value();
     this.table = ((Text) args.value("table")).value();
     this.initialized = false;
+
+    long size = 0;
+    long ttl = DEFAULT_CACHE_TTL_SECONDS;
+    if (args.contains("options")) {
+      Map<String, Token> options = ((Properties) args.value("options")).value();
+      for (Map.Entry<String, Token> option : options.entrySet()) {
+        switch (option.getKey()) {
+          case CACHE_SIZE:
+            size = positive(option.getKey(), option.getValue().value());
+            break;
+          case CACHE_TTL_SECONDS:
+            ttl = positive(option.getKey(), option.getValue().value());
+            break;
+          default:
+            throw new DirectiveParseException(
+              NAME, String.format("Unknown option '%s', options are '%s' and '%s'.", option.getKey(),
+                                  CACHE_SIZE, CACHE_TTL_SECONDS));
+        }
+      }
+    }
+    if (size > 0) {
+      this.cache = CacheBuilder.newBuilder()
+        .maximumSize(size)
+        .expireAfterWrite(ttl, TimeUnit.SECONDS)
+        .recordStats()
+        .build();
+      this.reported = cache.stats();
+    }
+  }
+
+  private static long positive(String option, Object value) throws DirectiveParseException {
+    if (!(value instanceof LazyNumber) || ((LazyNumber) value).longValue() < 1) {
+      throw new DirectiveParseException(NAME, String.format("Option '%s' must be a positive integer.", option));
+    }
+    return ((LazyNumber) value).longValue();
   }
 
   @Override
   public void destroy() {
-    // no-op
+    if (cache != null) {
+      cache.invalidateAll();
+    }
   }
 
   private void ensureInitialized(ExecutorContext context) throws DirectiveExecutionException {
@@ -99,9 +174,11 @@ public class TableLookup implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     ensureInitialized(context);
+    List<String> keys = new ArrayList<>(rows.size());
     for (Row row : rows) {
       int idx = row.find(column);
       if (idx == -1) {
+        keys.add(null);
         continue;
       }
       Object object = row.getValue(idx);
@@ -117,14 +194,92 @@ public class TableLookup implements Directive, Lineage {
                               column, object.getClass().getSimpleName())
         );
       }
-      io.cdap.cdap.api.dataset.table.Row lookedUpRow = tableLookup.lookup((String) object);
-      for (Map.Entry<byte[], byte[]> entry : lookedUpRow.getColumns().entrySet()) {
-        row.add(column + "_" + Bytes.toString(entry.getKey()), Bytes.toString(entry.getValue()));
+      keys.add((String) object);
+    }
+
+    Map<String, Map<String, String>> lookedUp = lookup(keys);
+    for (int i = 0; i < rows.size(); i++) {
+      String key = keys.get(i);
+      if (key == null) {
+        continue;
+      }
+      for (Map.Entry<String, String> entry : lookedUp.get(key).entrySet()) {
+        rows.get(i).add(column + "_" + entry.getKey(), entry.getValue());
       }
     }
+    reportMetrics(context);
     return rows;
   }
 
+  @Override
+  public void execute(List<Row> rows, ExecutorContext context, RowErrors errors) throws DirectiveExecutionException {
+    // Rows never error out on their own, a lookup either succeeds for all of them or fails altogether.
+    execute(rows, context);
+  }
+
+  /**
+   * Returns the columns and values of the rows of the keys, from the cache or else from the table.
+   */
+  private Map<String, Map<String, String>> lookup(List<String> keys) {
+    Map<String, Map<String, String>> lookedUp = new HashMap<>();
+    Set<String> missing = new LinkedHashSet<>();
+    for (String key : keys) {
+      if (key == null || lookedUp.containsKey(key) || missing.contains(key)) {
+        continue;
+      }
+      Map<String, String> cached = cache == null ? null : cache.getIfPresent(key);
+      if (cached == null) {
+        missing.add(key);
+      } else {
+        lookedUp.put(key, cached);
+      }
+    }
+    if (missing.isEmpty()) {
+      return lookedUp;
+    }
+
+    Map<String, io.cdap.cdap.api.dataset.table.Row> rows;
+    if (missing.size() == 1) {
+      String key = missing.iterator().next();
+      rows = Collections.singletonMap(key, tableLookup.lookup(key));
+    } else {
+      rows = tableLookup.lookup(missing);
+    }
+    for (String key : missing) {
+      Map<String, String> values = new LinkedHashMap<>();
+      io.cdap.cdap.api.dataset.table.Row row = rows.get(key);
+      if (row != null) {
+        for (Map.Entry<byte[], byte[]> entry : row.getColumns().entrySet()) {
+          values.put(Bytes.toString(entry.getKey()), Bytes.toString(entry.getValue()));
+        }
+      }
+      lookedUp.put(key, values);
+      if (cache != null) {
+        cache.put(key, values);
+      }
+    }
+    return lookedUp;
+  }
+
+  private void reportMetrics(ExecutorContext context) {
+    if (cache == null || context.getMetrics() == null) {
+      return;
+    }
+    CacheStats stats = cache.stats();
+    CacheStats delta = stats.minus(reported);
+    reported = stats;
+    StageMetrics metrics = context.getMetrics();
+    if (delta.hitCount() > 0) {
+      metrics.count(CACHE_HITS, (int) delta.hitCount());
+    }
+    if (delta.missCount() > 0) {
+      metrics.count(CACHE_MISSES, (int) delta.missCount());
+    }
+    if (delta.evictionCount() > 0) {
+      metrics.count(CACHE_EVICTIONS, (int) delta.evictionCount());
+    }
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
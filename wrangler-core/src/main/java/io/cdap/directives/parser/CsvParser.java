@@ -38,9 +38,6 @@ import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 import io.cdap.wrangler.dq.DataType;
 import io.cdap.wrangler.dq.TypeInference;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.lang3.StringEscapeUtils;
 
 import java.io.IOException;
@@ -48,6 +45,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * A CSV Parser Stage for parsing the {@link Row} provided based on configuration.
@@ -58,12 +56,13 @@ import java.util.Set;
 @Description("Parses a column as CSV (comma-separated values).")
 public class CsvParser implements Directive, Lineage {
   public static final String NAME = "parse-as-csv";
+  private static final Pattern WHITESPACES = Pattern.compile("\\s+");
   private ColumnName columnArg;
   private Text delimiterArg;
   private Bool headerArg;
 
-  // CSV format defines the configuration for CSV parser for parsing.
-  private CSVFormat format;
+  // Tokenizer splitting the values into records of fields, reused for all the rows.
+  private CsvTokenizer tokenizer;
 
   //
   private boolean hasHeader;
@@ -74,6 +73,9 @@ public class CsvParser implements Directive, Lineage {
   // Header names.
   private List<String> headers = new ArrayList<>();
 
+  // Names of the columns when there is no header, generated as fields are found.
+  private final List<String> names = new ArrayList<>();
+
   @Override
   public UsageDefinition define() {
     UsageDefinition.Builder builder = UsageDefinition.builder("parse-as-csv");
@@ -101,12 +103,12 @@ public class CsvParser implements Directive, Lineage {
       }
     }
 
-
-    this.format = CSVFormat.DEFAULT.withDelimiter(delimiter);
-    this.format.withIgnoreEmptyLines(true)
-      .withAllowMissingColumnNames(true)
-      .withIgnoreSurroundingSpaces(true)
-      .withRecordSeparator('\n');
+    try {
+      this.tokenizer = new CsvTokenizer(delimiter);
+    } catch (IllegalArgumentException e) {
+      throw new DirectiveParseException(
+        NAME, String.format("Invalid delimiter for CSV Parser '%s'. %s", delimiterArg.value(), e.getMessage()), e);
+    }
 
     this.hasHeader = false;
     if (args.contains("header")) {
@@ -140,20 +142,18 @@ public class CsvParser implements Directive, Lineage {
       if (line == null || line.isEmpty()) {
         continue;
       }
-      CSVParser parser = null;
+      tokenizer.reset(line);
       try {
-        parser = CSVParser.parse(line, format);
-        List<CSVRecord> csvRecords = parser.getRecords();
-        for (CSVRecord csvRecord : csvRecords) {
-          if (!checkedHeader && hasHeader && isHeader(csvRecord)) {
-            for (int i = 0; i < csvRecord.size(); i++) {
-              headers.add(csvRecord.get(i).trim().replaceAll("\\s+", "_"));
+        while (tokenizer.next()) {
+          if (!checkedHeader && hasHeader && isHeader()) {
+            for (int i = 0; i < tokenizer.size(); i++) {
+              headers.add(WHITESPACES.matcher(tokenizer.get(i).trim()).replaceAll("_"));
             }
             if (rows.size() > 0) {
               return new ArrayList<>();
             }
           } else {
-            toRow(csvRecord, row);
+            toRow(row);
           }
         }
       } catch (IOException e) {
@@ -165,27 +165,27 @@ public class CsvParser implements Directive, Lineage {
   }
 
   /**
-   * Converts a {@link CSVRecord} to {@link Row}.
-   *
-   * @param record
-   * @return
+   * Adds the fields of the current record of the tokenizer to {@link Row}.
    */
-  private void toRow(CSVRecord record, Row row) {
+  private void toRow(Row row) {
     int size = headers.size();
-    for (int i = 0; i < record.size(); i++) {
+    for (int i = 0; i < tokenizer.size(); i++) {
       if (size > 0) {
-        row.add(headers.get(i), record.get(i));
+        row.add(headers.get(i), tokenizer.get(i));
       } else {
-        row.add(columnArg.value() + "_" + (i + 1), record.get(i));
+        while (names.size() <= i) {
+          names.add(columnArg.value() + "_" + (names.size() + 1));
+        }
+        row.add(names.get(i), tokenizer.get(i));
       }
     }
   }
 
-  private boolean isHeader(CSVRecord record) {
+  private boolean isHeader() {
     checkedHeader = true;
     Set<String> columns = new HashSet<>();
-    for (int i = 0; i < record.size(); i++) {
-      String value = record.get(i);
+    for (int i = 0; i < tokenizer.size(); i++) {
+      String value = tokenizer.get(i);
       if (value == null || value.trim().isEmpty()) {
         return false;
       }
@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.parser;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits text into records of delimited fields, as commons-csv does with {@code CSVFormat.DEFAULT} and a given
+ * delimiter, without allocating anything but the fields themselves.
+ *
+ * <p>Records are separated by line breaks, empty lines being skipped. A field starting with a double quote runs up
+ * to the next single double quote, two double quotes standing for one, and can contain delimiters and line breaks.
+ * Only whitespace can follow it before the next delimiter or line break. Quotes anywhere else are kept as they
+ * are.</p>
+ *
+ * <p>A tokenizer is reused for any number of texts, it is not thread safe.</p>
+ */
+final class CsvTokenizer {
+  private static final char QUOTE = '"';
+
+  private final char delimiter;
+  private final List<String> fields = new ArrayList<>();
+  private final StringBuilder buffer = new StringBuilder();
+  private String text = "";
+  private int position;
+
+  CsvTokenizer(char delimiter) {
+    Preconditions.checkArgument(!isLineBreak(delimiter), "The delimiter cannot be a line break.");
+    Preconditions.checkArgument(delimiter != QUOTE, "The delimiter cannot be a double quote.");
+    this.delimiter = delimiter;
+  }
+
+  /**
+   * Starts tokenizing a text, the previous one being dropped.
+   */
+  void reset(String text) {
+    this.text = text;
+    this.position = 0;
+    this.fields.clear();
+  }
+
+  /**
+   * Reads the next record of the text, which fields are then available with {@link #size()} and {@link #get(int)}.
+   *
+   * @return false if there are no more records
+   * @throws IOException if a quoted field is not terminated, or followed by something else than whitespace
+   */
+  boolean next() throws IOException {
+    fields.clear();
+    int length = text.length();
+    int i = position;
+    while (i < length && isLineBreak(text.charAt(i))) {
+      i++;
+    }
+    if (i == length) {
+      position = length;
+      return false;
+    }
+
+    while (true) {
+      if (i == length) {
+        // The text ends with a delimiter.
+        fields.add("");
+        break;
+      }
+      char c = text.charAt(i);
+      if (c == QUOTE) {
+        i = readQuoted(i);
+      } else {
+        int start = i;
+        while (i < length && (c = text.charAt(i)) != delimiter && !isLineBreak(c)) {
+          i++;
+        }
+        fields.add(text.substring(start, i));
+      }
+      if (i == length) {
+        break;
+      }
+      c = text.charAt(i++);
+      if (c != delimiter) {
+        // A line break ends the record, a CR LF pair counting as one.
+        if (c == '\r' && i < length && text.charAt(i) == '\n') {
+          i++;
+        }
+        break;
+      }
+    }
+    position = i;
+    return true;
+  }
+
+  /**
+   * Returns the number of fields of the current record.
+   */
+  int size() {
+    return fields.size();
+  }
+
+  /**
+   * Returns a field of the current record.
+   */
+  String get(int index) {
+    return fields.get(index);
+  }
+
+  // Reads the quoted field starting at the given index, returns the index of the delimiter or line break after it,
+  // or the length of the text.
+  private int readQuoted(int quote) throws IOException {
+    int length = text.length();
+    int start = quote + 1;
+    int i = start;
+    buffer.setLength(0);
+    while (true) {
+      int next = text.indexOf(QUOTE, i);
+      if (next < 0) {
+        throw new IOException(String.format("(startline %d) EOF reached before encapsulated token finished",
+                                            lineNumber(quote)));
+      }
+      if (next + 1 < length && text.charAt(next + 1) == QUOTE) {
+        // Two double quotes stand for one.
+        buffer.append(text, i, next + 1);
+        i = next + 2;
+        continue;
+      }
+      if (i == start) {
+        fields.add(text.substring(start, next));
+      } else {
+        fields.add(buffer.append(text, i, next).toString());
+      }
+      i = next + 1;
+      break;
+    }
+
+    for (; i < length; i++) {
+      char c = text.charAt(i);
+      if (c == delimiter || isLineBreak(c)) {
+        break;
+      }
+      if (!Character.isWhitespace(c)) {
+        throw new IOException(String.format("(line %d) invalid char between encapsulated token and delimiter",
+                                            lineNumber(i)));
+      }
+    }
+    return i;
+  }
+
+  // Line number of the given index of the text, starting at 1.
+  private int lineNumber(int index) {
+    int line = 1;
+    for (int i = 0; i < index; i++) {
+      char c = text.charAt(i);
+      if (c == '\n' || (c == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n'))) {
+        line++;
+      }
+    }
+    return line;
+  }
+
+  private static boolean isLineBreak(char c) {
+    return c == '\n' || c == '\r';
+  }
+}
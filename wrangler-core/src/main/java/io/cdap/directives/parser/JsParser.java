@@ -18,10 +18,16 @@ package io.cdap.directives.parser;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
 import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.internal.Streams;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
@@ -44,11 +50,16 @@ import io.cdap.wrangler.api.parser.UsageDefinition;
 import io.cdap.wrangler.dq.TypeInference;
 import org.json.JSONException;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.Map;
 
 /**
@@ -67,9 +78,6 @@ public class JsParser implements Directive, Lineage {
   // Max depth to which the JSON needs to be parsed.
   private int depth;
 
-  // JSON parser.
-  private static final JsonParser parser = new JsonParser();
-
   @Override
   public UsageDefinition define() {
     UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
@@ -109,11 +117,13 @@ public class JsParser implements Directive, Lineage {
         }
 
         try {
-          JsonElement element = null;
           if (value instanceof String) {
-            String document = (String) value;
-            element = parser.parse(document.trim());
-          } else if (value instanceof JsonObject || value instanceof JsonArray) {
+            row.remove(idx);
+            parse(((String) value).trim(), row, results);
+            continue;
+          }
+          JsonElement element = null;
+          if (value instanceof JsonObject || value instanceof JsonArray) {
             element = (JsonElement) value;
           } else {
             throw new DirectiveExecutionException(
@@ -123,24 +133,20 @@ public class JsParser implements Directive, Lineage {
 
           row.remove(idx);
 
-          if (element != null) {
-            if (element instanceof JsonObject) {
-              jsonFlatten(element.getAsJsonObject(), column, 1, depth, row);
-              results.add(row);
-            } else if (element instanceof JsonArray) {
-              JsonArray array = element.getAsJsonArray();
-              if (array.size() > 0) {
-                for (int i = 0; i < array.size(); ++i) {
-                  JsonElement object = array.get(i);
-                  Row newRow = new Row(row);
-                  newRow.add(column, getValue(object));
-                  results.add(newRow);
-                }
-              } else {
-                results.add(row);
+          if (element instanceof JsonObject) {
+            jsonFlatten(element.getAsJsonObject(), column, 1, depth, row);
+            results.add(row);
+          } else {
+            JsonArray array = element.getAsJsonArray();
+            if (array.size() > 0) {
+              for (int i = 0; i < array.size(); ++i) {
+                JsonElement object = array.get(i);
+                Row newRow = new Row(row);
+                newRow.add(column, getValue(object));
+                results.add(newRow);
               }
-            } else if (element instanceof JsonPrimitive) {
-              row.add(column, getValue(element.getAsJsonPrimitive()));
+            } else {
+              results.add(row);
             }
           }
         } catch (JSONException e) {
@@ -151,6 +157,135 @@ public class JsParser implements Directive, Lineage {
     return results;
   }
 
+  /**
+   * Parses a JSON document into the row, while reading it. Objects are flattened into columns until the depth is
+   * reached, and the elements of an array are added to copies of the row, one for each. The values are the same as
+   * with a {@link JsonElement} of the document, which is not built: only the arrays, and the objects past the depth,
+   * are read into elements, as they are the values of columns. Documents are read leniently, as
+   * {@link com.google.gson.JsonParser} does. A key repeated in an object keeps its last value in the position of its
+   * first one in a {@link JsonObject}, so documents with such keys are read into an element and flattened from it.
+   *
+   * @param document JSON document to be parsed.
+   * @param row to which the columns are added, without the column parsed.
+   * @param results to which the rows are added.
+   */
+  private void parse(String document, Row row, List<Row> results) {
+    JsonReader reader = new JsonReader(new StringReader(document));
+    reader.setLenient(true);
+    boolean empty = true;
+    try {
+      JsonToken token = reader.peek();
+      empty = false;
+      switch (token) {
+        case BEGIN_OBJECT:
+          int width = row.width();
+          if (!flatten(reader, column, 1, depth, row, new HashSet<>())) {
+            while (row.width() > width) {
+              row.remove(row.width() - 1);
+            }
+            reader = new JsonReader(new StringReader(document));
+            reader.setLenient(true);
+            jsonFlatten(Streams.parse(reader).getAsJsonObject(), column, 1, depth, row);
+          }
+          results.add(row);
+          break;
+        case BEGIN_ARRAY:
+          reader.beginArray();
+          if (!reader.hasNext()) {
+            results.add(row);
+          }
+          while (reader.hasNext()) {
+            Row newRow = new Row(row);
+            newRow.add(column, readValue(reader));
+            results.add(newRow);
+          }
+          reader.endArray();
+          break;
+        case NULL:
+          reader.nextNull();
+          return;
+        default:
+          row.add(column, readValue(reader));
+      }
+      // Only whitespace can follow the document, as with the non lenient reader of JsonParser.
+      reader.setLenient(false);
+      if (reader.peek() != JsonToken.END_DOCUMENT) {
+        throw new JsonSyntaxException("Did not consume the entire document.");
+      }
+    } catch (EOFException e) {
+      // An empty document is a null, and not an error.
+      if (!empty) {
+        throw new JsonSyntaxException(e);
+      }
+    } catch (MalformedJsonException | NumberFormatException e) {
+      throw new JsonSyntaxException(e);
+    } catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  /**
+   * Flattens the object the reader is at, until the 'depth' is reached, as {@link #jsonFlatten} does.
+   *
+   * @param names of the members read so far, prefixed by the names of the objects they are in
+   * @return {@code false} if a key is repeated in an object, in which case the object is only partly read
+   */
+  private static boolean flatten(JsonReader reader, String field, int depth, int maxDepth, Row row,
+                                 Set<String> names) throws IOException {
+    if (depth > maxDepth) {
+      row.addOrSet(field, Streams.parse(reader));
+      return true;
+    }
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = field + "_" + reader.nextName();
+      if (!names.add(name)) {
+        return false;
+      }
+      if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+        if (!flatten(reader, name, depth + 1, maxDepth, row, names)) {
+          return false;
+        }
+      } else {
+        row.add(name, readValue(reader));
+      }
+    }
+    reader.endObject();
+    return true;
+  }
+
+  /**
+   * Reads the next value, as {@link #getValue(JsonElement)} returns it from an element.
+   */
+  private static Object readValue(JsonReader reader) throws IOException {
+    switch (reader.peek()) {
+      case BEGIN_OBJECT:
+      case BEGIN_ARRAY:
+        return Streams.parse(reader);
+      case BOOLEAN:
+        return reader.nextBoolean();
+      case NUMBER:
+        return getNumber(reader.nextString());
+      case NULL:
+        reader.nextNull();
+        return JsonNull.INSTANCE;
+      default:
+        return reader.nextString();
+    }
+  }
+
+  /**
+   * Converts a number of a JSON document to a long if it is an integer, else to a double.
+   */
+  private static Object getNumber(String number) {
+    if (TypeInference.isInteger(number)) {
+      return new BigInteger(number).longValue();
+    } else {
+      return new BigDecimal(number).doubleValue();
+    }
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -232,11 +367,7 @@ public class JsParser implements Directive, Lineage {
       } else if (number instanceof BigDecimal) {
         return primitive.getAsBigDecimal().doubleValue();
       } else if (number instanceof LazilyParsedNumber) {
-        if (TypeInference.isInteger(primitive.getAsString())) {
-          return primitive.getAsBigInteger().longValue();
-        } else {
-          return primitive.getAsBigDecimal().doubleValue();
-        }
+        return getNumber(primitive.getAsString());
       }
     } else if (primitive.isString()) {
       return primitive.getAsString();
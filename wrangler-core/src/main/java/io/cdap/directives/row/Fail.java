@@ -53,6 +53,8 @@ public class Fail implements Directive, Lineage {
   public static final String NAME = "fail";
   private String condition;
   private EL el;
+  // Context the expression is evaluated with, bound to each row in turn.
+  private ELContext ctx;
 
   @Override
   public UsageDefinition define() {
@@ -85,8 +87,12 @@ public class Fail implements Directive, Lineage {
   public List<Row> execute(List<Row> rows, ExecutorContext context)
     throws DirectiveExecutionException {
     for (Row row : rows) {
-      // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context, el, row);
+      // Bind the row to the context, its fields are resolved as the expression reads them.
+      if (ctx == null) {
+        ctx = new ELContext(context, el, row);
+      } else {
+        ctx.reset(context, row);
+      }
 
       // Execution of the script / expression based on the row data
       // mapped into context.
@@ -60,6 +60,8 @@ import static io.cdap.wrangler.metrics.JexlCategoryMetricUtils.getJexlCategoryMe
 public class RecordConditionFilter implements Directive, Lineage {
   public static final String NAME = "filter-row";
   private EL el;
+  // Context the expression is evaluated with, bound to each row in turn.
+  private ELContext ctx;
   private boolean isTrue;
 
   @Override
@@ -93,12 +95,11 @@ public class RecordConditionFilter implements Directive, Lineage {
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     List<Row> results = new ArrayList<>();
     for (Row row : rows) {
-      // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context, el, row);
-      if (context != null) {
-        for (String variable : context.getTransientStore().getVariables()) {
-          ctx.set(variable, context.getTransientStore().get(variable));
-        }
+      // Bind the row to the context, its fields are resolved as the expression reads them.
+      if (ctx == null) {
+        ctx = new ELContext(context, el, row);
+      } else {
+        ctx.reset(context, row);
       }
       try {
         Boolean result = el.execute(ctx).getBoolean();
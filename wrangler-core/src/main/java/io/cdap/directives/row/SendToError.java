@@ -63,6 +63,8 @@ import static io.cdap.wrangler.metrics.JexlCategoryMetricUtils.getJexlCategoryMe
 public class SendToError implements Directive, Lineage {
   public static final String NAME = "send-to-error";
   private EL el;
+  // Context the expression is evaluated with, bound to each row in turn.
+  private ELContext ctx;
   private String condition;
   private String metric = null;
   private String message = null;
@@ -104,14 +106,11 @@ public class SendToError implements Directive, Lineage {
     throws DirectiveExecutionException, ErrorRowException {
     List<Row> results = new ArrayList<>();
     for (Row row : rows) {
-      // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context, el, row);
-
-      // Transient variables are added.
-      if (context != null) {
-        for (String variable : context.getTransientStore().getVariables()) {
-          ctx.set(variable, context.getTransientStore().get(variable));
-        }
+      // Bind the row to the context, its fields are resolved as the expression reads them.
+      if (ctx == null) {
+        ctx = new ELContext(context, el, row);
+      } else {
+        ctx.reset(context, row);
       }
 
       // Execution of the script / expression based on the row data
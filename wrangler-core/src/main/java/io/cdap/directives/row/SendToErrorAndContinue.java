@@ -64,6 +64,8 @@ import static io.cdap.wrangler.metrics.JexlCategoryMetricUtils.getJexlCategoryMe
 public class SendToErrorAndContinue implements Directive, Lineage {
   public static final String NAME = "send-to-error-and-continue";
   private EL el;
+  // Context the expression is evaluated with, bound to each row in turn.
+  private ELContext ctx;
   private String condition;
   private String metric = null;
   private String message = null;
@@ -107,8 +109,12 @@ public class SendToErrorAndContinue implements Directive, Lineage {
     }
     List<Row> results = new ArrayList<>();
     for (Row row : rows) {
-      // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context, el, row);
+      // Bind the row to the context, its fields are resolved as the expression reads them.
+      if (ctx == null) {
+        ctx = new ELContext(context, el, row);
+      } else {
+        ctx.reset(context, row);
+      }
 
       // Execution of the script / expression based on the row data
       // mapped into context.
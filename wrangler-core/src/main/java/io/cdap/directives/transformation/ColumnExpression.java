@@ -21,11 +21,13 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.ColumnSlots;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.EntityCountMetric;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
@@ -33,6 +35,8 @@ import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
 import io.cdap.wrangler.api.parser.Expression;
+import io.cdap.wrangler.api.parser.Properties;
+import io.cdap.wrangler.api.parser.Token;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 import io.cdap.wrangler.expression.EL;
@@ -41,6 +45,7 @@ import io.cdap.wrangler.expression.ELException;
 import io.cdap.wrangler.expression.ELResult;
 
 import java.util.List;
+import java.util.Map;
 
 import static io.cdap.wrangler.metrics.JexlCategoryMetricUtils.getJexlCategoryMetric;
 
@@ -55,6 +60,9 @@ import static io.cdap.wrangler.metrics.JexlCategoryMetricUtils.getJexlCategoryMe
  * <p>
  *   Executor step = new ColumnExpression(lineno, directive, column, "if (age > 24 ) { 'adult' } else { 'teen' }");
  * </p>
+ *
+ * <p>The expression can be evaluated without going through the JEXL interpreter when it is supported, which is set
+ * by the {@code options} argument, see {@link #COMPILE}.</p>
  */
 @Plugin(type = Directive.TYPE)
 @Name(ColumnExpression.NAME)
@@ -62,26 +70,53 @@ import static io.cdap.wrangler.metrics.JexlCategoryMetricUtils.getJexlCategoryMe
 @Description("Sets a column by evaluating a JEXL expression.")
 public class ColumnExpression implements Directive, Lineage {
   public static final String NAME = "set-column";
+  /**
+   * Option that, when {@code true}, evaluates the expression without going through the JEXL interpreter if it is
+   * supported, see {@link EL#compile(io.cdap.wrangler.expression.ELRegistration, String, boolean)}.
+   */
+  public static final String COMPILE = "compile";
   // Column to which the result of experience is applied to.
   private String column;
+  // Position of the column in the rows.
+  private ColumnSlots slots;
   // The actual expression
   private String expression;
   private EL el;
+  // Context the expression is evaluated with, bound to each row in turn.
+  private ELContext ctx;
 
   @Override
   public UsageDefinition define() {
     UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
     builder.define("column", TokenType.COLUMN_NAME);
     builder.define("expression", TokenType.EXPRESSION);
+    builder.define("options", TokenType.PROPERTIES, "prop:{compile=<true|false>}", Optional.TRUE);
     return builder.build();
   }
 
   @Override
   public void initialize(Arguments args) throws DirectiveParseException {
     this.column = ((ColumnName) args.value("column")).value();
+    this.slots = new ColumnSlots(column);
     this.expression = ((Expression) args.value("expression")).value();
+    boolean compile = false;
+    if (args.contains("options")) {
+      Map<String, Token> options = ((Properties) args.value("options")).value();
+      for (Map.Entry<String, Token> option : options.entrySet()) {
+        Object value = option.getValue().value();
+        if (!COMPILE.equals(option.getKey())) {
+          throw new DirectiveParseException(
+            NAME, String.format("Unknown option '%s', the only option is '%s'.", option.getKey(), COMPILE));
+        }
+        if (!(value instanceof Boolean)) {
+          throw new DirectiveParseException(
+            NAME, String.format("Option '%s' must be either true or false.", COMPILE));
+        }
+        compile = (Boolean) value;
+      }
+    }
     try {
-      el = EL.compile(expression);
+      el = EL.compile(new EL.DefaultFunctions(), expression, compile);
     } catch (ELException e) {
       throw new DirectiveParseException(NAME, e.getMessage(), e);
     }
@@ -95,14 +130,18 @@ public class ColumnExpression implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context, el, row);
+      // Bind the row to the context, its fields are resolved as the expression reads them.
+      if (ctx == null) {
+        ctx = new ELContext(context, el, row);
+      } else {
+        ctx.reset(context, row);
+      }
 
       // Execution of the script / expression based on the row data
       // mapped into context.
       try {
         ELResult result = el.execute(ctx);
-        int idx = row.find(this.column);
+        int idx = slots.find(row);
         if (idx == -1) {
           row.add(this.column, result.getObject());
         } else {
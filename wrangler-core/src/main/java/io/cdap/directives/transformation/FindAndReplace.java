@@ -20,6 +20,7 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.ColumnSlots;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
@@ -49,7 +50,9 @@ public class FindAndReplace implements Directive, Lineage {
   public static final String NAME = "find-and-replace";
   private String pattern;
   private List<String> columns;
-
+  private ColumnSlots slots;
+  // Compiled substitution, null for the scripts left to Unix4j.
+  private SedSubstitution substitution;
 
   @Override
   public UsageDefinition define() {
@@ -62,7 +65,9 @@ public class FindAndReplace implements Directive, Lineage {
   @Override
   public void initialize(Arguments args) throws DirectiveParseException {
     this.columns = ((ColumnNameList) args.value("column")).value();
+    this.slots = new ColumnSlots(columns);
     this.pattern = ((Text) args.value("pattern")).value();
+    this.substitution = SedSubstitution.compile(pattern);
   }
 
   @Override
@@ -74,17 +79,21 @@ public class FindAndReplace implements Directive, Lineage {
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     List<Row> results = new ArrayList<>();
     for (Row row : rows) {
-      for (String column : columns) {
-        int idx = row.find(column);
+      for (int i = 0; i < columns.size(); i++) {
+        int idx = slots.find(row, i);
         if (idx != -1) {
           Object v = row.getValue(idx);
           // Operates only on String types.
           try {
             if (v instanceof String) {
               String value = (String) v; // Safely converts to String.
-              Unix4jCommandBuilder builder = Unix4j.echo(value).sed(pattern);
-              if (builder.toExitValue() == 0) {
-                row.setValue(idx, builder.toStringResult());
+              if (substitution != null) {
+                row.setValue(idx, substitution.apply(value));
+              } else {
+                Unix4jCommandBuilder builder = Unix4j.echo(value).sed(pattern);
+                if (builder.toExitValue() == 0) {
+                  row.setValue(idx, builder.toStringResult());
+                }
               }
             }
           } catch (Exception e) {
@@ -20,6 +20,7 @@ import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
 import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.ColumnSlots;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
@@ -46,6 +47,9 @@ public class Lower implements Directive, Lineage {
   // Columns of the column to be lower cased.
   private String column;
 
+  // Position of the column in the rows.
+  private ColumnSlots slots;
+
   @Override
   public UsageDefinition define() {
     UsageDefinition.Builder builder = UsageDefinition.builder(NAME);
@@ -56,6 +60,7 @@ public class Lower implements Directive, Lineage {
   @Override
   public void initialize(Arguments args) throws DirectiveParseException {
     this.column = ((ColumnName) args.value("column")).value();
+    this.slots = new ColumnSlots(column);
   }
 
   @Override
@@ -66,7 +71,7 @@ public class Lower implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      int idx = row.find(column);
+      int idx = slots.find(row);
       if (idx != -1) {
         Object object = row.getValue(idx);
         if (object instanceof String) {
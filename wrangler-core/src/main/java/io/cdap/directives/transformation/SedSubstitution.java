@@ -0,0 +1,157 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.transformation;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.annotation.Nullable;
+
+/**
+ * A sed substitute command, {@code s/regexp/replacement/flags}, compiled once and applied to any number of values.
+ *
+ * <p>It follows the semantics of the Unix4j sed command: the character after {@code s} is the delimiter, which can
+ * be escaped with a backslash in the regular expression and the replacement, both being passed to
+ * {@link java.util.regex} as they are, so that {@code $1} refers to a group. The flags are {@code g} to replace all
+ * the matches, {@code I} to ignore case, and a number {@code n} to replace the n-th match only, or the n-th and all
+ * the following ones along with {@code g}.</p>
+ */
+final class SedSubstitution {
+  private final Pattern pattern;
+  private final String replacement;
+  private final boolean global;
+  private final int occurrence;
+
+  private SedSubstitution(Pattern pattern, String replacement, boolean global, int occurrence) {
+    this.pattern = pattern;
+    this.replacement = replacement;
+    this.global = global;
+    this.occurrence = occurrence;
+  }
+
+  /**
+   * Compiles a sed script, returns null if it is not a valid substitute command, or uses the print flag.
+   */
+  @Nullable
+  static SedSubstitution compile(String script) {
+    int start = skipWhitespace(script, 0);
+    if (start + 1 >= script.length() || script.charAt(start) != 's') {
+      return null;
+    }
+    int delimiter = start + 1;
+    if (script.charAt(delimiter) == '\\') {
+      return null;
+    }
+    int middle = nextDelimiter(script, delimiter);
+    int end = middle < 0 ? -1 : nextDelimiter(script, middle);
+    if (end < 0) {
+      return null;
+    }
+
+    // Flags run up to the next whitespace, which can only be followed by whitespace.
+    int flagsEnd = end + 1;
+    while (flagsEnd < script.length() && !Character.isWhitespace(script.charAt(flagsEnd))) {
+      flagsEnd++;
+    }
+    if (skipWhitespace(script, flagsEnd) < script.length()) {
+      return null;
+    }
+    boolean global = false;
+    boolean ignoreCase = false;
+    int last = flagsEnd - 1;
+    for (; last > end; last--) {
+      char flag = script.charAt(last);
+      if (flag == 'g') {
+        global = true;
+      } else if (flag == 'I') {
+        ignoreCase = true;
+      } else {
+        break;
+      }
+    }
+    int occurrence = 0;
+    if (last > end) {
+      try {
+        occurrence = Integer.parseInt(script.substring(end + 1, last + 1));
+      } catch (NumberFormatException e) {
+        return null;
+      }
+      if (occurrence <= 0) {
+        return null;
+      }
+    }
+
+    try {
+      Pattern pattern = Pattern.compile(script.substring(delimiter + 1, middle),
+                                        ignoreCase ? Pattern.CASE_INSENSITIVE : 0);
+      return new SedSubstitution(pattern, script.substring(middle + 1, end), global, occurrence);
+    } catch (PatternSyntaxException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Applies the substitution to a value.
+   *
+   * @return the value with the matches replaced, or the value itself if nothing matches
+   * @throws IllegalArgumentException if the replacement refers to a group that does not exist
+   */
+  String apply(String value) {
+    Matcher matcher = pattern.matcher(value);
+    if (!matcher.find()) {
+      return value;
+    }
+    StringBuffer result = new StringBuffer(value.length() + 16);
+    boolean found = true;
+    for (int match = 1; match < occurrence && found; match++) {
+      found = matcher.find();
+    }
+    if (found) {
+      matcher.appendReplacement(result, replacement);
+      while (global && matcher.find()) {
+        matcher.appendReplacement(result, replacement);
+      }
+    }
+    matcher.appendTail(result);
+    return result.toString();
+  }
+
+  private static int skipWhitespace(String script, int index) {
+    while (index < script.length() && Character.isWhitespace(script.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  // Index of the next occurrence of the delimiter at the given index, which is not escaped by a backslash.
+  private static int nextDelimiter(String script, int index) {
+    char delimiter = script.charAt(index);
+    int next = script.indexOf(delimiter, index + 1);
+    while (next >= 0 && isEscaped(script, next)) {
+      next = script.indexOf(delimiter, next + 1);
+    }
+    return next;
+  }
+
+  private static boolean isEscaped(String script, int index) {
+    int backslashes = 0;
+    for (int i = index - 1; i >= 0 && script.charAt(i) == '\\'; i--) {
+      backslashes++;
+    }
+    return backslashes % 2 == 1;
+  }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.xml;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import org.json.JSONObject;
+import org.json.XML;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads XML documents into the JSON objects {@code org.json.XML.toJSONObject} converts them to, streaming through
+ * them with StAX rather than going through {@code org.json} objects and their text.
+ *
+ * <p>Attributes and child elements become members of the object of their element, repeated names being gathered in
+ * arrays, and text becomes its {@code content} member, or its value if it has nothing else. Values are coerced into
+ * numbers, booleans and nulls as {@code org.json} does, unless strings are kept. Documents are read as XML parsers
+ * read them though: line breaks are normalized, and so are whitespaces in attribute values. Documents which are not
+ * well formed, such as ones with several roots or entities declared in a DTD, are rejected.</p>
+ *
+ * <p>When reading only the elements and attributes selected by {@link XmlPaths}, the document is read as if it only
+ * had them and the elements enclosing them, the content of the others being skipped.</p>
+ *
+ * <p>A reader is reused for any number of documents, it is not thread safe.</p>
+ */
+final class XmlJsonReader {
+  private static final String CONTENT = "content";
+  private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+  private final XMLInputFactory factory;
+  private final boolean keepStrings;
+  private final XmlPaths paths;
+  private final StringBuilder text = new StringBuilder();
+  private final StringBuilder cdata = new StringBuilder();
+  private final List<String> attributeNames = new ArrayList<>();
+  private final List<String> attributeValues = new ArrayList<>();
+
+  XmlJsonReader(boolean keepStrings, @Nullable XmlPaths paths) {
+    this.factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+    // Neither DTDs nor external entities are read.
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    // CDATA sections are kept as they are, apart from the text around them.
+    if (factory.isPropertySupported(REPORT_CDATA)) {
+      factory.setProperty(REPORT_CDATA, true);
+    }
+    this.keepStrings = keepStrings;
+    this.paths = paths;
+  }
+
+  /**
+   * Reads a document.
+   */
+  JsonObject read(String xml) throws XMLStreamException {
+    return read(factory.createXMLStreamReader(new StringReader(xml)));
+  }
+
+  /**
+   * Reads a document from its bytes, in the encoding it declares.
+   */
+  JsonObject read(byte[] xml) throws XMLStreamException {
+    return read(factory.createXMLStreamReader(new ByteArrayInputStream(xml)));
+  }
+
+  private JsonObject read(XMLStreamReader reader) throws XMLStreamException {
+    text.setLength(0);
+    cdata.setLength(0);
+    try {
+      Deque<Element> elements = new ArrayDeque<>();
+      Element document = new Element(null, paths == null ? null : paths.start());
+      elements.push(document);
+      // Depth within an element which content is skipped.
+      int skipped = 0;
+      while (reader.hasNext()) {
+        int event = reader.next();
+        if (skipped > 0) {
+          if (event == XMLStreamConstants.START_ELEMENT) {
+            skipped++;
+          } else if (event == XMLStreamConstants.END_ELEMENT) {
+            skipped--;
+          }
+          continue;
+        }
+        switch (event) {
+          case XMLStreamConstants.CHARACTERS:
+          case XMLStreamConstants.SPACE:
+            flushCData(elements.peek());
+            text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            break;
+          case XMLStreamConstants.CDATA:
+            flushText(elements.peek());
+            cdata.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            break;
+          case XMLStreamConstants.ENTITY_REFERENCE:
+            throw new XMLStreamException("Undeclared entity '" + reader.getLocalName() + "'.", reader.getLocation());
+          case XMLStreamConstants.START_ELEMENT:
+            flush(elements.peek());
+            Element element = start(reader, elements.peek());
+            if (element == null) {
+              skipped = 1;
+            } else {
+              elements.push(element);
+            }
+            break;
+          case XMLStreamConstants.END_ELEMENT:
+            Element ended = elements.pop();
+            flush(ended);
+            end(ended, elements.peek());
+            break;
+          default:
+            // Comments and processing instructions only split the text around them.
+            flush(elements.peek());
+        }
+      }
+      return toObject(document.members);
+    } catch (RuntimeException e) {
+      // Some parsers report errors lazily, wrapped in unchecked exceptions.
+      if (e.getCause() instanceof XMLStreamException) {
+        throw (XMLStreamException) e.getCause();
+      }
+      throw e;
+    } finally {
+      reader.close();
+    }
+  }
+
+  // Returns the element starting, null if nothing in it can be selected.
+  @Nullable
+  private Element start(XMLStreamReader reader, Element parent) {
+    String name = name(reader.getPrefix(), reader.getLocalName());
+    attributeNames.clear();
+    attributeValues.clear();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      attributeNames.add(name(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)));
+      attributeValues.add(reader.getAttributeValue(i));
+    }
+
+    Element element;
+    List<String> attributes = attributeNames;
+    if (parent.states == null) {
+      element = new Element(name, null);
+    } else {
+      XmlPaths.Match match = paths.match(parent.states, name, attributeNames, attributeValues);
+      if (match.isSelected()) {
+        element = new Element(name, null);
+      } else if (match.getStates().length == 0 && match.getAttributes().isEmpty()) {
+        return null;
+      } else {
+        element = new Element(name, match.getStates());
+        attributes = match.getAttributes();
+      }
+    }
+    for (int i = 0; i < attributeNames.size(); i++) {
+      if (attributes == attributeNames || attributes.contains(attributeNames.get(i))) {
+        accumulate(element.members, attributeNames.get(i), toValue(attributeValues.get(i)));
+      }
+    }
+    return element;
+  }
+
+  private void end(Element element, Element parent) {
+    Map<String, JsonElement> members = element.members;
+    if (members.isEmpty() && element.states != null) {
+      // Nothing was selected in the element.
+      return;
+    }
+    JsonElement value;
+    if (members.isEmpty()) {
+      value = new JsonPrimitive("");
+    } else if (members.size() == 1 && members.containsKey(CONTENT)) {
+      value = members.get(CONTENT);
+    } else {
+      value = toObject(members);
+    }
+    accumulate(parent.members, element.name, value);
+  }
+
+  private void flush(Element element) {
+    flushText(element);
+    flushCData(element);
+  }
+
+  private void flushText(Element element) {
+    if (text.length() == 0) {
+      return;
+    }
+    // Like org.json, leading whitespace is skipped and the text trimmed.
+    int start = 0;
+    while (start < text.length() && Character.isWhitespace(text.charAt(start))) {
+      start++;
+    }
+    String value = text.substring(start).trim();
+    text.setLength(0);
+    if (!value.isEmpty() && element.states == null) {
+      accumulate(element.members, CONTENT, toValue(value));
+    }
+  }
+
+  private void flushCData(Element element) {
+    if (cdata.length() == 0) {
+      return;
+    }
+    if (element.states == null) {
+      accumulate(element.members, CONTENT, new JsonPrimitive(cdata.toString()));
+    }
+    cdata.setLength(0);
+  }
+
+  // Returns the value of some text as it is in org.json objects once written and parsed by Gson.
+  private JsonElement toValue(String value) {
+    if (keepStrings) {
+      return new JsonPrimitive(value);
+    }
+    Object object = XML.stringToValue(value);
+    if (object instanceof Number) {
+      String number = JSONObject.numberToString((Number) object);
+      // Gson reads -0 as the long 0.
+      return new JsonPrimitive(new LazilyParsedNumber("-0".equals(number) ? "0" : number));
+    }
+    if (object instanceof Boolean) {
+      return new JsonPrimitive((Boolean) object);
+    }
+    if (JSONObject.NULL.equals(object)) {
+      return JsonNull.INSTANCE;
+    }
+    return new JsonPrimitive(object.toString());
+  }
+
+  // Adds a value as JSONObject.accumulate does.
+  private static void accumulate(Map<String, JsonElement> members, String name, JsonElement value) {
+    JsonElement current = members.get(name);
+    if (current == null) {
+      if (value.isJsonArray()) {
+        JsonArray array = new JsonArray();
+        array.add(value);
+        value = array;
+      }
+      members.put(name, value);
+    } else if (current.isJsonArray()) {
+      current.getAsJsonArray().add(value);
+    } else {
+      JsonArray array = new JsonArray();
+      array.add(current);
+      array.add(value);
+      members.put(name, array);
+    }
+  }
+
+  // Members are kept in a hash map as in org.json objects, which are written in the order of their map.
+  private static JsonObject toObject(Map<String, JsonElement> members) {
+    JsonObject object = new JsonObject();
+    for (Map.Entry<String, JsonElement> member : members.entrySet()) {
+      object.add(member.getKey(), member.getValue());
+    }
+    return object;
+  }
+
+  private static String name(@Nullable String prefix, String localName) {
+    return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+  }
+
+  /**
+   * An element being read.
+   */
+  private static final class Element {
+    private final String name;
+    private final Map<String, JsonElement> members = new HashMap<>();
+    // States of the paths for the children of the element, null if all of its content is read.
+    private final int[] states;
+
+    private Element(@Nullable String name, @Nullable int[] states) {
+      this.name = name;
+      this.states = states;
+    }
+  }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.xml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compiled subset of XPath selecting elements and attributes of XML documents while they are streamed.
+ *
+ * <p>An expression is a list of paths separated by {@code |}. A path is made of steps separated by {@code /}, or by
+ * {@code //} for the step to match any descendant rather than only children. A step is an element name, prefixed
+ * names matching as they are written, or {@code *} for any element, followed by any number of attribute predicates,
+ * {@code [@name]} or {@code [@name='value']}. A path can end with {@code @name} to select an attribute of the
+ * elements it matches, for instance {@code /ClinicalDocument/recordTarget//telecom[@use='HP']/@value}.</p>
+ *
+ * <p>Elements are matched from the root down, knowing only their name, their attributes and the states of their
+ * parent, which are returned by {@link #start()} for the root and by {@link #match} for the children of an
+ * element.</p>
+ */
+final class XmlPaths {
+  private static final int[] NONE = new int[0];
+
+  private final List<Path> paths;
+
+  private XmlPaths(List<Path> paths) {
+    this.paths = paths;
+  }
+
+  /**
+   * Compiles an expression of paths separated by {@code |}.
+   *
+   * @throws IllegalArgumentException if the expression is not valid
+   */
+  static XmlPaths compile(String expression) {
+    Parser parser = new Parser(expression);
+    List<Path> paths = new ArrayList<>();
+    do {
+      paths.add(parser.path());
+    } while (parser.next('|'));
+    if (paths.size() > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many paths in '" + expression + "'.");
+    }
+    return new XmlPaths(paths);
+  }
+
+  /**
+   * Returns the states of the document, from which its root element is matched.
+   */
+  int[] start() {
+    int[] states = new int[paths.size()];
+    for (int i = 0; i < states.length; i++) {
+      states[i] = state(i, 0);
+    }
+    return states;
+  }
+
+  /**
+   * Matches an element against the paths.
+   *
+   * @param states states of the parent of the element
+   * @param name name of the element
+   * @param attributeNames names of the attributes of the element
+   * @param attributeValues values of the attributes of the element
+   */
+  Match match(int[] states, String name, List<String> attributeNames, List<String> attributeValues) {
+    boolean selected = false;
+    List<String> attributes = Collections.emptyList();
+    int[] children = NONE;
+    int count = 0;
+    for (int state : states) {
+      Path path = paths.get(state >>> 16);
+      int index = state & 0xffff;
+      Step step = path.steps[index];
+      if (step.descendant) {
+        // The step can match deeper, whether it matches this element or not.
+        children = add(children, count++, state);
+      }
+      if (!step.matches(name, attributeNames, attributeValues)) {
+        continue;
+      }
+      if (index + 1 < path.steps.length) {
+        children = add(children, count++, state(state >>> 16, index + 1));
+      } else if (path.attribute == null) {
+        selected = true;
+      } else {
+        if (attributes.isEmpty()) {
+          attributes = new ArrayList<>();
+        }
+        attributes.add(path.attribute);
+      }
+    }
+    return new Match(selected, attributes, distinct(children, count));
+  }
+
+  private static int state(int path, int step) {
+    return path << 16 | step;
+  }
+
+  private static int[] add(int[] states, int count, int state) {
+    int[] result = count < states.length ? states : Arrays.copyOf(states, Math.max(4, count * 2));
+    result[count] = state;
+    return result;
+  }
+
+  private static int[] distinct(int[] states, int count) {
+    if (count == 0) {
+      return NONE;
+    }
+    int[] result = Arrays.copyOf(states, count);
+    Arrays.sort(result);
+    int size = 1;
+    for (int i = 1; i < count; i++) {
+      if (result[i] != result[size - 1]) {
+        result[size++] = result[i];
+      }
+    }
+    return size == count ? result : Arrays.copyOf(result, size);
+  }
+
+  /**
+   * Result of matching an element.
+   */
+  static final class Match {
+    private final boolean selected;
+    private final List<String> attributes;
+    private final int[] states;
+
+    private Match(boolean selected, List<String> attributes, int[] states) {
+      this.selected = selected;
+      this.attributes = attributes;
+      this.states = states;
+    }
+
+    /**
+     * Returns whether the element is selected, with all of its attributes and content.
+     */
+    boolean isSelected() {
+      return selected;
+    }
+
+    /**
+     * Returns the names of the attributes selected, if the element is not.
+     */
+    List<String> getAttributes() {
+      return attributes;
+    }
+
+    /**
+     * Returns the states from which the children of the element are matched, empty if none of its descendants can
+     * be selected.
+     */
+    int[] getStates() {
+      return states;
+    }
+  }
+
+  /**
+   * A path, which selects either the elements matched by its last step or an attribute of them.
+   */
+  private static final class Path {
+    private final Step[] steps;
+    private final String attribute;
+
+    private Path(List<Step> steps, String attribute) {
+      this.steps = steps.toArray(new Step[0]);
+      this.attribute = attribute;
+    }
+  }
+
+  /**
+   * A step of a path, matching an element by its name and its attributes.
+   */
+  private static final class Step {
+    private final boolean descendant;
+    // Null for any element.
+    private final String name;
+    private final List<String> predicateNames;
+    // Null values for the attributes which only need to exist.
+    private final List<String> predicateValues;
+
+    private Step(boolean descendant, String name, List<String> predicateNames, List<String> predicateValues) {
+      this.descendant = descendant;
+      this.name = name;
+      this.predicateNames = predicateNames;
+      this.predicateValues = predicateValues;
+    }
+
+    private boolean matches(String element, List<String> attributeNames, List<String> attributeValues) {
+      if (name != null && !name.equals(element)) {
+        return false;
+      }
+      for (int i = 0; i < predicateNames.size(); i++) {
+        int index = attributeNames.indexOf(predicateNames.get(i));
+        if (index < 0) {
+          return false;
+        }
+        String value = predicateValues.get(i);
+        if (value != null && !value.equals(attributeValues.get(index))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Parses paths from an expression.
+   */
+  private static final class Parser {
+    private final String expression;
+    private int position;
+
+    private Parser(String expression) {
+      this.expression = expression;
+    }
+
+    private Path path() {
+      skipWhitespace();
+      if (!next('/')) {
+        throw error("a path must start with '/'");
+      }
+      List<Step> steps = new ArrayList<>();
+      while (true) {
+        boolean descendant = next('/');
+        if (next('@')) {
+          if (descendant) {
+            // '//@name' stands for '//*/@name'.
+            steps.add(new Step(true, null, Collections.emptyList(), Collections.emptyList()));
+          } else if (steps.isEmpty()) {
+            throw error("a path must select at least one element");
+          }
+          Path path = new Path(steps, name());
+          skipWhitespace();
+          if (position < expression.length() && expression.charAt(position) != '|') {
+            throw error("an attribute must end a path");
+          }
+          return path;
+        }
+
+        String name = name();
+        List<String> predicateNames = new ArrayList<>();
+        List<String> predicateValues = new ArrayList<>();
+        while (next('[')) {
+          skipWhitespace();
+          if (!next('@')) {
+            throw error("only attribute predicates are supported");
+          }
+          predicateNames.add(name());
+          skipWhitespace();
+          predicateValues.add(next('=') ? quoted() : null);
+          skipWhitespace();
+          if (!next(']')) {
+            throw error("expected ']'");
+          }
+        }
+        steps.add(new Step(descendant, "*".equals(name) ? null : name, predicateNames, predicateValues));
+
+        skipWhitespace();
+        if (position == expression.length() || expression.charAt(position) == '|') {
+          return new Path(steps, null);
+        }
+        if (!next('/')) {
+          throw error("expected '/'");
+        }
+      }
+    }
+
+    private String name() {
+      int start = position;
+      while (position < expression.length()) {
+        char c = expression.charAt(position);
+        if (c == '/' || c == '[' || c == ']' || c == '|' || c == '=' || c == '@' || c == '\'' || c == '"'
+          || Character.isWhitespace(c)) {
+          break;
+        }
+        position++;
+      }
+      if (start == position) {
+        throw error("expected a name");
+      }
+      return expression.substring(start, position);
+    }
+
+    private String quoted() {
+      skipWhitespace();
+      if (position == expression.length()) {
+        throw error("expected a quoted value");
+      }
+      char quote = expression.charAt(position);
+      if (quote != '\'' && quote != '"') {
+        throw error("expected a quoted value");
+      }
+      int end = expression.indexOf(quote, position + 1);
+      if (end < 0) {
+        throw error("missing closing quote");
+      }
+      String value = expression.substring(position + 1, end);
+      position = end + 1;
+      return value;
+    }
+
+    private boolean next(char c) {
+      if (position < expression.length() && expression.charAt(position) == c) {
+        position++;
+        return true;
+      }
+      return false;
+    }
+
+    private void skipWhitespace() {
+      while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+        position++;
+      }
+    }
+
+    private IllegalArgumentException error(String message) {
+      return new IllegalArgumentException(String.format("Invalid path '%s' at position %d: %s.",
+                                                        expression, position, message));
+    }
+  }
+}
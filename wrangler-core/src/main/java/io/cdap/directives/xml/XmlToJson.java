@@ -36,13 +36,16 @@ import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
 import io.cdap.wrangler.api.parser.Numeric;
+import io.cdap.wrangler.api.parser.Text;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 import org.apache.commons.lang.StringUtils;
 import org.json.JSONException;
 import org.json.XML;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import javax.xml.stream.XMLStreamException;
 
 /**
  * A XML to Json Parser Stage.
@@ -54,10 +57,13 @@ import java.util.List;
 public class XmlToJson implements Directive, Lineage {
   public static final String NAME = "parse-xml-to-json";
   public static final String ARG_KEEP_STRING = "keep-string";
+  public static final String ARG_PATHS = "paths";
   // Column within the input row that needs to be parsed as Json
   private String col;
   private int depth;
   private boolean keepString;
+  private XmlPaths paths;
+  private XmlJsonReader reader;
   private final Gson gson = new Gson();
 
   @Override
@@ -66,6 +72,7 @@ public class XmlToJson implements Directive, Lineage {
     builder.define("column", TokenType.COLUMN_NAME);
     builder.define("depth", TokenType.NUMERIC, Optional.TRUE);
     builder.define(ARG_KEEP_STRING, TokenType.BOOLEAN, Optional.TRUE);
+    builder.define(ARG_PATHS, TokenType.TEXT, Optional.TRUE);
     return builder.build();
   }
 
@@ -83,6 +90,14 @@ public class XmlToJson implements Directive, Lineage {
       this.keepString = Boolean.parseBoolean(args.value(ARG_KEEP_STRING).value().toString());
     }
 
+    if (args.contains(ARG_PATHS)) {
+      try {
+        this.paths = XmlPaths.compile(((Text) args.value(ARG_PATHS)).value());
+      } catch (IllegalArgumentException e) {
+        throw new DirectiveParseException(NAME, e.getMessage(), e);
+      }
+    }
+    this.reader = new XmlJsonReader(keepString, paths);
   }
 
   @Override
@@ -102,14 +117,12 @@ public class XmlToJson implements Directive, Lineage {
         }
 
         try {
-          if (object instanceof String) {
-            JsonObject element = gson.fromJson(XML.toJSONObject((String) object, this.keepString).toString(),
-                                               JsonElement.class).getAsJsonObject();
-            JsParser.jsonFlatten(element, col, 1, depth, row);
+          if (object instanceof String || object instanceof byte[]) {
+            JsParser.jsonFlatten(toJson(object), col, 1, depth, row);
             row.remove(idx);
           } else {
             throw new DirectiveExecutionException(
-              NAME, String.format("Column '%s' has invalid type '%s'. It should be of type 'String'.",
+              NAME, String.format("Column '%s' has invalid type '%s'. It should be of type 'String' or 'byte[]'.",
                                   col, object.getClass().getSimpleName()));
           }
         } catch (JSONException e) {
@@ -120,6 +133,20 @@ public class XmlToJson implements Directive, Lineage {
     return rows;
   }
 
+  private JsonObject toJson(Object xml) throws DirectiveExecutionException {
+    try {
+      return xml instanceof String ? reader.read((String) xml) : reader.read((byte[]) xml);
+    } catch (XMLStreamException e) {
+      if (paths != null) {
+        throw new DirectiveExecutionException(
+          NAME, String.format("Column '%s' is not a well formed XML document: %s", col, e.getMessage()), e);
+      }
+    }
+    // org.json also converts documents which are not well formed, such as ones with several roots.
+    String text = xml instanceof String ? (String) xml : new String((byte[]) xml, StandardCharsets.UTF_8);
+    return gson.fromJson(XML.toJSONObject(text, keepString).toString(), JsonElement.class).getAsJsonObject();
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
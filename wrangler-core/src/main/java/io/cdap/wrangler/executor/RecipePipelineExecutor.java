@@ -16,8 +16,14 @@
 
 package io.cdap.wrangler.executor;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.directives.aggregates.IncrementTransientVariable;
+import io.cdap.directives.aggregates.SetTransientVariable;
+import io.cdap.directives.row.SendToErrorAndContinue;
+import io.cdap.wrangler.api.BatchDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.ErrorRecord;
@@ -29,6 +35,7 @@ import io.cdap.wrangler.api.RecipeParser;
 import io.cdap.wrangler.api.RecipePipeline;
 import io.cdap.wrangler.api.ReportErrorAndProceed;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowErrors;
 import io.cdap.wrangler.api.TransientVariableScope;
 import io.cdap.wrangler.schema.DirectiveOutputSchemaGenerator;
 import io.cdap.wrangler.schema.DirectiveSchemaResolutionContext;
@@ -40,7 +47,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Set;
 import javax.annotation.Nullable;
 
 /**
@@ -49,17 +59,40 @@ import javax.annotation.Nullable;
 public final class RecipePipelineExecutor implements RecipePipeline<Row, StructuredRecord, ErrorRecord> {
 
   private static final Logger LOG = LoggerFactory.getLogger(RecipePipelineExecutor.class);
+  public static final int DEFAULT_BATCH_SIZE = 1;
+  // Directives setting transient variables, whose values depend on the order in which rows and directives run.
+  private static final Set<Class<?>> TRANSIENT_VARIABLE_WRITERS = ImmutableSet.of(
+    SetTransientVariable.class, IncrementTransientVariable.class, SendToErrorAndContinue.class);
 
   private final ErrorRecordCollector collector = new ErrorRecordCollector();
   private final RecordConvertor convertor = new RecordConvertor();
   private final SchemaConverter generator = new SchemaConverter();
   private final RecipeParser recipeParser;
   private final ExecutorContext context;
+  private final int batchSize;
   private List<Directive> directives;
 
   public RecipePipelineExecutor(RecipeParser recipeParser, @Nullable ExecutorContext context) {
+    this(recipeParser, context, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Creates an executor that runs the directives over chunks of {@code batchSize} rows, one directive after the
+   * other, instead of running all the directives over one row at a time. A {@link BatchDirective} is handed the
+   * rows of a chunk at once.
+   *
+   * <p>Recipes with directives that may set transient variables are executed one row at a time regardless, as
+   * running them over chunks would change the values later directives and rows see.</p>
+   *
+   * @param recipeParser parser providing the directives of the recipe.
+   * @param context in which the directives are executed.
+   * @param batchSize number of rows of a chunk, 1 to process row by row.
+   */
+  public RecipePipelineExecutor(RecipeParser recipeParser, @Nullable ExecutorContext context, int batchSize) {
+    Preconditions.checkArgument(batchSize > 0, "Batch size must be positive.");
     this.context = context;
     this.recipeParser = recipeParser;
+    this.batchSize = batchSize;
   }
 
   /**
@@ -104,10 +137,7 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
   @Override
   public List<Row> execute(List<Row> rows) throws RecipeException {
     List<Directive> directives = getDirectives();
-    List<String> messages = new ArrayList<>();
     List<Row> results = new ArrayList<>();
-    int i = 0;
-    int directiveIndex = 0;
     // Initialize schema with input schema from TransientStore if running in service env (design-time) / testing env
     boolean schemaManagementEnabled = context != null && context.isSchemaManagementEnabled();
     Schema inputSchema = schemaManagementEnabled ?
@@ -120,54 +150,199 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
       }
     }
 
+    collector.reset();
+    boolean batch = batchSize > 1 && directives.stream().noneMatch(RecipePipelineExecutor::mayWriteTransientVariables);
+    int i = 0;
+    while (i < rows.size()) {
+      if (batch) {
+        int end = Math.min(i + batchSize, rows.size());
+        executeBatch(directives, rows.subList(i, end), i, results, outputSchemaGenerators);
+        i = end;
+      } else {
+        executeRow(directives, rows.subList(i, i + 1), i, results, outputSchemaGenerators);
+        ++i;
+      }
+    }
+    // Schema generation
+    if (schemaManagementEnabled && inputSchema != null) {
+      context.getTransientStore().set(TransientVariableScope.GLOBAL, TransientStoreKeys.OUTPUT_SCHEMA,
+                                        getOutputSchema(inputSchema, outputSchemaGenerators));
+    }
+    return results;
+  }
+
+  /**
+   * Runs all the directives over a single row. Rows that error out are added to the error collector.
+   *
+   * @param directives to be applied on the row.
+   * @param row single element list holding the row to be processed.
+   * @param rowIndex index of the row within the input, used for reporting.
+   * @param results to which the output of the directives is appended.
+   * @param outputSchemaGenerators per directive schema generators, empty if schema management is disabled.
+   */
+  private void executeRow(List<Directive> directives, List<Row> row, int rowIndex, List<Row> results,
+                          List<DirectiveOutputSchemaGenerator> outputSchemaGenerators) throws RecipeException {
+    // Resets the scope of local variable.
+    if (context != null) {
+      context.getTransientStore().reset(TransientVariableScope.LOCAL);
+    }
+
+    List<Row> cumulativeRows = row;
+    int directiveIndex = 0;
     try {
-      collector.reset();
-      while (i < rows.size()) {
-        messages.clear();
-        // Resets the scope of local variable.
-        if (context != null) {
-          context.getTransientStore().reset(TransientVariableScope.LOCAL);
+      for (Executor<List<Row>, List<Row>> directive : directives) {
+        try {
+          directiveIndex++;
+          cumulativeRows = directive.execute(cumulativeRows, context);
+          if (cumulativeRows.size() < 1) {
+            break;
+          }
+          if (!outputSchemaGenerators.isEmpty()) {
+            outputSchemaGenerators.get(directiveIndex - 1).addNewOutputFields(cumulativeRows);
+          }
+        } catch (ReportErrorAndProceed e) {
+          collector.add(new ErrorRecord(row.get(0), String.format("%s (ecode: %d)", e.getMessage(), e.getCode()),
+                                        e.getCode(), true));
+          cumulativeRows = new ArrayList<>();
+          break;
         }
+      }
+      results.addAll(cumulativeRows);
+    } catch (ErrorRowException e) {
+      collector.add(new ErrorRecord(row.get(0), String.format("%s", e.getMessage()), e.getCode(),
+                                    e.isShownInWrangler()));
+    } catch (DirectiveExecutionException e) {
+      throw new RecipeException(e.getMessage(), e, rowIndex, directiveIndex);
+    }
+  }
+
+  /**
+   * Runs all the directives over a chunk of rows, one directive after the other.
+   *
+   * <p>A {@link BatchDirective} is handed all the rows of the chunk left at once and reports the rows in error,
+   * other directives are handed them one at a time. Either way, every row is executed once by every directive, and
+   * an error only stops the input row it comes from, along with all the rows that come from that input row. The
+   * input rows in error are tracked in a bitmap, and their errors are collected in the order of the input rows,
+   * once the whole chunk is executed.</p>
+   *
+   * @param directives to be applied on the rows.
+   * @param batch rows to be processed.
+   * @param firstRowIndex index of the first row of the chunk within the input, used for reporting.
+   * @param results to which the output of the directives is appended.
+   * @param outputSchemaGenerators per directive schema generators, empty if schema management is disabled.
+   */
+  private void executeBatch(List<Directive> directives, List<Row> batch, int firstRowIndex, List<Row> results,
+                            List<DirectiveOutputSchemaGenerator> outputSchemaGenerators) throws RecipeException {
+    // Resets the scope of local variable. Recipes setting variables are not executed in chunks, so the scope is only
+    // read by the rows of a chunk.
+    if (context != null) {
+      context.getTransientStore().reset(TransientVariableScope.LOCAL);
+    }
+
+    // Input rows in error, with their errors.
+    BitSet failed = new BitSet(batch.size());
+    ErrorRecord[] errors = new ErrorRecord[batch.size()];
+    RowErrors rowErrors = new RowErrors();
 
-        List<Row> cumulativeRows = rows.subList(i, i + 1);
-        directiveIndex = 0;
+    List<Row> rows = new ArrayList<>(batch);
+    // Position in the chunk of the input row each row comes from.
+    int[] origins = new int[rows.size()];
+    for (int i = 0; i < origins.length; i++) {
+      origins[i] = i;
+    }
+
+    int directiveIndex = 0;
+    for (Directive directive : directives) {
+      directiveIndex++;
+      if (directive instanceof BatchDirective) {
+        rowErrors.clear();
         try {
-          for (Executor<List<Row>, List<Row>> directive : directives) {
-            try {
-              directiveIndex++;
-              cumulativeRows = directive.execute(cumulativeRows, context);
-              if (cumulativeRows.size() < 1) {
-                break;
-              }
-              if (schemaManagementEnabled && inputSchema != null) {
-                outputSchemaGenerators.get(directiveIndex - 1).addNewOutputFields(cumulativeRows);
-              }
-            } catch (ReportErrorAndProceed e) {
-              messages.add(String.format("%s (ecode: %d)", e.getMessage(), e.getCode()));
-              collector
-                .add(new ErrorRecord(rows.subList(i, i + 1).get(0), String.join(",", messages), e.getCode(), true));
-              cumulativeRows = new ArrayList<>();
-              break;
+          ((BatchDirective) directive).execute(rows, context, rowErrors);
+        } catch (DirectiveExecutionException e) {
+          throw new RecipeException(e.getMessage(), e, firstRowIndex, directiveIndex);
+        }
+        if (!rowErrors.isEmpty()) {
+          for (int i = 0; i < rows.size(); i++) {
+            if (rowErrors.contains(i) && !failed.get(origins[i])) {
+              failed.set(origins[i]);
+              errors[origins[i]] = toErrorRecord(batch.get(origins[i]), rowErrors.get(i));
             }
           }
-          results.addAll(cumulativeRows);
-        } catch (ErrorRowException e) {
-          messages.add(String.format("%s", e.getMessage()));
-          collector
-            .add(new ErrorRecord(rows.subList(i, i + 1).get(0), String.join(",", messages), e.getCode(),
-              e.isShownInWrangler()));
         }
-        ++i;
+      } else {
+        List<Row> output = new ArrayList<>(rows.size());
+        int[] outputOrigins = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+          int origin = origins[i];
+          if (failed.get(origin)) {
+            continue;
+          }
+          List<Row> row = new ArrayList<>(1);
+          row.add(rows.get(i));
+          try {
+            row = directive.execute(row, context);
+          } catch (ErrorRowException | ReportErrorAndProceed e) {
+            failed.set(origin);
+            errors[origin] = toErrorRecord(batch.get(origin), e);
+            continue;
+          } catch (DirectiveExecutionException e) {
+            throw new RecipeException(e.getMessage(), e, firstRowIndex + origin, directiveIndex);
+          }
+          if (output.size() + row.size() > outputOrigins.length) {
+            outputOrigins = Arrays.copyOf(outputOrigins, Math.max(outputOrigins.length * 2,
+                                                                  output.size() + row.size()));
+          }
+          Arrays.fill(outputOrigins, output.size(), output.size() + row.size(), origin);
+          output.addAll(row);
+        }
+        rows = output;
+        origins = outputOrigins;
+      }
+
+      // Rows that come from an input row in error are dropped, even when they were executed without error.
+      if (!failed.isEmpty()) {
+        int size = 0;
+        for (int i = 0; i < rows.size(); i++) {
+          if (!failed.get(origins[i])) {
+            rows.set(size, rows.get(i));
+            origins[size++] = origins[i];
+          }
+        }
+        rows.subList(size, rows.size()).clear();
+      }
+      if (rows.isEmpty()) {
+        break;
+      }
+      if (!outputSchemaGenerators.isEmpty()) {
+        outputSchemaGenerators.get(directiveIndex - 1).addNewOutputFields(rows);
       }
-    } catch (DirectiveExecutionException e) {
-      throw new RecipeException(e.getMessage(), e, i, directiveIndex);
     }
-    // Schema generation
-    if (schemaManagementEnabled && inputSchema != null) {
-      context.getTransientStore().set(TransientVariableScope.GLOBAL, TransientStoreKeys.OUTPUT_SCHEMA,
-                                        getOutputSchema(inputSchema, outputSchemaGenerators));
+    results.addAll(rows);
+    for (int i = failed.nextSetBit(0); i >= 0; i = failed.nextSetBit(i + 1)) {
+      collector.add(errors[i]);
     }
-    return results;
+  }
+
+  /**
+   * Returns whether a directive may set transient variables. Besides the system directives that do, directives that
+   * are not loaded along with this class, such as user directives, may do so unless they run chunks of rows
+   * themselves.
+   */
+  private static boolean mayWriteTransientVariables(Directive directive) {
+    if (TRANSIENT_VARIABLE_WRITERS.contains(directive.getClass())) {
+      return true;
+    }
+    return !(directive instanceof BatchDirective)
+      && directive.getClass().getClassLoader() != RecipePipelineExecutor.class.getClassLoader();
+  }
+
+  private static ErrorRecord toErrorRecord(Row row, Exception error) {
+    if (error instanceof ReportErrorAndProceed) {
+      ReportErrorAndProceed e = (ReportErrorAndProceed) error;
+      return new ErrorRecord(row, String.format("%s (ecode: %d)", e.getMessage(), e.getCode()), e.getCode(), true);
+    }
+    ErrorRowException e = (ErrorRowException) error;
+    return new ErrorRecord(row, String.format("%s", e.getMessage()), e.getCode(), e.isShownInWrangler());
   }
 
   /**
@@ -18,6 +18,10 @@ package io.cdap.wrangler.expression;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import io.cdap.cdap.api.common.Bytes;
 import io.cdap.functions.DDL;
 import io.cdap.functions.DataQuality;
@@ -45,23 +49,59 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import javax.annotation.Nullable;
 
 /**
  * This class <code>EL</code> is a Expression Language Handler.
  */
 public final class EL {
 
-  private static volatile boolean used;
+  // Maximum number of compiled expressions kept for each engine.
+  private static final int MAX_CACHED_EXPRESSIONS = 1024;
+  // Maximum number of engines kept, one for each distinct set of registered functions.
+  private static final int MAX_CACHED_ENGINES = 16;
+
+  // Engines shared by all the expressions compiled with the same functions.
+  private static final LoadingCache<Map<String, Object>, Engine> ENGINES = CacheBuilder.newBuilder()
+    .maximumSize(MAX_CACHED_ENGINES)
+    .build(new CacheLoader<Map<String, Object>, Engine>() {
+      @Override
+      public Engine load(Map<String, Object> functions) {
+        return new Engine(functions);
+      }
+    });
 
   private final Set<String> variables;
   private final JexlScript script;
+  @Nullable
+  private final ELCompiler.Node compiled;
 
   /**
-   * Returns {@code true} if this class has been used to execute JEXL script.
+   * Resets the state kept between compilations, so that a process executing expressions for independent
+   * requests can start each one from the same state.
+   *
+   * <p>Engines, with the expressions they compiled, are kept only for functions whose classes are loaded by the
+   * classloader of this class or one of its parents. Other functions may come from the classloader of a single
+   * request, so their engines are dropped rather than keeping that classloader reachable.</p>
    */
-  public static boolean isUsed() {
-    return used;
+  public static void reset() {
+    ENGINES.asMap().keySet().removeIf(functions -> !isSystem(functions));
+  }
+
+  private static boolean isSystem(Map<String, Object> functions) {
+    for (Object function : functions.values()) {
+      ClassLoader loader = (function instanceof Class ? (Class<?>) function : function.getClass()).getClassLoader();
+      boolean visible = loader == null;
+      for (ClassLoader parent = EL.class.getClassLoader(); parent != null && !visible; parent = parent.getParent()) {
+        visible = parent == loader;
+      }
+      if (!visible) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
@@ -74,30 +114,61 @@ public final class EL {
   /**
    * Compiles the given expressions and return an {@link EL} for script execution.
    *
+   * <p>Expressions are compiled by an engine shared by all the registrations with the same functions, and the
+   * most recently compiled ones are cached, so compiling the same expression again returns the same instance.</p>
+   *
    * @param registration extra objects available for the script to use
    * @param expression the JEXL expresion
    * @return an {@link EL} instance
    * @throws ELException if failed to compile the expression
    */
   public static EL compile(ELRegistration registration, String expression) throws ELException {
-    used = true;
-    JexlEngine engine = new JexlBuilder()
-      .namespaces(registration.functions())
-      .silent(false)
-      .cache(1024)
-      .strict(true)
-      .logger(new NullLogger())
-      .create();
+    return compile(registration, expression, false);
+  }
+
+  /**
+   * Compiles the given expressions and return an {@link EL} for script execution, optionally evaluating it without
+   * going through the JEXL interpreter.
+   *
+   * <p>When {@code compile} is {@code true}, the expressions that {@link ELCompiler} supports are evaluated directly,
+   * and the others are interpreted as they are otherwise. Expressions are cached separately for each value of
+   * {@code compile}.</p>
+   *
+   * @param registration extra objects available for the script to use
+   * @param expression the JEXL expresion
+   * @param compile whether the expression is evaluated without the interpreter when it is supported
+   * @return an {@link EL} instance
+   * @throws ELException if failed to compile the expression
+   */
+  public static EL compile(ELRegistration registration, String expression, boolean compile) throws ELException {
+    Engine engine = ENGINES.getUnchecked(registration.functions());
+    Key key = new Key(expression, compile);
+    EL el = engine.expressions.getIfPresent(key);
+    if (el == null) {
+      el = compile(engine, expression, compile);
+      engine.expressions.put(key, el);
+    }
+    return el;
+  }
+
+  /**
+   * Returns the engine expressions using the given functions are compiled with.
+   */
+  static JexlEngine engine(Map<String, Object> functions) {
+    return ENGINES.getUnchecked(functions).engine;
+  }
 
+  private static EL compile(Engine engine, String expression, boolean compile) throws ELException {
     try {
       Set<String> variables = new HashSet<>();
-      JexlScript script = engine.createScript(expression);
+      JexlScript script = engine.engine.createScript(expression);
       Set<List<String>> varSet = script.getVariables();
       for (List<String> vars : varSet) {
         variables.add(Joiner.on(".").join(vars));
       }
 
-      return new EL(script, variables);
+      ELCompiler.Node compiled = compile ? ELCompiler.compile(engine.engine, engine.functions, expression) : null;
+      return new EL(script, variables, compiled);
     } catch (JexlException e) {
       // JexlException.getMessage() uses 'io.cdap.wrangler.expression.EL' class name in the error message.
       // So instead use info object to get information about error message and create custom error message.
@@ -114,9 +185,17 @@ public final class EL {
 
   }
 
-  private EL(JexlScript script, Set<String> variables) {
+  private EL(JexlScript script, Set<String> variables, @Nullable ELCompiler.Node compiled) {
     this.script = script;
     this.variables = Collections.unmodifiableSet(variables);
+    this.compiled = compiled;
+  }
+
+  /**
+   * Returns {@code true} if this expression is evaluated without going through the JEXL interpreter.
+   */
+  public boolean isCompiled() {
+    return compiled != null;
   }
 
   public Set<String> variables() {
@@ -135,8 +214,10 @@ public final class EL {
           context.add(variable, null);
         }
       }
-      Object value = script.execute(context);
+      Object value = compiled == null ? script.execute(context) : evaluate(context);
       return new ELResult(value);
+    } catch (ELException e) {
+      throw e;
     } catch (JexlException e) {
       // JexlException.getMessage() uses 'io.cdap.wrangler.expression.EL' class name in the error message.
       // So instead use info object to get information about error message and create custom error message.
@@ -161,12 +242,84 @@ public final class EL {
     }
   }
 
+  private Object evaluate(ELContext context) throws Exception {
+    try {
+      return compiled.evaluate(context);
+    } catch (ArithmeticException | IllegalStateException e) {
+      // Failures of operators and of function resolution, which the interpreter reports with the expression.
+      throw new ELException(
+        String.format("Error encountered while executing '%s': %s. Make sure a valid jexl transformation is provided.",
+                      script.getSourceText(), e.getMessage()), e);
+    }
+  }
+
+  /**
+   * Key of a compiled expression in the cache of its engine.
+   */
+  private static final class Key {
+    private final String expression;
+    private final boolean compile;
+
+    private Key(String expression, boolean compile) {
+      this.expression = expression;
+      this.compile = compile;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return compile == key.compile && expression.equals(key.expression);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(expression, compile);
+    }
+  }
+
+  /**
+   * A {@link JexlEngine} with the compiled expressions it produced. Compiled scripts are immutable and can be
+   * shared by all the directives, pipelines and requests using the same expression. The engine only lets expressions
+   * reach the classes of their values and functions, see {@link RestrictedUberspect}.
+   */
+  private static final class Engine {
+    private final JexlEngine engine;
+    private final Map<String, Object> functions;
+    private final Cache<Key, EL> expressions;
+
+    private Engine(Map<String, Object> functions) {
+      this.functions = functions;
+      NullLogger logger = new NullLogger();
+      this.engine = new JexlBuilder()
+        .uberspect(new RestrictedUberspect(logger, functions))
+        .namespaces(functions)
+        .silent(false)
+        .cache(MAX_CACHED_EXPRESSIONS)
+        .strict(true)
+        .logger(logger)
+        .create();
+      this.expressions = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_EXPRESSIONS).build();
+    }
+  }
+
   /**
    * @return List of registered functions.
    */
   public static final class DefaultFunctions implements ELRegistration {
+    private static final Map<String, Object> FUNCTIONS = Collections.unmodifiableMap(create());
+
     @Override
     public Map<String, Object> functions() {
+      return FUNCTIONS;
+    }
+
+    private static Map<String, Object> create() {
       Map<String, Object> functions = new HashMap<>();
       functions.put(null, Global.class);
       functions.put("datetime", DateAndTime.class);
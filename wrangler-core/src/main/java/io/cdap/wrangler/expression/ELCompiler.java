@@ -0,0 +1,487 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlOperator;
+import org.apache.commons.jexl3.introspection.JexlMethod;
+import org.apache.commons.jexl3.introspection.JexlUberspect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Compiles the common shapes of JEXL expressions into trees of {@link Node}s that are evaluated directly,
+ * without going through the JEXL interpreter.
+ *
+ * <p>The supported expressions are made of literals, variables, arithmetic, comparison and logical operators,
+ * the ternary operator, parentheses and calls to the registered functions. Operators and function calls are
+ * delegated to the {@link JexlArithmetic} and the introspection of the engine the expression is compiled for,
+ * so a compiled expression produces the same results as the interpreter. Any other construct makes
+ * {@link #compile(JexlEngine, Map, String)} return {@code null}, in which case the expression is only
+ * interpreted.</p>
+ *
+ * <p>Whether an expression is supported is only decided when it is compiled. A {@link Node} throws in the same
+ * cases as the interpreter does, for instance when an operator fails or a function cannot be resolved for the
+ * arguments it is called with, and its error is reported as is.</p>
+ */
+final class ELCompiler {
+  // Words reserved by the JEXL grammar, expressions using them are left to the interpreter.
+  private static final Set<String> RESERVED = ImmutableSet.of(
+    "or", "and", "eq", "ne", "lt", "gt", "le", "ge", "div", "mod", "not", "empty", "size", "new", "var", "if",
+    "else", "for", "while", "function", "return", "NaN");
+
+  /**
+   * A compiled expression, or part of it.
+   */
+  interface Node {
+    Object evaluate(JexlContext context) throws Exception;
+  }
+
+  /**
+   * Thrown while compiling an expression that is not supported.
+   */
+  private static final class UnsupportedExpressionException extends RuntimeException {
+  }
+
+  private final JexlEngine engine;
+  private final JexlArithmetic arithmetic;
+  private final JexlArithmetic.Uberspect operators;
+  private final JexlUberspect uberspect;
+  private final Map<String, Object> functions;
+  private final String expression;
+  private int pos;
+
+  private ELCompiler(JexlEngine engine, Map<String, Object> functions, String expression) {
+    this.engine = engine;
+    this.arithmetic = engine.getArithmetic();
+    this.uberspect = engine.getUberspect();
+    this.operators = uberspect.getArithmetic(arithmetic);
+    this.functions = functions;
+    this.expression = expression;
+  }
+
+  /**
+   * Compiles an expression that was successfully parsed by the engine.
+   *
+   * @param engine the expression was parsed by.
+   * @param functions namespaces of the functions registered with the engine.
+   * @param expression to be compiled.
+   * @return compiled expression, or {@code null} if the expression uses constructs that are not supported.
+   */
+  @Nullable
+  static Node compile(JexlEngine engine, Map<String, Object> functions, String expression) {
+    ELCompiler compiler = new ELCompiler(engine, functions, expression);
+    try {
+      Node node = compiler.expression();
+      return compiler.peek() == -1 ? node : null;
+    } catch (UnsupportedExpressionException e) {
+      return null;
+    }
+  }
+
+  private Node expression() {
+    Node condition = or();
+    if (peek() != '?') {
+      return condition;
+    }
+    pos++;
+    if (peek() == ':') {
+      // The elvis operator.
+      throw new UnsupportedExpressionException();
+    }
+    Node then = expression();
+    expect(':');
+    Node otherwise = expression();
+    // A null condition is false, without being coerced by the arithmetic.
+    return context -> {
+      Object value = condition.evaluate(context);
+      return value != null && arithmetic.toBoolean(value) ? then.evaluate(context) : otherwise.evaluate(context);
+    };
+  }
+
+  private Node or() {
+    Node node = and();
+    while (match("||")) {
+      Node left = node;
+      Node right = and();
+      node = context -> arithmetic.toBoolean(left.evaluate(context)) || arithmetic.toBoolean(right.evaluate(context))
+        ? Boolean.TRUE : Boolean.FALSE;
+    }
+    return node;
+  }
+
+  private Node and() {
+    Node node = equality();
+    while (match("&&")) {
+      Node left = node;
+      Node right = equality();
+      node = context -> arithmetic.toBoolean(left.evaluate(context)) && arithmetic.toBoolean(right.evaluate(context))
+        ? Boolean.TRUE : Boolean.FALSE;
+    }
+    return node;
+  }
+
+  private Node equality() {
+    Node left = relational();
+    if (match("==")) {
+      Node right = operand(JexlOperator.EQ, this::relational);
+      return context -> arithmetic.equals(left.evaluate(context), right.evaluate(context))
+        ? Boolean.TRUE : Boolean.FALSE;
+    }
+    if (match("!=")) {
+      Node right = operand(JexlOperator.EQ, this::relational);
+      return context -> arithmetic.equals(left.evaluate(context), right.evaluate(context))
+        ? Boolean.FALSE : Boolean.TRUE;
+    }
+    return left;
+  }
+
+  private Node relational() {
+    Node left = additive();
+    if (match("<=")) {
+      Node right = operand(JexlOperator.LTE, this::additive);
+      return context -> arithmetic.lessThanOrEqual(left.evaluate(context), right.evaluate(context))
+        ? Boolean.TRUE : Boolean.FALSE;
+    }
+    if (match(">=")) {
+      Node right = operand(JexlOperator.GTE, this::additive);
+      return context -> arithmetic.greaterThanOrEqual(left.evaluate(context), right.evaluate(context))
+        ? Boolean.TRUE : Boolean.FALSE;
+    }
+    if (match("<")) {
+      Node right = operand(JexlOperator.LT, this::additive);
+      return context -> arithmetic.lessThan(left.evaluate(context), right.evaluate(context))
+        ? Boolean.TRUE : Boolean.FALSE;
+    }
+    if (match(">")) {
+      Node right = operand(JexlOperator.GT, this::additive);
+      return context -> arithmetic.greaterThan(left.evaluate(context), right.evaluate(context))
+        ? Boolean.TRUE : Boolean.FALSE;
+    }
+    return left;
+  }
+
+  private Node additive() {
+    Node node = multiplicative();
+    while (true) {
+      Node left = node;
+      if (match("+")) {
+        Node right = operand(JexlOperator.ADD, this::multiplicative);
+        node = context -> arithmetic.add(left.evaluate(context), right.evaluate(context));
+      } else if (match("-")) {
+        Node right = operand(JexlOperator.SUBTRACT, this::multiplicative);
+        node = context -> arithmetic.subtract(left.evaluate(context), right.evaluate(context));
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private Node multiplicative() {
+    Node node = unary();
+    while (true) {
+      Node left = node;
+      if (match("*")) {
+        Node right = operand(JexlOperator.MULTIPLY, this::unary);
+        node = context -> arithmetic.multiply(left.evaluate(context), right.evaluate(context));
+      } else if (match("/")) {
+        Node right = operand(JexlOperator.DIVIDE, this::unary);
+        node = context -> arithmetic.divide(left.evaluate(context), right.evaluate(context));
+      } else if (match("%")) {
+        Node right = operand(JexlOperator.MOD, this::unary);
+        node = context -> arithmetic.mod(left.evaluate(context), right.evaluate(context));
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private Node unary() {
+    int start = pos;
+    if (match("-")) {
+      if (Character.isDigit(peek())) {
+        // Negative numbers are narrowed to the type of the literal by the interpreter.
+        skipSpaces();
+        number();
+        return literal(expression.substring(start, pos));
+      }
+      Node operand = operand(JexlOperator.NEGATE, this::unary);
+      return context -> arithmetic.negate(operand.evaluate(context));
+    }
+    if (peek() == '!' && !lookingAt("!=") && !lookingAt("!~")) {
+      pos++;
+      Node operand = operand(JexlOperator.NOT, this::unary);
+      return context -> arithmetic.not(operand.evaluate(context));
+    }
+    return primary();
+  }
+
+  private Node primary() {
+    int c = peek();
+    if (c == '(') {
+      pos++;
+      Node node = expression();
+      expect(')');
+      return node;
+    }
+    if (c == '\'' || c == '"') {
+      int start = pos;
+      string();
+      return literal(expression.substring(start, pos));
+    }
+    if (Character.isDigit(c)) {
+      int start = pos;
+      number();
+      return literal(expression.substring(start, pos));
+    }
+    String name = identifier();
+    switch (name) {
+      case "null":
+        return context -> null;
+      case "true":
+        return context -> Boolean.TRUE;
+      case "false":
+        return context -> Boolean.FALSE;
+      default:
+        break;
+    }
+    if (peek() == '(') {
+      return call(null, name);
+    }
+    if (peek() == ':') {
+      // A namespace followed by the function name and its arguments, otherwise the ':' of a ternary operator.
+      int start = pos;
+      pos++;
+      skipSpaces();
+      if (isIdentifierStart(current())) {
+        String function = identifier();
+        if (peek() == '(') {
+          return call(name, function);
+        }
+      }
+      pos = start;
+    }
+    if (peek() == '.' || peek() == '[') {
+      throw new UnsupportedExpressionException();
+    }
+    return context -> {
+      Object value = context.get(name);
+      if (value == null && !context.has(name)) {
+        throw new IllegalStateException("Undefined variable " + name);
+      }
+      return value;
+    };
+  }
+
+  private Node call(@Nullable String prefix, String name) {
+    Object namespace = functions.get(prefix);
+    if (!(namespace instanceof Class) || uberspect.getConstructor(namespace, new ELContext()) != null) {
+      // Namespaces that are created for each evaluation are left to the interpreter.
+      throw new UnsupportedExpressionException();
+    }
+    expect('(');
+    List<Node> arguments = new ArrayList<>();
+    if (peek() != ')') {
+      do {
+        arguments.add(expression());
+      } while (match(","));
+    }
+    expect(')');
+    return new Call(uberspect, namespace, name, arguments.toArray(new Node[0]));
+  }
+
+  /**
+   * Call to a function of a namespace, the method called is resolved for the arguments of the first call and
+   * reused for as long as the arguments are of the same types.
+   */
+  private static final class Call implements Node {
+    private final JexlUberspect uberspect;
+    private final Object namespace;
+    private final String name;
+    private final Node[] arguments;
+    private volatile JexlMethod method;
+
+    private Call(JexlUberspect uberspect, Object namespace, String name, Node[] arguments) {
+      this.uberspect = uberspect;
+      this.namespace = namespace;
+      this.name = name;
+      this.arguments = arguments;
+    }
+
+    @Override
+    public Object evaluate(JexlContext context) throws Exception {
+      Object[] argv = new Object[arguments.length];
+      for (int i = 0; i < arguments.length; i++) {
+        argv[i] = arguments[i].evaluate(context);
+      }
+      JexlMethod cached = method;
+      if (cached != null) {
+        Object result = cached.tryInvoke(name, namespace, argv);
+        if (!cached.tryFailed(result)) {
+          return result;
+        }
+      }
+      JexlMethod resolved = uberspect.getMethod(namespace, name, argv);
+      if (resolved == null) {
+        throw new IllegalStateException("Unable to resolve function " + name);
+      }
+      Object result = resolved.invoke(namespace, argv);
+      if (resolved.isCacheable()) {
+        method = resolved;
+      }
+      return result;
+    }
+  }
+
+  // Operands of operators overloaded by the arithmetic are left to the interpreter.
+  private Node operand(JexlOperator operator, NodeParser parser) {
+    if (operators != null && operators.overloads(operator)) {
+      throw new UnsupportedExpressionException();
+    }
+    return parser.parse();
+  }
+
+  /**
+   * Parses a part of an expression.
+   */
+  private interface NodeParser {
+    Node parse();
+  }
+
+  // Literals are evaluated once by the engine, so they are of the same type as when interpreted.
+  private Node literal(String text) {
+    Object value;
+    try {
+      value = engine.createScript(text).execute(null);
+    } catch (RuntimeException e) {
+      throw new UnsupportedExpressionException();
+    }
+    return context -> value;
+  }
+
+  private void number() {
+    if (lookingAt("0x") || lookingAt("0X")) {
+      throw new UnsupportedExpressionException();
+    }
+    while (Character.isDigit(current())) {
+      pos++;
+    }
+    if (current() == '.' && Character.isDigit(charAt(pos + 1))) {
+      pos++;
+      while (Character.isDigit(current())) {
+        pos++;
+      }
+    }
+    if ("lLdDfFbBhH".indexOf(current()) >= 0) {
+      pos++;
+    }
+    if (isIdentifierPart(current()) || current() == '.') {
+      throw new UnsupportedExpressionException();
+    }
+  }
+
+  private void string() {
+    char quote = expression.charAt(pos++);
+    while (pos < expression.length()) {
+      char c = expression.charAt(pos++);
+      if (c == '\\') {
+        pos++;
+      } else if (c == quote) {
+        return;
+      }
+    }
+    throw new UnsupportedExpressionException();
+  }
+
+  private String identifier() {
+    skipSpaces();
+    int start = pos;
+    if (!isIdentifierStart(current())) {
+      throw new UnsupportedExpressionException();
+    }
+    while (isIdentifierPart(current())) {
+      pos++;
+    }
+    String name = expression.substring(start, pos);
+    if (RESERVED.contains(name)) {
+      throw new UnsupportedExpressionException();
+    }
+    return name;
+  }
+
+  private static boolean isIdentifierStart(int c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$' || c == '@';
+  }
+
+  private static boolean isIdentifierPart(int c) {
+    return isIdentifierStart(c) || (c >= '0' && c <= '9');
+  }
+
+  private void expect(char c) {
+    if (peek() != c) {
+      throw new UnsupportedExpressionException();
+    }
+    pos++;
+  }
+
+  private boolean match(String token) {
+    if (!lookingAt(token)) {
+      return false;
+    }
+    int end = pos + token.length();
+    int next = charAt(end);
+    // Operators followed by another operator character, such as '<<', '+=' or '//', are left to the interpreter.
+    // A '-' is the sign of the next operand, unless it follows another '-'.
+    if (token.length() == 1 && (next == '-' ? token.equals("-") : "=<>&|~^*/%+!".indexOf(next) >= 0)) {
+      throw new UnsupportedExpressionException();
+    }
+    pos = end;
+    return true;
+  }
+
+  private boolean lookingAt(String token) {
+    skipSpaces();
+    return expression.startsWith(token, pos);
+  }
+
+  // Next character that is not a space, or -1 at the end of the expression.
+  private int peek() {
+    skipSpaces();
+    return current();
+  }
+
+  private int current() {
+    return charAt(pos);
+  }
+
+  private int charAt(int index) {
+    return index < expression.length() ? expression.charAt(index) : -1;
+  }
+
+  private void skipSpaces() {
+    while (pos < expression.length() && Character.isWhitespace(expression.charAt(pos))) {
+      pos++;
+    }
+  }
+}
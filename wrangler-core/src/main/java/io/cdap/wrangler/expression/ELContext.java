@@ -16,8 +16,10 @@
 
 package io.cdap.wrangler.expression;
 
+import com.google.common.base.Preconditions;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.TransientStore;
 import org.apache.commons.jexl3.JexlContext;
 
 import java.util.HashMap;
@@ -38,6 +40,12 @@ import javax.annotation.Nullable;
 public class ELContext implements JexlContext {
   private final Map<String, Object> values = new HashMap<>();
 
+  // Expression, executor context and row the variables are resolved from, when bound to a row.
+  private EL el;
+  private ExecutorContext context;
+  private Row row;
+  private Context ctx;
+
   /**
    * Context object passed to every expression evaluation.
    * All properties of this class are public to ensure they can be accessed with dot(.) format.
@@ -77,18 +85,38 @@ public class ELContext implements JexlContext {
   /**
    * Sets the context for EL, includes the required variables in expression, 'this' and 'ctx'.
    *
+   * <p>Variables are not copied into the context, they are resolved from the row and the transient store
+   * when the expression asks for them. Transient variables take precedence over the columns of the row.
+   * The context can be bound to another row with {@link #reset(ExecutorContext, Row)}, so that a directive
+   * evaluating the same expression for every row needs a single instance.</p>
+   *
    * @param context to be examined to be extracted into JEXL expression variables.
    * @param el the expression.
    * @param row the row for 'this'.
    */
-  public ELContext(ExecutorContext context, EL el, Row row) {
-    for (String var : el.variables()) {
-      set(var, row.getValue(var));
+  public ELContext(@Nullable ExecutorContext context, EL el, Row row) {
+    this.el = el;
+    this.context = context;
+    this.row = row;
+  }
+
+  /**
+   * Binds a context created with {@link #ELContext(ExecutorContext, EL, Row)} to another row. Variables set
+   * while evaluating the expression for the previous row are dropped.
+   *
+   * @param context to be examined to be extracted into JEXL expression variables.
+   * @param row the row for 'this'.
+   * @return 'this' context.
+   */
+  public ELContext reset(@Nullable ExecutorContext context, Row row) {
+    Preconditions.checkState(el != null, "Only a context bound to a row can be reset.");
+    if (!values.isEmpty()) {
+      values.clear();
     }
-    // These two steps below has to always happen after el variables are loaded
-    // because, el variables might not be present in a row.
-    init(context);
-    set("this", row);
+    this.context = context;
+    this.row = row;
+    this.ctx = null;
+    return this;
   }
 
   @Nullable
@@ -129,7 +157,26 @@ public class ELContext implements JexlContext {
    */
   @Override
   public Object get(String name) {
-    return values.get(name);
+    Object value = values.get(name);
+    if (value != null || el == null || values.containsKey(name)) {
+      return value;
+    }
+    if ("this".equals(name)) {
+      return row;
+    }
+    if (context != null) {
+      if ("ctx".equals(name)) {
+        if (ctx == null) {
+          ctx = new Context(context.getEnvironment().name(), context.getContextName());
+        }
+        return ctx;
+      }
+      TransientStore store = context.getTransientStore();
+      if (store.contains(name)) {
+        return store.get(name);
+      }
+    }
+    return el.variables().contains(name) ? row.getValue(name) : null;
   }
 
   /**
@@ -163,6 +210,15 @@ public class ELContext implements JexlContext {
    */
   @Override
   public boolean has(String name) {
-    return values.containsKey(name);
+    if (values.containsKey(name)) {
+      return true;
+    }
+    if (el == null) {
+      return false;
+    }
+    if ("this".equals(name) || el.variables().contains(name)) {
+      return true;
+    }
+    return context != null && ("ctx".equals(name) || context.getTransientStore().contains(name));
   }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.JexlOperator;
+import org.apache.commons.jexl3.internal.introspection.Uberspect;
+import org.apache.commons.jexl3.introspection.JexlMethod;
+import org.apache.commons.jexl3.introspection.JexlPropertyGet;
+import org.apache.commons.jexl3.introspection.JexlPropertySet;
+import org.apache.commons.jexl3.introspection.JexlUberspect;
+import org.apache.commons.logging.Log;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link JexlUberspect} that keeps expressions from reaching classes other than the ones of the values they are
+ * given and of their function namespaces.
+ *
+ * <p>Expressions can't get the class of a value, through {@code getClass()} or the {@code class} property, nor
+ * create objects with {@code new}. Methods called on a class are only resolved to the static methods of the classes
+ * registered as function namespaces, so that the methods of {@code java.lang.Class}, such as {@code forName} or
+ * {@code getClassLoader}, are out of reach, and so are the properties of classes. An expression can thus only
+ * change the state of the process through the functions registered.</p>
+ */
+final class RestrictedUberspect implements JexlUberspect {
+  private static final String CLASS_PROPERTY = "class";
+  private static final String GET_CLASS = "getClass";
+
+  private final JexlUberspect uberspect;
+  // Names of the static methods of each class registered as a function namespace.
+  private final Map<Class<?>, Set<String>> staticMethods = new HashMap<>();
+
+  RestrictedUberspect(Log logger, Map<String, Object> functions) {
+    this.uberspect = new Uberspect(logger, JexlUberspect.JEXL_STRATEGY);
+    for (Object namespace : functions.values()) {
+      if (namespace instanceof Class) {
+        Set<String> methods = new HashSet<>();
+        for (Method method : ((Class<?>) namespace).getMethods()) {
+          if (Modifier.isStatic(method.getModifiers())) {
+            methods.add(method.getName());
+          }
+        }
+        staticMethods.put((Class<?>) namespace, methods);
+      }
+    }
+  }
+
+  @Override
+  public List<PropertyResolver> getResolvers(JexlOperator operator, Object obj) {
+    return uberspect.getResolvers(operator, obj);
+  }
+
+  @Override
+  public void setClassLoader(ClassLoader loader) {
+    uberspect.setClassLoader(loader);
+  }
+
+  @Override
+  public int getVersion() {
+    return uberspect.getVersion();
+  }
+
+  @Override
+  public JexlMethod getConstructor(Object ctorHandle, Object... args) {
+    return null;
+  }
+
+  @Override
+  public JexlMethod getMethod(Object obj, String method, Object... args) {
+    if (GET_CLASS.equals(method)) {
+      return null;
+    }
+    if (obj instanceof Class) {
+      Set<String> methods = staticMethods.get(obj);
+      if (methods == null || !methods.contains(method)) {
+        return null;
+      }
+    }
+    return uberspect.getMethod(obj, method, args);
+  }
+
+  @Override
+  public JexlPropertyGet getPropertyGet(Object obj, Object identifier) {
+    return getPropertyGet(uberspect.getResolvers(null, obj), obj, identifier);
+  }
+
+  @Override
+  public JexlPropertyGet getPropertyGet(List<PropertyResolver> resolvers, Object obj, Object identifier) {
+    if (obj instanceof Class) {
+      return null;
+    }
+    if (CLASS_PROPERTY.equals(identifier)) {
+      // Only the "class" entry of a map can be read, rather than the class of the map.
+      return obj instanceof Map ? uberspect.getPropertyGet(JexlUberspect.MAP, obj, identifier) : null;
+    }
+    return uberspect.getPropertyGet(resolvers, obj, identifier);
+  }
+
+  @Override
+  public JexlPropertySet getPropertySet(Object obj, Object identifier, Object arg) {
+    return obj instanceof Class ? null : uberspect.getPropertySet(obj, identifier, arg);
+  }
+
+  @Override
+  public JexlPropertySet getPropertySet(List<PropertyResolver> resolvers, Object obj, Object identifier,
+                                        Object arg) {
+    return obj instanceof Class ? null : uberspect.getPropertySet(resolvers, obj, identifier, arg);
+  }
+
+  @Override
+  public Iterator<?> getIterator(Object obj) {
+    return uberspect.getIterator(obj);
+  }
+
+  @Override
+  public JexlArithmetic.Uberspect getArithmetic(JexlArithmetic arithmetic) {
+    return uberspect.getArithmetic(arithmetic);
+  }
+}
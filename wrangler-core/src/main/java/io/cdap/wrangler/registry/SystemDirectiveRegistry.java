@@ -18,6 +18,7 @@ package io.cdap.wrangler.registry;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.cdap.cdap.api.artifact.ArtifactSummary;
+import io.cdap.wrangler.api.BatchDirective;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveLoadException;
 import org.reflections.Reflections;
@@ -25,6 +26,7 @@ import org.reflections.Reflections;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -83,7 +85,10 @@ public final class SystemDirectiveRegistry implements DirectiveRegistry {
     for (String namespace : namespaces) {
       try {
         Reflections reflections = new Reflections(namespace);
-        Set<Class<? extends Directive>> system = reflections.getSubTypesOf(Directive.class);
+        Set<Class<? extends Directive>> system = new HashSet<>(reflections.getSubTypesOf(Directive.class));
+        // Only the scanned classes are known to be subtypes of the interfaces they implement, so the directives
+        // implementing a sub-interface from the API are looked up by that interface.
+        system.addAll(reflections.getSubTypesOf(BatchDirective.class));
         for (Class<? extends Directive> directive : system) {
           DirectiveInfo info = DirectiveInfo.fromSystem(directive);
           registry.put(info.name(), info);
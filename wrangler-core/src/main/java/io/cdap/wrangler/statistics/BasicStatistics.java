@@ -16,33 +16,115 @@
 
 package io.cdap.wrangler.statistics;
 
+import com.google.common.base.Preconditions;
 import io.cdap.wrangler.api.Row;
 import io.dataapps.chlorine.finder.FinderEngine;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 /**
  * Basic class to compute summary from a list of rows
+ *
+ * <p>The general statistics are computed over all the rows. Detecting the types of values is expensive, so it is
+ * done on a deterministic sample of at most {@code sampleRows} rows, evenly spread over the rows, and only on the
+ * first {@code maxCellLength} characters of each value. Types are reported as a percentage of the sampled rows,
+ * and the columns are profiled in parallel.</p>
+ *
+ * <p>The values of the sampled rows are also added to a {@link Profile}, which estimates the distinct and most
+ * frequent values of each column and the distribution of its numbers in bounded memory, so that the cost of
+ * profiling is bounded by the sample as well.</p>
  */
 public class BasicStatistics implements Statistics {
-  // default time out be 10s
-  private static final long TIME_OUT_MILLIS = 10000;
+  // Default number of rows the types of values are detected on.
+  public static final int DEFAULT_SAMPLE_ROWS = 1000;
+  // Default number of leading characters of a value its types are detected on. Detection is very expensive
+  // for long values, it took seconds for strings of more than 2000 characters.
+  public static final int DEFAULT_MAX_CELL_LENGTH = 256;
+
+  // Loading the finders is expensive, and they are stateless, so a single engine is shared.
+  private static volatile FinderEngine sharedEngine;
+
   private final FinderEngine engine;
+  private final int sampleRows;
+  private final int maxCellLength;
 
   public BasicStatistics() throws Exception {
-    engine = new FinderEngine("wrangler-finder.xml", true, false);
+    this(DEFAULT_SAMPLE_ROWS, DEFAULT_MAX_CELL_LENGTH);
+  }
+
+  public BasicStatistics(int sampleRows, int maxCellLength) throws Exception {
+    Preconditions.checkArgument(sampleRows > 0, "Number of sampled rows must be positive.");
+    Preconditions.checkArgument(maxCellLength > 0, "Maximum cell length must be positive.");
+    this.engine = getEngine();
+    this.sampleRows = sampleRows;
+    this.maxCellLength = maxCellLength;
+  }
+
+  private static FinderEngine getEngine() throws Exception {
+    FinderEngine engine = sharedEngine;
+    if (engine == null) {
+      synchronized (BasicStatistics.class) {
+        engine = sharedEngine;
+        if (engine == null) {
+          engine = new FinderEngine("wrangler-finder.xml", true, false);
+          sharedEngine = engine;
+        }
+      }
+    }
+    return engine;
   }
 
   @Override
   public Row aggregate(List<Row> rows) {
-    ColumnMetric types = new ColumnMetric();
-    ColumnMetric stats = new ColumnMetric();
-
-    long startTime = System.currentTimeMillis();
-    Double count = new Double(0);
+    Accumulator accumulator = accumulator(rows.size());
     for (Row row : rows) {
-      ++count;
+      accumulator.add(row);
+    }
+    return accumulator.aggregate();
+  }
+
+  /**
+   * Returns an accumulator of the statistics of a number of rows, to which the rows are added one at a time, so
+   * that the statistics can be computed while the rows are being iterated over for something else.
+   *
+   * @param rows number of rows that will be added, which the rows whose types are detected are sampled from
+   */
+  public Accumulator accumulator(int rows) {
+    Preconditions.checkArgument(rows >= 0, "Number of rows must not be negative.");
+    return new Accumulator(rows);
+  }
+
+  /**
+   * Accumulates the statistics of rows, see {@link #accumulator(int)}.
+   */
+  public final class Accumulator {
+    private final ColumnMetric stats = new ColumnMetric();
+    private final Profile profile = new Profile();
+    // Values of each column to detect the types of, in the sampled rows.
+    private final Map<String, List<String>> values = new LinkedHashMap<>();
+    private final int stride;
+    private int sampled;
+    private int count;
+
+    private Accumulator(int rows) {
+      // Every stride-th row is sampled.
+      this.stride = Math.max(1, (rows + sampleRows - 1) / sampleRows);
+    }
+
+    /**
+     * Adds a row to the statistics.
+     */
+    public void add(Row row) {
+      boolean sample = count++ % stride == 0;
+      if (sample) {
+        ++sampled;
+        profile.add(row);
+      }
       for (int i = 0; i < row.width(); ++i) {
         String column = row.getColumn(i);
         Object object = row.getValue(i);
@@ -57,36 +139,57 @@ public class BasicStatistics implements Statistics {
           String value = ((String) object);
           if (value.isEmpty()) {
             stats.increment(column, "empty");
-          } else {
-            // this call is very expensive for string > 2000 characters, took seconds to return
-            Map<String, List<String>> finds = engine.findWithType(value);
-            for (String find : finds.keySet()) {
-              types.increment(column, find);
-            }
-            // TODO: this is a workaround for CDAP-18262, to proper fix we should revisit this computation logic
-            if (System.currentTimeMillis() - startTime > TIME_OUT_MILLIS) {
-              break;
-            }
+          } else if (sample) {
+            values.computeIfAbsent(column, c -> new ArrayList<>())
+              .add(value.length() > maxCellLength ? value.substring(0, maxCellLength) : value);
           }
         }
       }
     }
 
-    Row rowTypes = new Row();
-    for (String column : types.getColumns()) {
-      rowTypes.add(column, types.percentage(column, count));
-    }
+    /**
+     * Returns the statistics of the rows added, in the form returned by {@link Statistics#aggregate(List)}.
+     */
+    public Row aggregate() {
+      // Columns are profiled independently of each other, on the common fork-join pool.
+      Map<String, Map<String, Double>> found = values.entrySet().parallelStream()
+        .collect(Collectors.toMap(Map.Entry::getKey, entry -> detect(entry.getValue())));
 
-    Row rowStats = new Row();
-    for (String column : stats.getColumns()) {
-      rowStats.add(column, stats.percentage(column, count));
-    }
+      ColumnMetric types = new ColumnMetric();
+      for (Map.Entry<String, Map<String, Double>> column : found.entrySet()) {
+        for (Map.Entry<String, Double> type : column.getValue().entrySet()) {
+          types.set(column.getKey(), type.getKey(), type.getValue());
+        }
+      }
 
-    Row row = new Row();
-    row.add("types", rowTypes);
-    row.add("stats", rowStats);
-    row.add("total", count);
+      Row rowTypes = new Row();
+      for (String column : types.getColumns()) {
+        rowTypes.add(column, types.percentage(column, (double) sampled));
+      }
 
-    return row;
+      Row rowStats = new Row();
+      for (String column : stats.getColumns()) {
+        rowStats.add(column, stats.percentage(column, (double) count));
+      }
+
+      Row row = new Row();
+      row.add("types", rowTypes);
+      row.add("stats", rowStats);
+      row.add("total", (double) count);
+      row.add("profile", profile);
+
+      return row;
+    }
+  }
+
+  // Counts the values of each type found in the values of a column.
+  private Map<String, Double> detect(List<String> values) {
+    Map<String, Double> counts = new TreeMap<>();
+    for (String value : values) {
+      for (String find : engine.findWithType(value).keySet()) {
+        counts.merge(find, 1d, Double::sum);
+      }
+    }
+    return counts;
   }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics;
+
+import io.cdap.wrangler.api.Pair;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Profile of the values of a column, made of mergeable sketches so that the profiles of the partitions of a
+ * dataset can be computed independently and merged into the profile of the whole dataset, in bounded memory.
+ *
+ * <p>It counts the values, the nulls and the empty strings, estimates the number of distinct values and the most
+ * frequent ones from their string representations, and the minimum, maximum, mean and quantiles of the numbers.
+ * Strings written as decimal numbers, as the values of columns parsed from text are, count as numbers.</p>
+ */
+public final class ColumnProfile implements Serializable {
+  private static final long serialVersionUID = 1L;
+  // Values are truncated to this number of characters to be counted as frequent items.
+  private static final int MAX_ITEM_LENGTH = 256;
+
+  private final HyperLogLog distinct = new HyperLogLog();
+  private final FrequentItems frequent = new FrequentItems();
+  private final QuantileSketch numbers = new QuantileSketch();
+  private long count;
+  private long nulls;
+  private long empties;
+  private double sum;
+
+  /**
+   * Adds a value of the column.
+   */
+  public void add(Object value) {
+    count++;
+    if (value == null) {
+      nulls++;
+      return;
+    }
+    if (value instanceof String && ((String) value).isEmpty()) {
+      empties++;
+    }
+    distinct.add(value);
+    if (!(value instanceof byte[])) {
+      String item = value.toString();
+      frequent.add(item.length() > MAX_ITEM_LENGTH ? item.substring(0, MAX_ITEM_LENGTH) : item);
+    }
+    double number = Double.NaN;
+    if (value instanceof Number) {
+      number = ((Number) value).doubleValue();
+    } else if (value instanceof String) {
+      number = toNumber((String) value);
+    }
+    if (!Double.isNaN(number)) {
+      numbers.add(number);
+      sum += number;
+    }
+  }
+
+  // Returns the number a string is written as, NaN if it is not a decimal number. The special values and the
+  // suffixes Double.parseDouble accepts are not numbers here.
+  private static double toNumber(String value) {
+    int length = value.length();
+    int i = 0;
+    if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+      i++;
+    }
+    int digits = 0;
+    for (; i < length && isDigit(value.charAt(i)); i++) {
+      digits++;
+    }
+    if (i < length && value.charAt(i) == '.') {
+      for (i++; i < length && isDigit(value.charAt(i)); i++) {
+        digits++;
+      }
+    }
+    if (digits == 0) {
+      return Double.NaN;
+    }
+    if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+      i++;
+      if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+        i++;
+      }
+      int exponent = i;
+      for (; i < length && isDigit(value.charAt(i)); i++) {
+        // skip the digits of the exponent
+      }
+      if (i == exponent) {
+        return Double.NaN;
+      }
+    }
+    if (i < length) {
+      return Double.NaN;
+    }
+    return Double.parseDouble(value);
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  /**
+   * Merges the profile of the same column in other rows into this one.
+   */
+  public void merge(ColumnProfile other) {
+    distinct.merge(other.distinct);
+    frequent.merge(other.frequent);
+    numbers.merge(other.numbers);
+    count += other.count;
+    nulls += other.nulls;
+    empties += other.empties;
+    sum += other.sum;
+  }
+
+  /**
+   * Returns the count of values, including nulls.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  public long getNullCount() {
+    return nulls;
+  }
+
+  public long getEmptyCount() {
+    return empties;
+  }
+
+  /**
+   * Returns the estimated number of distinct non-null values.
+   */
+  public long getDistinctCount() {
+    return distinct.estimate();
+  }
+
+  /**
+   * Returns the most frequent non-null values, with their estimated counts, most frequent first.
+   */
+  public List<Pair<String, Long>> getTopValues(int limit) {
+    return frequent.getTop(limit);
+  }
+
+  /**
+   * Returns the count of numeric values.
+   */
+  public long getNumericCount() {
+    return numbers.getCount();
+  }
+
+  /**
+   * Returns the smallest numeric value, NaN if there are none.
+   */
+  public double getMin() {
+    return numbers.getMin();
+  }
+
+  /**
+   * Returns the largest numeric value, NaN if there are none.
+   */
+  public double getMax() {
+    return numbers.getMax();
+  }
+
+  /**
+   * Returns the mean of the numeric values, NaN if there are none.
+   */
+  public double getMean() {
+    return numbers.getCount() == 0 ? Double.NaN : sum / numbers.getCount();
+  }
+
+  /**
+   * Returns the estimated quantile of the numeric values, NaN if there are none.
+   *
+   * @param fraction fraction of the values that are less than or equal to the quantile, between 0 and 1
+   */
+  public double getQuantile(double fraction) {
+    return numbers.quantile(fraction);
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics;
+
+import com.google.common.base.Preconditions;
+import io.cdap.wrangler.api.Pair;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Misra-Gries sketch of the most frequent items added to it, counting at most {@code capacity} items.
+ *
+ * <p>When a new item is added while the sketch is full, the counts of all the items are decreased by the median
+ * count, and those left without occurrences are dropped. Counts are thus underestimated, by at most
+ * {@link #getMaxError()}, which is at most {@code 2 * total / capacity}, and any item occurring more often than
+ * that is kept. Sketches of the same capacity can be merged.</p>
+ */
+public final class FrequentItems implements Serializable {
+  private static final long serialVersionUID = 1L;
+  public static final int DEFAULT_CAPACITY = 64;
+
+  private final int capacity;
+  private final Map<String, Long> counts = new HashMap<>();
+  private long total;
+  private long maxError;
+
+  public FrequentItems() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public FrequentItems(int capacity) {
+    Preconditions.checkArgument(capacity > 0, "Capacity must be positive.");
+    this.capacity = capacity;
+  }
+
+  /**
+   * Adds an occurrence of an item.
+   */
+  public void add(String item) {
+    total++;
+    counts.merge(item, 1L, Long::sum);
+    if (counts.size() > capacity) {
+      purge();
+    }
+  }
+
+  /**
+   * Merges another sketch of the same capacity into this one.
+   */
+  public void merge(FrequentItems other) {
+    Preconditions.checkArgument(capacity == other.capacity,
+                                "Cannot merge sketches of capacity %s and %s.", capacity, other.capacity);
+    for (Map.Entry<String, Long> entry : other.counts.entrySet()) {
+      counts.merge(entry.getKey(), entry.getValue(), Long::sum);
+    }
+    total += other.total;
+    maxError += other.maxError;
+    while (counts.size() > capacity) {
+      purge();
+    }
+  }
+
+  /**
+   * Returns the most frequent items with their estimated counts, most frequent first.
+   *
+   * @param limit maximum number of items returned
+   */
+  public List<Pair<String, Long>> getTop(int limit) {
+    List<Map.Entry<String, Long>> entries = new ArrayList<>(counts.entrySet());
+    entries.sort((a, b) -> {
+      int compare = Long.compare(b.getValue(), a.getValue());
+      return compare != 0 ? compare : a.getKey().compareTo(b.getKey());
+    });
+    List<Pair<String, Long>> top = new ArrayList<>(Math.min(limit, entries.size()));
+    for (Map.Entry<String, Long> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+      top.add(new Pair<>(entry.getKey(), entry.getValue()));
+    }
+    return top;
+  }
+
+  /**
+   * Returns the count of occurrences added.
+   */
+  public long getTotal() {
+    return total;
+  }
+
+  /**
+   * Returns the maximum number of occurrences by which the count of any item is underestimated.
+   */
+  public long getMaxError() {
+    return maxError;
+  }
+
+  // Decrements all the counts by the median count, which drops at least half of the items.
+  private void purge() {
+    long[] values = new long[counts.size()];
+    int i = 0;
+    for (long count : counts.values()) {
+      values[i++] = count;
+    }
+    Arrays.sort(values);
+    long decrement = values[values.length / 2];
+    maxError += decrement;
+    Iterator<Map.Entry<String, Long>> iterator = counts.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, Long> entry = iterator.next();
+      long count = entry.getValue() - decrement;
+      if (count <= 0) {
+        iterator.remove();
+      } else {
+        entry.setValue(count);
+      }
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct values added to it, in a fixed number of bytes.
+ *
+ * <p>With a precision of {@code p}, the sketch holds {@code 2^p} one byte registers and the standard error of the
+ * estimate is about {@code 1.04 / sqrt(2^p)}, which is 1.6% with the default precision of 12. Sketches of the same
+ * precision can be merged, the result being the sketch of all the values added to either of them.</p>
+ */
+public final class HyperLogLog implements Serializable {
+  private static final long serialVersionUID = 1L;
+  public static final int DEFAULT_PRECISION = 12;
+  private static final HashFunction HASH = Hashing.murmur3_128();
+
+  private final int precision;
+  private final byte[] registers;
+
+  public HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  public HyperLogLog(int precision) {
+    Preconditions.checkArgument(precision >= 4 && precision <= 18, "Precision must be between 4 and 18.");
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  /**
+   * Adds a value, which is identified by its string representation, or by its content for byte arrays.
+   */
+  public void add(Object value) {
+    if (value instanceof byte[]) {
+      addHash(HASH.hashBytes((byte[]) value).asLong());
+    } else {
+      addHash(HASH.hashString(String.valueOf(value), StandardCharsets.UTF_8).asLong());
+    }
+  }
+
+  /**
+   * Adds a value by its 64 bits hash, which must be uniformly distributed.
+   */
+  public void addHash(long hash) {
+    int index = (int) (hash >>> (Long.SIZE - precision));
+    // Position of the leftmost 1 in the remaining bits, the extra 1 bounds it if they are all 0.
+    int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+    if (rank > registers[index]) {
+      registers[index] = (byte) rank;
+    }
+  }
+
+  /**
+   * Merges another sketch of the same precision into this one.
+   */
+  public void merge(HyperLogLog other) {
+    Preconditions.checkArgument(precision == other.precision,
+                                "Cannot merge sketches of precision %s and %s.", precision, other.precision);
+    for (int i = 0; i < registers.length; i++) {
+      if (other.registers[i] > registers[i]) {
+        registers[i] = other.registers[i];
+      }
+    }
+  }
+
+  /**
+   * Returns the estimated number of distinct values added.
+   */
+  public long estimate() {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1d / (1L << register);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+    double estimate = alpha(m) * m * m / sum;
+    if (estimate <= 2.5 * m && zeros > 0) {
+      // Linear counting is more accurate for small cardinalities.
+      estimate = m * Math.log((double) m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  public int getPrecision() {
+    return precision;
+  }
+
+  private static double alpha(int m) {
+    switch (m) {
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / (1 + 1.079 / m);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics;
+
+import io.cdap.wrangler.api.Row;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.annotation.Nullable;
+
+/**
+ * Profile of the columns of rows, see {@link ColumnProfile}.
+ *
+ * <p>Profiles are serializable and mergeable, so a profile can be computed for each partition of a dataset,
+ * where the rows are processed, and the profiles merged into the profile of the whole dataset.</p>
+ */
+public final class Profile implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private final Map<String, ColumnProfile> columns = new TreeMap<>();
+  private long rows;
+
+  /**
+   * Adds a row to the profile.
+   */
+  public void add(Row row) {
+    rows++;
+    for (int i = 0; i < row.width(); i++) {
+      columns.computeIfAbsent(row.getColumn(i), c -> new ColumnProfile()).add(row.getValue(i));
+    }
+  }
+
+  /**
+   * Merges the profile of other rows into this one.
+   */
+  public void merge(Profile other) {
+    rows += other.rows;
+    for (Map.Entry<String, ColumnProfile> column : other.columns.entrySet()) {
+      columns.computeIfAbsent(column.getKey(), c -> new ColumnProfile()).merge(column.getValue());
+    }
+  }
+
+  /**
+   * Returns the count of rows added.
+   */
+  public long getRowCount() {
+    return rows;
+  }
+
+  /**
+   * Returns the names of the columns found in the rows, sorted. Columns found in rows added later are not in it.
+   */
+  public Set<String> getColumns() {
+    return Collections.unmodifiableSet(new TreeSet<>(columns.keySet()));
+  }
+
+  /**
+   * Returns the profile of a column, null if it is not in any of the rows.
+   */
+  @Nullable
+  public ColumnProfile getColumn(String column) {
+    return columns.get(column);
+  }
+}
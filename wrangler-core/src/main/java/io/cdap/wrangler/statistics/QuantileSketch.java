@@ -0,0 +1,227 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics;
+
+import com.google.common.base.Preconditions;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * KLL sketch estimating the quantiles of the numbers added to it, in a number of items bounded by a small multiple
+ * of {@code k} whatever the count of numbers.
+ *
+ * <p>Numbers are added to the first level of a stack of compactors. A level holding more than its capacity is
+ * sorted, and every other item of it, starting at a random one, is promoted to the level above, where each item
+ * stands for twice as many numbers. Capacities decrease geometrically from the top level down. The rank error is
+ * about {@code 1.7 / k}, 1% with the default {@code k} of 200. Sketches of the same {@code k} can be merged.</p>
+ */
+public final class QuantileSketch implements Serializable {
+  private static final long serialVersionUID = 1L;
+  public static final int DEFAULT_K = 200;
+  private static final double CAPACITY_DECAY = 2d / 3;
+  private static final int MIN_CAPACITY = 8;
+
+  private final int k;
+  private final Random random = new Random(0);
+  private final List<double[]> levels = new ArrayList<>();
+  private final List<Integer> sizes = new ArrayList<>();
+  private long count;
+  private double min = Double.NaN;
+  private double max = Double.NaN;
+  // Number of items held by all the levels, and the number they can hold before one is compacted.
+  private int size;
+  private int maxSize;
+
+  public QuantileSketch() {
+    this(DEFAULT_K);
+  }
+
+  public QuantileSketch(int k) {
+    Preconditions.checkArgument(k >= MIN_CAPACITY, "k must be at least %s.", MIN_CAPACITY);
+    this.k = k;
+    grow();
+  }
+
+  /**
+   * Adds a number, NaNs are ignored.
+   */
+  public void add(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    if (count++ == 0) {
+      min = value;
+      max = value;
+    } else {
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+    }
+    append(0, value);
+    if (++size >= maxSize) {
+      compress();
+    }
+  }
+
+  /**
+   * Merges another sketch of the same {@code k} into this one.
+   */
+  public void merge(QuantileSketch other) {
+    Preconditions.checkArgument(k == other.k, "Cannot merge sketches of k %s and %s.", k, other.k);
+    if (other.count == 0) {
+      return;
+    }
+    while (levels.size() < other.levels.size()) {
+      grow();
+    }
+    for (int level = 0; level < other.levels.size(); level++) {
+      double[] items = other.levels.get(level);
+      for (int i = 0; i < other.sizes.get(level); i++) {
+        append(level, items[i]);
+      }
+    }
+    min = count == 0 ? other.min : Math.min(min, other.min);
+    max = count == 0 ? other.max : Math.max(max, other.max);
+    count += other.count;
+    size += other.size;
+    while (size >= maxSize) {
+      compress();
+    }
+  }
+
+  /**
+   * Returns the estimated quantile of the numbers added, NaN if there are none.
+   *
+   * @param fraction fraction of the numbers that are less than or equal to the quantile, between 0 and 1
+   */
+  public double quantile(double fraction) {
+    Preconditions.checkArgument(fraction >= 0 && fraction <= 1, "Fraction must be between 0 and 1.");
+    if (count == 0) {
+      return Double.NaN;
+    }
+    if (fraction == 0) {
+      return min;
+    }
+    if (fraction == 1) {
+      return max;
+    }
+
+    // Items are sorted along with the levels they are in, an item of level l stands for 2^l numbers.
+    double[] items = new double[size];
+    int[] itemLevels = new int[size];
+    Integer[] order = new Integer[size];
+    int n = 0;
+    for (int level = 0; level < levels.size(); level++) {
+      double[] values = levels.get(level);
+      for (int i = 0; i < sizes.get(level); i++) {
+        items[n] = values[i];
+        itemLevels[n] = level;
+        order[n] = n;
+        n++;
+      }
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(items[a], items[b]));
+
+    long total = 0;
+    for (int level : itemLevels) {
+      total += 1L << level;
+    }
+    double rank = fraction * total;
+    long weight = 0;
+    for (int i : order) {
+      weight += 1L << itemLevels[i];
+      if (weight >= rank) {
+        return items[i];
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Returns the count of numbers added.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the smallest number added, NaN if there are none.
+   */
+  public double getMin() {
+    return min;
+  }
+
+  /**
+   * Returns the largest number added, NaN if there are none.
+   */
+  public double getMax() {
+    return max;
+  }
+
+  private void append(int level, double value) {
+    double[] items = levels.get(level);
+    int length = sizes.get(level);
+    if (length == items.length) {
+      items = Arrays.copyOf(items, Math.max(MIN_CAPACITY, items.length * 2));
+      levels.set(level, items);
+    }
+    items[length] = value;
+    sizes.set(level, length + 1);
+  }
+
+  private void grow() {
+    levels.add(new double[MIN_CAPACITY]);
+    sizes.add(0);
+    maxSize = 0;
+    for (int level = 0; level < levels.size(); level++) {
+      maxSize += capacity(level);
+    }
+  }
+
+  private int capacity(int level) {
+    int depth = levels.size() - level - 1;
+    return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+  }
+
+  // Compacts the lowest level holding more than its capacity.
+  private void compress() {
+    for (int level = 0; level < levels.size(); level++) {
+      int length = sizes.get(level);
+      if (length >= capacity(level)) {
+        if (level + 1 == levels.size()) {
+          grow();
+        }
+        double[] items = levels.get(level);
+        // An odd item out stays in the level.
+        int compacted = length - length % 2;
+        Arrays.sort(items, 0, compacted);
+        for (int i = random.nextBoolean() ? 1 : 0; i < compacted; i += 2) {
+          append(level + 1, items[i]);
+        }
+        if (compacted < length) {
+          items[0] = items[length - 1];
+        }
+        sizes.set(level, length - compacted);
+        size -= compacted / 2;
+        return;
+      }
+    }
+  }
+}
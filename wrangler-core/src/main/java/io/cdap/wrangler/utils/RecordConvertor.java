@@ -131,7 +131,7 @@ public final class RecordConvertor implements Serializable {
     return builder.build();
   }
 
-  private Object decode(String name, Object object, Schema schema) throws RecordConvertorException {
+  Object decode(String name, Object object, Schema schema) throws RecordConvertorException {
     boolean isNullable = schema.isNullable();
 
     if (object == null && isNullable) {
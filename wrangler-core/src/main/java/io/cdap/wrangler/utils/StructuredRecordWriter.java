@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.utils;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.format.UnexpectedFormatException;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.wrangler.api.Row;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Writes {@link Row}s into {@link StructuredRecord}s of a fixed output schema in a single pass.
+ *
+ * <p>This combines {@link RecordConvertor#decodeRecord(Row, Schema)} with the final copy into the output
+ * schema done by the transform, so each output record is built only once. The fields of the schema and the
+ * way to report them are resolved when the writer is created, instead of for every row.</p>
+ */
+public final class StructuredRecordWriter {
+  private final RecordConvertor convertor = new RecordConvertor();
+  private final Schema schema;
+  private final String[] names;
+  private final Schema[] schemas;
+  private final String[] displayNames;
+
+  public StructuredRecordWriter(Schema schema) {
+    this.schema = schema;
+    List<Schema.Field> fields = schema.getFields();
+    this.names = new String[fields.size()];
+    this.schemas = new Schema[fields.size()];
+    this.displayNames = new String[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      Schema fSchema = fields.get(i).getSchema();
+      names[i] = fields.get(i).getName();
+      schemas[i] = fSchema;
+      displayNames[i] = fSchema.isNullable() ? fSchema.getNonNullable().getDisplayName() : fSchema.getDisplayName();
+    }
+  }
+
+  /**
+   * @return schema of the records written.
+   */
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Writes a {@link Row} into a {@link StructuredRecord} of the output schema.
+   *
+   * @param row to be written.
+   * @return record of the output schema holding the values of the row.
+   */
+  public StructuredRecord write(Row row) throws RecordConvertorException {
+    // A row made of a single record is passed as is, so only project it onto the output schema.
+    if (row.width() == 1) {
+      Object cell = row.getValue(0);
+      if (cell instanceof StructuredRecord) {
+        return project((StructuredRecord) cell);
+      }
+    }
+
+    StructuredRecord.Builder builder = StructuredRecord.builder(schema);
+    // We optimize for use case where wrangler list of fields is equal to the output schema one
+    // This value would hold first row field index that we did not map to schema yet
+    int firstUnclaimedField = 0;
+    for (int i = 0; i < names.length; i++) {
+      String name = names[i];
+      Object value = null;
+      int idx;
+      if ((firstUnclaimedField < row.width()) && (name.equals(row.getColumn(firstUnclaimedField)))) {
+        idx = firstUnclaimedField;
+        firstUnclaimedField++;
+      } else {
+        idx = row.find(name, firstUnclaimedField);
+        if (idx == firstUnclaimedField) {
+          firstUnclaimedField++;
+        }
+      }
+      if (idx != -1) {
+        value = row.getValue(idx);
+      }
+      try {
+        set(builder, name, convertor.decode(name, value, schemas[i]));
+      } catch (UnexpectedFormatException e) {
+        throw new RecordConvertorException(
+          String.format("Field '%s' of type '%s' cannot be set to '%s'. Make sure the value is " +
+                          "being set is inline with the specified schema.",
+                        name, displayNames[i], value == null ? "NULL" : value), e);
+      }
+    }
+    return builder.build();
+  }
+
+  private StructuredRecord project(StructuredRecord record) {
+    StructuredRecord.Builder builder = StructuredRecord.builder(schema);
+    for (String name : names) {
+      Object value = record.get(name);
+      if (value instanceof String) {
+        builder.convertAndSet(name, (String) value);
+      } else {
+        builder.set(name, value);
+      }
+    }
+    return builder.build();
+  }
+
+  private static void set(StructuredRecord.Builder builder, String name, Object value) {
+    if (value instanceof String) {
+      builder.convertAndSet(name, (String) value);
+    } else if (value instanceof LocalDate) {
+      builder.setDate(name, (LocalDate) value);
+    } else if (value instanceof LocalTime) {
+      builder.setTime(name, (LocalTime) value);
+    } else if (value instanceof ZonedDateTime) {
+      builder.setTimestamp(name, (ZonedDateTime) value);
+    } else if (value instanceof BigDecimal) {
+      builder.setDecimal(name, (BigDecimal) value);
+    } else if (value instanceof LocalDateTime) {
+      builder.setDateTime(name, (LocalDateTime) value);
+    } else {
+      builder.set(name, value);
+    }
+  }
+}
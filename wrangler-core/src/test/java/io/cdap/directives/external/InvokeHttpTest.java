@@ -24,8 +24,10 @@ import io.cdap.http.HttpHandler;
 import io.cdap.http.HttpResponder;
 import io.cdap.http.NettyHttpService;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.RecipePipeline;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import org.junit.After;
@@ -36,9 +38,11 @@ import org.junit.Test;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
@@ -48,6 +52,7 @@ import javax.ws.rs.Path;
  */
 public class InvokeHttpTest {
   private static final Gson GSON = new Gson();
+  private static final AtomicInteger REQUESTS = new AtomicInteger();
   private static NettyHttpService httpService;
   private static String baseURL;
 
@@ -60,6 +65,7 @@ public class InvokeHttpTest {
       .build();
     httpService.start();
     int port = httpService.getBindAddress().getPort();
+    REQUESTS.set(0);
     baseURL = "http://localhost:" + port;
   }
 
@@ -78,6 +84,7 @@ public class InvokeHttpTest {
     @Path("service")
     public void append(FullHttpRequest request, HttpResponder responder,
                        @HeaderParam("C") String headerC) {
+      REQUESTS.incrementAndGet();
       Map<String, Object> object = postRequest(request);
       Map<String, Object> response = new HashMap<>();
       String c = String.format("%s:%f", object.get("a"), object.get("b"));
@@ -86,6 +93,18 @@ public class InvokeHttpTest {
       responder.sendJson(HttpResponseStatus.OK, GSON.toJson(response));
     }
 
+    @POST
+    @Path("flaky")
+    public void flaky(FullHttpRequest request, HttpResponder responder) {
+      REQUESTS.incrementAndGet();
+      Map<String, Object> object = postRequest(request);
+      if ("fail".equals(object.get("a"))) {
+        responder.sendStatus(HttpResponseStatus.INTERNAL_SERVER_ERROR);
+        return;
+      }
+      responder.sendJson(HttpResponseStatus.OK, GSON.toJson(Collections.singletonMap("c", object.get("a"))));
+    }
+
     private Map<String, Object> postRequest(FullHttpRequest request) throws JsonParseException {
       String contentString = request.content().toString(StandardCharsets.UTF_8);
       if (contentString.isEmpty()) {
@@ -155,6 +174,108 @@ public class InvokeHttpTest {
     Assert.assertTrue(executor.errors().size() == 2);
   }
 
+  @Test
+  public void testHttpInvokeOnBatch() throws Exception {
+    String[] directives = new String[] {
+      "invoke-http " + (baseURL + "/service ") + "a,b"
+    };
+
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      rows.add(new Row("a", String.valueOf(i % 10)).add("b", (double) i));
+    }
+
+    try (RecipePipelineExecutor executor = new RecipePipelineExecutor(TestingRig.parse(directives), null, 20)) {
+      rows = executor.execute(rows);
+    }
+
+    Assert.assertEquals(50, rows.size());
+    for (int i = 0; i < 50; i++) {
+      Assert.assertEquals(String.format("%d:%f", i % 10, (double) i), rows.get(i).getValue("c"));
+    }
+    Assert.assertEquals(50, REQUESTS.get());
+  }
+
+  @Test
+  public void testHttpInvokeDeduplicatedAndCached() throws Exception {
+    String[] directives = new String[] {
+      "#pragma version 2.0;",
+      "invoke-http '" + baseURL + "/service' :a,:b prop:{concurrency=4,deduplicate=true,cache-ttl-seconds=60};"
+    };
+
+    try (RecipePipelineExecutor executor = new RecipePipelineExecutor(TestingRig.parse(directives), null, 20)) {
+      for (int run = 0; run < 2; run++) {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+          rows.add(new Row("a", String.valueOf(i % 10)).add("b", 1.0));
+        }
+        rows = executor.execute(rows);
+        Assert.assertEquals(50, rows.size());
+        for (int i = 0; i < 50; i++) {
+          Assert.assertEquals(String.format("%d:%f", i % 10, 1.0), rows.get(i).getValue("c"));
+        }
+      }
+    }
+    // Rows with the same values share a request, and responses are cached across batches.
+    Assert.assertEquals(10, REQUESTS.get());
+  }
+
+  @Test
+  public void testHttpInvokeWithWrongEndPointOnBatch() throws Exception {
+    String[] directives = new String[] {
+      "invoke-http " + (baseURL + "/wrongserviceendpoint ") + "a,b"
+    };
+
+    List<Row> rows = Arrays.asList(
+      new Row("a", "1").add("b", 2.0),
+      new Row("a", "3").add("b", 4.2),
+      new Row("a", "5").add("b", 6.0)
+    );
+
+    try (RecipePipelineExecutor executor = new RecipePipelineExecutor(TestingRig.parse(directives), null, 3)) {
+      rows = executor.execute(rows);
+      Assert.assertTrue(rows.isEmpty());
+      Assert.assertEquals(3, executor.errors().size());
+    }
+  }
+
+  @Test
+  public void testHttpInvokeFailuresAreIsolatedOnBatch() throws Exception {
+    String[] directives = new String[] {
+      "#pragma version 2.0;",
+      "invoke-http '" + baseURL + "/flaky' :a prop:{concurrency=4};"
+    };
+
+    List<Row> rows = new ArrayList<>();
+    for (String a : new String[] { "ok1", "fail", "ok2", "fail", "ok3" }) {
+      rows.add(new Row("a", a));
+    }
+
+    try (RecipePipelineExecutor executor = new RecipePipelineExecutor(TestingRig.parse(directives), null, 5)) {
+      rows = executor.execute(rows);
+      Assert.assertEquals(3, rows.size());
+      Assert.assertEquals("ok1", rows.get(0).getValue("c"));
+      Assert.assertEquals("ok3", rows.get(2).getValue("c"));
+      Assert.assertEquals(2, executor.errors().size());
+    }
+    // Every row is sent once, the rows in error are not sent again.
+    Assert.assertEquals(5, REQUESTS.get());
+  }
+
+  @Test
+  public void testInvalidOptions() throws Exception {
+    for (String options : new String[] { "prop:{concurrency=0}", "prop:{deduplicate='yes'}", "prop:{retries=3}" }) {
+      try {
+        TestingRig.parse(new String[] {
+          "#pragma version 2.0;", "invoke-http '" + baseURL + "/service' :a " + options + ";"
+        }).parse();
+        Assert.fail(options);
+      } catch (RecipeException e) {
+        Assert.assertTrue(e.getMessage(), e.getMessage().contains("Option") || e.getMessage().contains("option"));
+      }
+    }
+  }
+
   @After
   public void stopService() throws Exception {
     httpService.stop();
@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.lookup;
+
+import io.cdap.cdap.api.common.Bytes;
+import io.cdap.cdap.api.dataset.table.Result;
+import io.cdap.cdap.api.dataset.table.Table;
+import io.cdap.cdap.etl.api.Lookup;
+import io.cdap.wrangler.TestingPipelineContext;
+import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tests {@link TableLookup}
+ */
+public class TableLookupTest {
+
+  private static Table table() {
+    Table table = Mockito.mock(Table.class);
+    Mockito.when(table.get(Mockito.any(byte[].class))).thenAnswer(invocation -> {
+      byte[] key = invocation.getArgument(0);
+      Map<byte[], byte[]> columns = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+      if (!Bytes.toString(key).startsWith("missing")) {
+        columns.put(Bytes.toBytes("name"), Bytes.toBytes("name of " + Bytes.toString(key)));
+        columns.put(Bytes.toBytes("code"), Bytes.toBytes(Bytes.toString(key).toUpperCase()));
+      }
+      return new Result(key, columns);
+    });
+    return table;
+  }
+
+  private static TestingPipelineContext context(Table table) {
+    return new TestingPipelineContext() {
+      @Override
+      public <T> Lookup<T> provide(String s, Map<String, String> map) {
+        return (Lookup<T>) new io.cdap.cdap.etl.api.lookup.TableLookup(table);
+      }
+    };
+  }
+
+  private static List<Row> rows(String... keys) {
+    List<Row> rows = new ArrayList<>();
+    for (String key : keys) {
+      rows.add(new Row("key", key));
+    }
+    return rows;
+  }
+
+  @Test
+  public void testLookupsAreCached() throws Exception {
+    Table table = table();
+    TestingPipelineContext context = context(table);
+    String[] directives = new String[] {"#pragma version 2.0;", "table-lookup :key 'lookup' prop:{cache-size=100};"};
+
+    try (RecipePipelineExecutor executor = new RecipePipelineExecutor(TestingRig.parse(directives), context, 10)) {
+      List<Row> rows = executor.execute(rows("a", "b", "a", "missing", "a", "missing"));
+      Assert.assertEquals(6, rows.size());
+      Assert.assertEquals("A", rows.get(0).getValue("key_code"));
+      Assert.assertEquals("name of a", rows.get(0).getValue("key_name"));
+      Assert.assertEquals(Arrays.asList("key", "key_code", "key_name"), columns(rows.get(2)));
+      Assert.assertEquals("name of b", rows.get(1).getValue("key_name"));
+      Assert.assertEquals(Collections.singletonList("key"), columns(rows.get(3)));
+
+      // Keys not in the table are cached too.
+      rows = executor.execute(rows("missing", "b", "c"));
+      Assert.assertEquals("C", rows.get(2).getValue("key_code"));
+      Assert.assertEquals(Collections.singletonList("key"), columns(rows.get(0)));
+    }
+
+    Mockito.verify(table, Mockito.times(4)).get(Mockito.any(byte[].class));
+    Mockito.verify(context.getMetrics()).count(TableLookup.CACHE_MISSES, 3);
+    Mockito.verify(context.getMetrics()).count(TableLookup.CACHE_HITS, 2);
+    Mockito.verify(context.getMetrics()).count(TableLookup.CACHE_MISSES, 1);
+  }
+
+  @Test
+  public void testCacheDisabledByDefault() throws Exception {
+    Table table = table();
+    TestingPipelineContext context = context(table);
+    String[] directives = new String[] {"table-lookup :key 'lookup'"};
+
+    try (RecipePipelineExecutor executor = new RecipePipelineExecutor(TestingRig.parse(directives), context)) {
+      List<Row> rows = executor.execute(rows("a", "a", "missing"));
+      Assert.assertEquals("A", rows.get(1).getValue("key_code"));
+      Assert.assertEquals(Collections.singletonList("key"), columns(rows.get(2)));
+      rows = executor.execute(rows("a"));
+      Assert.assertEquals("A", rows.get(0).getValue("key_code"));
+    }
+    Mockito.verify(table, Mockito.times(4)).get(Mockito.any(byte[].class));
+    Mockito.verifyZeroInteractions(context.getMetrics());
+  }
+
+  private static List<String> columns(Row row) {
+    List<String> columns = new ArrayList<>();
+    for (int i = 0; i < row.width(); i++) {
+      columns.add(row.getColumn(i));
+    }
+    return columns;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.parser;
+
+import io.cdap.wrangler.api.Row;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing a CSV line into the columns of a {@link Row} as {@link CsvParser} does, comparing the
+ * {@link CsvTokenizer} with the commons-csv parser it replaces, on lines of different widths.
+ *
+ * <p>Run with the {@link #main(String[])} method from the test classpath.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvParserBenchmark {
+
+  @Param({"10", "500"})
+  private int width;
+
+  private String line;
+  private String[] names;
+  private CSVFormat format;
+  private CsvTokenizer tokenizer;
+
+  @Setup
+  public void setup() {
+    StringBuilder builder = new StringBuilder();
+    names = new String[width];
+    for (int i = 0; i < width; i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      // Every fourth field is quoted, with a delimiter or an escaped quote in it.
+      switch (i % 4) {
+        case 0:
+          builder.append("\"Potter, Harry ").append(i).append('"');
+          break;
+        case 1:
+          builder.append("\"say \"\"hi\"\"\"");
+          break;
+        default:
+          builder.append(i * 7919);
+      }
+      names[i] = "body_" + (i + 1);
+    }
+    line = builder.toString();
+    format = CSVFormat.DEFAULT.withDelimiter(',');
+    tokenizer = new CsvTokenizer(',');
+  }
+
+  @Benchmark
+  public Row tokenizer() throws IOException {
+    Row row = new Row("body", line);
+    tokenizer.reset(line);
+    while (tokenizer.next()) {
+      for (int i = 0; i < tokenizer.size(); i++) {
+        row.add(names[i], tokenizer.get(i));
+      }
+    }
+    return row;
+  }
+
+  @Benchmark
+  public Row commonsCsv() throws IOException {
+    Row row = new Row("body", line);
+    for (CSVRecord record : CSVParser.parse(line, format).getRecords()) {
+      for (int i = 0; i < record.size(); i++) {
+        row.add("body_" + (i + 1), record.get(i));
+      }
+    }
+    return row;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(CsvParserBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -18,9 +18,14 @@ package io.cdap.directives.parser;
 
 import io.cdap.wrangler.TestingRig;
 import io.cdap.wrangler.api.Row;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -142,4 +147,71 @@ public class CsvParserTest {
     Assert.assertEquals("0033445566", rows.get(0).getValue("student_id"));
     Assert.assertEquals("0044333433", rows.get(1).getValue("student_id"));
   }
+
+  @Test
+  public void testQuotedFieldsAndRecords() throws Exception {
+    String[] directives = new String[] {
+      "parse-as-csv body , false",
+    };
+
+    List<Row> rows = Arrays.asList(
+      new Row("body", "\"Potter, Harry\",\"say \"\"hi\"\"\",  \"x\"  ,"),
+      new Row("body", "\"unterminated,value")
+    );
+
+    rows = TestingRig.execute(directives, rows);
+
+    Assert.assertEquals(1, rows.size());
+    Assert.assertEquals("Potter, Harry", rows.get(0).getValue("body_1"));
+    Assert.assertEquals("say \"hi\"", rows.get(0).getValue("body_2"));
+    Assert.assertEquals("  \"x\"  ", rows.get(0).getValue("body_3"));
+    Assert.assertEquals("", rows.get(0).getValue("body_4"));
+  }
+
+  @Test
+  public void testSameAsCommonsCsv() throws Exception {
+    String[] lines = new String[] {
+      "a", "a,b,c", "a,,c", ",", "a,b,", " a , b ", "\"a\",\"b\"", "\"a,b\",c", "\"a\"\"b\"", "\"\"", "\"\"\"\"",
+      "\"a\"  ,b", "\"a\"\t", "\"a\"x,b", "a\"b\",c", " \"a\"", "\"a", "\"a\"\"", "a\nb", "a\r\nb,c\n",
+      "\n\na\n\n", "\r\n", "a,\n", "\"a\nb\",c\r\nd", "\"a\r\nb\"\r\n\"c", "x\ny\n\"z\"q", "a;b,c;\"d;e\"", "a\tb"
+    };
+    for (char delimiter : new char[] {',', ';', '\t', ' '}) {
+      CSVFormat format = CSVFormat.DEFAULT.withDelimiter(delimiter);
+      CsvTokenizer tokenizer = new CsvTokenizer(delimiter);
+      for (String line : lines) {
+        List<List<String>> expected = new ArrayList<>();
+        String expectedError = null;
+        try {
+          for (CSVRecord record : CSVParser.parse(line, format).getRecords()) {
+            List<String> fields = new ArrayList<>();
+            record.forEach(fields::add);
+            expected.add(fields);
+          }
+        } catch (IOException e) {
+          expectedError = e.getMessage();
+        }
+
+        List<List<String>> actual = new ArrayList<>();
+        String actualError = null;
+        tokenizer.reset(line);
+        try {
+          while (tokenizer.next()) {
+            List<String> fields = new ArrayList<>();
+            for (int i = 0; i < tokenizer.size(); i++) {
+              fields.add(tokenizer.get(i));
+            }
+            actual.add(fields);
+          }
+        } catch (IOException e) {
+          actualError = e.getMessage();
+        }
+
+        String message = "'" + delimiter + "' on " + line;
+        Assert.assertEquals(message, expectedError, actualError);
+        if (expectedError == null) {
+          Assert.assertEquals(message, expected, actual);
+        }
+      }
+    }
+  }
 }
@@ -16,12 +16,15 @@
 
 package io.cdap.directives.parser;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import io.cdap.wrangler.TestingRig;
 import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -267,4 +270,53 @@ public class JsParserTest {
     Assert.assertNotEquals(rows.get(0).find("body6_name_first_n"), -1);
     Assert.assertNotEquals(rows.get(0).find("body6_name_first_m"), -1);
   }
+
+  @Test
+  public void testSameAsParsedElements() throws Exception {
+    String[] documents = new String[] {
+      "{\"a\": 1, \"b\": {\"c\": 2.5, \"d\": {\"e\": [1, {\"f\": null}], \"g\": {}}}, \"h\": true}",
+      "{\"big\": 123456789012345678901234567890, \"exp\": 1e3, \"neg\": -0.5, \"s\": \"x\\\"y\"}",
+      "  {'lenient': unquoted, \"n\": NaN}  ",
+      "[{\"a\": {\"b\": 1}}, 2, \"three\", null, [4], true]",
+      "[]", "{}", "{\"a\": {}}",
+      "{\"a\": 1, \"b\": 2, \"a\": 3}", "{\"a\": {\"b\": 1}, \"c\": 2, \"a\": {\"d\": 3}}",
+      "{\"a\": 1, \"a\": {\"b\": 2}}", "{\"a\": {\"b\": 1, \"b\": [2]}}", "{\"a_b\": 1, \"a\": {\"b\": 2}}"
+    };
+    for (int depth : new int[] {0, 1, 2, 10}) {
+      String[] directives = new String[] {"parse-as-json body " + depth};
+      for (String document : documents) {
+        JsonElement element = new JsonParser().parse(document);
+        List<Row> streamed = TestingRig.execute(directives, Collections.singletonList(new Row("body", document)));
+        List<Row> parsed = TestingRig.execute(directives, Collections.singletonList(new Row("body", element)));
+
+        String message = depth + " " + document;
+        Assert.assertEquals(message, parsed.size(), streamed.size());
+        for (int i = 0; i < parsed.size(); i++) {
+          Row expected = parsed.get(i);
+          Row actual = streamed.get(i);
+          Assert.assertEquals(message, expected.width(), actual.width());
+          for (int j = 0; j < expected.width(); j++) {
+            Assert.assertEquals(message, expected.getColumn(j), actual.getColumn(j));
+            Assert.assertEquals(message, expected.getValue(j), actual.getValue(j));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testInvalidDocuments() throws Exception {
+    String[] directives = new String[] {"parse-as-json body"};
+    for (String document : new String[] {"{\"a\": 1} x", "{\"a\": 1} // comment", "{\"a\": ", "[1, 2", "{} {}"}) {
+      try {
+        TestingRig.execute(directives, Collections.singletonList(new Row("body", document)));
+        Assert.fail(document);
+      } catch (Exception e) {
+        // expected
+      }
+    }
+    // Empty documents and primitives are dropped.
+    Assert.assertTrue(TestingRig.execute(directives, Collections.singletonList(new Row("body", ""))).isEmpty());
+    Assert.assertTrue(TestingRig.execute(directives, Collections.singletonList(new Row("body", "1"))).isEmpty());
+  }
 }
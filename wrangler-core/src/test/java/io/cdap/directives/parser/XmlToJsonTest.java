@@ -18,10 +18,12 @@ package io.cdap.directives.parser;
 
 import io.cdap.directives.xml.XmlToJson;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 
@@ -51,4 +53,45 @@ public class XmlToJsonTest {
     Assert.assertEquals("{\"tagid\":3.03246306303E19}", rows.get(0).getValue("body_2_Data").toString());
     Assert.assertEquals("{\"tagid\":\"303246306303E8\"}", rows.get(0).getValue("body_3_Data").toString());
   }
+
+  @Test
+  public void testPaths() throws Exception {
+    String[] directives = new String[] {
+      "parse-xml-to-json :body '/ClinicalDocument/recordTarget/patientRole/patient/name "
+        + "| //telecom[@use=\"HP\"]/@value'"
+    };
+
+    String document = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+      + "<ClinicalDocument xmlns=\"urn:hl7-org:v3\"><title>Summary</title><recordTarget><patientRole>"
+      + "<telecom use=\"HP\" value=\"tel:555-1234\"/><telecom use=\"WP\" value=\"tel:555-5678\"/>"
+      + "<patient><name><given>Jane</given><family>Doe</family></name><birthTime value=\"19700101\"/></patient>"
+      + "</patientRole></recordTarget></ClinicalDocument>";
+    List<Row> rows = TestingRig.execute(directives, Arrays.asList(
+      new Row("body", document), new Row("body", document.getBytes(StandardCharsets.UTF_8))));
+
+    Assert.assertEquals(2, rows.size());
+    for (Row row : rows) {
+      Assert.assertEquals(3, row.width());
+      String prefix = "body_ClinicalDocument_recordTarget_patientRole_";
+      Assert.assertEquals("tel:555-1234", row.getValue(prefix + "telecom_value"));
+      Assert.assertEquals("Jane", row.getValue(prefix + "patient_name_given"));
+      Assert.assertEquals("Doe", row.getValue(prefix + "patient_name_family"));
+    }
+  }
+
+  @Test
+  public void testDocumentsNotWellFormed() throws Exception {
+    List<Row> rows = TestingRig.execute(new String[] { "parse-xml-to-json :body" },
+                                        Arrays.asList(new Row("body", "<a>1&nbsp;</a><b>2</b>")));
+    Assert.assertEquals("1&nbsp;", rows.get(0).getValue("body_a"));
+    Assert.assertEquals(2L, rows.get(0).getValue("body_b"));
+
+    try {
+      TestingRig.execute(new String[] { "parse-xml-to-json :body '/a'" },
+                         Arrays.asList(new Row("body", "<a>1</a><b>2</b>")));
+      Assert.fail("Paths are only read from well formed documents");
+    } catch (RecipeException e) {
+      // expected
+    }
+  }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.transformation;
+
+import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link ColumnExpression}
+ */
+public class ColumnExpressionTest {
+
+  @Test
+  public void testCompiledExpression() throws Exception {
+    for (String options : new String[] { "", " prop:{compile=true}", " prop:{compile=false}" }) {
+      String[] directives = new String[] {
+        "#pragma version 2.0;",
+        "set-column :total exp:{a * b + 1}" + options + ";",
+        "set-column :label exp:{total > 10 ? 'large' : 'small'}" + options + ";",
+      };
+
+      List<Row> rows = Arrays.asList(
+        new Row("a", 2).add("b", 3),
+        new Row("a", 4).add("b", 5)
+      );
+
+      rows = TestingRig.execute(directives, rows);
+
+      Assert.assertEquals(2, rows.size());
+      Assert.assertEquals(7, rows.get(0).getValue("total"));
+      Assert.assertEquals("small", rows.get(0).getValue("label"));
+      Assert.assertEquals(21, rows.get(1).getValue("total"));
+      Assert.assertEquals("large", rows.get(1).getValue("label"));
+    }
+  }
+
+  @Test
+  public void testInvalidOptions() throws Exception {
+    for (String options : new String[] { "prop:{compile='yes'}", "prop:{jit=true}" }) {
+      try {
+        TestingRig.parse(new String[] { "#pragma version 2.0;", "set-column :a exp:{b + 1} " + options + ";" })
+          .parse();
+        Assert.fail(options);
+      } catch (RecipeException e) {
+        Assert.assertTrue(e.getMessage(), e.getMessage().contains("option") || e.getMessage().contains("Option"));
+      }
+    }
+  }
+}
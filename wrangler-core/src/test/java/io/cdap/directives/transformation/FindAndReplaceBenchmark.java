@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.transformation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.unix4j.Unix4j;
+import org.unix4j.builder.Unix4jCommandBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the substitutions of {@link FindAndReplace} on a batch of values, comparing the compiled
+ * {@link SedSubstitution} with the Unix4j sed command it replaces.
+ *
+ * <p>Run with the {@link #main(String[])} method from the test classpath.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindAndReplaceBenchmark {
+
+  // Number of values substituted in each invocation.
+  private static final int VALUES = 100;
+
+  @Param({"s/\"//g", "s/(\\w+)@(\\w+)/$2 at $1/", "s/ERROR/error/Ig"})
+  private String script;
+
+  private String[] values;
+  private SedSubstitution substitution;
+
+  @Setup
+  public void setup() {
+    values = new String[VALUES];
+    for (int i = 0; i < VALUES; i++) {
+      values[i] = "07/29/2013,\"user" + i + "@cdap\",Error " + i + ",\"Loan servicing, payments, escrow account\"";
+    }
+    substitution = SedSubstitution.compile(script);
+  }
+
+  @Benchmark
+  public void compiled(Blackhole blackhole) {
+    for (String value : values) {
+      blackhole.consume(substitution.apply(value));
+    }
+  }
+
+  @Benchmark
+  public void unix4j(Blackhole blackhole) {
+    for (String value : values) {
+      Unix4jCommandBuilder builder = Unix4j.echo(value).sed(script);
+      if (builder.toExitValue() == 0) {
+        blackhole.consume(builder.toStringResult());
+      }
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(FindAndReplaceBenchmark.class.getSimpleName()).build()).run();
+  }
+}
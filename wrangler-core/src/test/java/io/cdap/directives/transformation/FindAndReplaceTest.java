@@ -20,6 +20,8 @@ import io.cdap.wrangler.TestingRig;
 import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
+import org.unix4j.Unix4j;
+import org.unix4j.builder.Unix4jCommandBuilder;
 
 import java.util.Arrays;
 import java.util.List;
@@ -51,4 +53,61 @@ public class FindAndReplaceTest {
                         rows.get(0).getValue("body"));
   }
 
+  @Test
+  public void testGroupsAndFlags() throws Exception {
+    String[] directives = new String[] {
+      "find-and-replace first s/(\\w+)@(\\w+)/$2 at $1/",
+      "find-and-replace second s|A|-|Ig",
+      "find-and-replace third s/a/-/2",
+    };
+
+    List<Row> rows = Arrays.asList(
+      new Row("first", "joltie@cdap and root@cdap").add("second", "banana").add("third", "banana")
+    );
+
+    rows = TestingRig.execute(directives, rows);
+
+    Assert.assertEquals(1, rows.size());
+    Assert.assertEquals("cdap at joltie and root@cdap", rows.get(0).getValue("first"));
+    Assert.assertEquals("b-n-n-", rows.get(0).getValue("second"));
+    Assert.assertEquals("ban-na", rows.get(0).getValue("third"));
+  }
+
+  @Test
+  public void testSameAsUnix4j() {
+    String[] scripts = new String[] {
+      "s/a/b/", "s/a/b/g", "s/A/b/I", "s/A/b/gI", "s/A/b/Ig", "s/a/b/i", "s/a/b/2", "s/a/b/2g", "s/a/b/g2",
+      "s/a/b/0", "s/a/b/5", " s/a/b/g ", "s/a/b/g x", "s,a,b,g", "s#a/b#c#", "s/a\\/b/c/", "s/\\//|/g",
+      "s/(a)(n)/$2$1/g", "s/(a)/$2/", "s/a/\\$/g", "s/a/b", "s/a/b/gp", "s/[/b/", "s\\a\\b\\", "y/abc/xyz/",
+      "s/^/>/", "s/$/</", "s/.*//", "s/x*/-/g", "s/\"//g", "s/\\s+/ /g", "s/a\\\\/b/"
+    };
+    String[] values = new String[] {
+      "", "banana", "BANANA", "a/b/a", "a\\b", "x|y", "\"quoted\"  value", "line\nbreak a", "naan"
+    };
+    for (String script : scripts) {
+      SedSubstitution substitution = SedSubstitution.compile(script);
+      for (String value : values) {
+        String expected = value;
+        try {
+          Unix4jCommandBuilder builder = Unix4j.echo(value).sed(script);
+          if (builder.toExitValue() == 0) {
+            expected = builder.toStringResult();
+          }
+        } catch (Exception e) {
+          // Left unchanged, as the directive does.
+        }
+        if (substitution != null) {
+          String actual;
+          try {
+            actual = substitution.apply(value);
+          } catch (Exception e) {
+            actual = value;
+          }
+          Assert.assertEquals(script + " on " + value, expected, actual);
+        }
+      }
+    }
+    Assert.assertNotNull(SedSubstitution.compile("s/(a)(n)/$2$1/2gI"));
+    Assert.assertNull(SedSubstitution.compile("s/a/b/gp"));
+  }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.xml;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.json.XML;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Benchmarks converting a CCDA like document to JSON as {@link XmlToJson} does, comparing the {@link XmlJsonReader}
+ * with the org.json conversion it replaces, and with reading only a few paths of the document.
+ *
+ * <p>Run with the {@link #main(String[])} method from the test classpath.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlJsonReaderBenchmark {
+
+  @Param({"10", "1000"})
+  private int entries;
+
+  private String document;
+  private Gson gson;
+  private XmlJsonReader reader;
+  private XmlJsonReader pathsReader;
+
+  @Setup
+  public void setup() {
+    StringBuilder builder = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+      .append("<ClinicalDocument xmlns=\"urn:hl7-org:v3\"><recordTarget><patientRole>")
+      .append("<telecom use=\"HP\" value=\"tel:555-1234\"/><patient><name><given>Jane</given>")
+      .append("<family>Doe</family></name><birthTime value=\"19700101\"/></patient></patientRole></recordTarget>")
+      .append("<component><structuredBody>");
+    for (int i = 0; i < entries; i++) {
+      builder.append("<entry typeCode=\"DRIV\"><observation classCode=\"OBS\" moodCode=\"EVN\">")
+        .append("<code code=\"").append(8000 + i).append("\" codeSystem=\"2.16.840.1.113883.6.1\"/>")
+        .append("<text>Observation ").append(i).append(" &amp; notes</text>")
+        .append("<effectiveTime value=\"2020010").append(i % 10).append("\"/>")
+        .append("<value unit=\"mg/dL\" value=\"").append(i * 1.5).append("\"/></observation></entry>");
+    }
+    document = builder.append("</structuredBody></component></ClinicalDocument>").toString();
+    gson = new Gson();
+    reader = new XmlJsonReader(false, null);
+    pathsReader = new XmlJsonReader(false, XmlPaths.compile(
+      "/ClinicalDocument/recordTarget/patientRole/patient/name | //telecom[@use='HP']/@value"));
+  }
+
+  @Benchmark
+  public JsonObject orgJson() {
+    return gson.fromJson(XML.toJSONObject(document, false).toString(), JsonElement.class).getAsJsonObject();
+  }
+
+  @Benchmark
+  public JsonObject reader() throws XMLStreamException {
+    return reader.read(document);
+  }
+
+  @Benchmark
+  public JsonObject paths() throws XMLStreamException {
+    return pathsReader.read(document);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(XmlJsonReaderBenchmark.class.getSimpleName()).build()).run();
+  }
+}
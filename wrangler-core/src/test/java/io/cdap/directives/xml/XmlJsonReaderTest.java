@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.xml;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import org.json.XML;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Tests {@link XmlJsonReader}
+ */
+public class XmlJsonReaderTest {
+  private static final String[] DOCUMENTS = {
+    "<a/>",
+    "<a></a>",
+    "<a>  </a>",
+    "<?xml version=\"1.0\" encoding=\"UTF-8\"?><a>text</a>",
+    "<!DOCTYPE a><!-- comment --><a><?pi data?><b>1</b></a>",
+    "<a x=\"1\" y=\"true\" z=\"\"><b>1.0</b><b>-0</b><b>007</b><b>1e3</b><b>2147483648</b><b>null</b></a>",
+    "<a><b>x</b><c>y</c><b>z</b><d x='1'/><d>t</d><d><e/></d></a>",
+    "<a>  one &amp; &lt;two&gt; &#65;&#x42;  <b/> three <!-- split --> four </a>",
+    "<a> text <![CDATA[ <raw> 1 ]]> more <![CDATA[]]></a>",
+    "<a><![CDATA[42]]></a>",
+    "<a b=\"1\">text</a>",
+    "<a b='1'><b>2</b>text</a>",
+    "<ns:a xmlns:ns=\"urn:ns\" xmlns=\"urn:default\" ns:id=\"7\"><ns:b>v</ns:b></ns:a>",
+    "<a>x<!-- c -->y</a>",
+    "<a><b>x<!-- c -->y</b><b>z</b></a>",
+    "<a content=\"1\"><b/></a>",
+    "<a><b>303246306303E8</b><c>  padded  </c><d>TRUE</d><e>1.50</e></a>",
+    "<a>été 中文</a>",
+  };
+
+  @Test
+  public void testSameAsOrgJson() throws Exception {
+    Gson gson = new Gson();
+    for (boolean keepStrings : new boolean[] { false, true }) {
+      XmlJsonReader reader = new XmlJsonReader(keepStrings, null);
+      for (String document : DOCUMENTS) {
+        String expected = gson.fromJson(XML.toJSONObject(document, keepStrings).toString(), JsonElement.class)
+          .toString();
+        Assert.assertEquals(document, expected, reader.read(document).toString());
+        Assert.assertEquals(document, expected, reader.read(document.getBytes(StandardCharsets.UTF_8)).toString());
+      }
+    }
+  }
+
+  @Test
+  public void testDeclaredEncoding() throws Exception {
+    String document = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><a>été</a>";
+    Assert.assertEquals("{\"a\":\"été\"}",
+                        new XmlJsonReader(false, null).read(document.getBytes(StandardCharsets.ISO_8859_1)).toString());
+  }
+
+  @Test
+  public void testRejectsDocumentsNotWellFormed() {
+    XmlJsonReader reader = new XmlJsonReader(false, null);
+    for (String document : new String[] { "<a>", "<a></b>", "<a/><b/>", "<a>&nbsp;</a>", "text",
+      "<!DOCTYPE a [<!ENTITY e \"x\">]><a>&e;</a>" }) {
+      try {
+        reader.read(document);
+        Assert.fail(document);
+      } catch (XMLStreamException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testPaths() throws Exception {
+    String document = "<doc id=\"1\"><head><title>T</title><skip><title>S</title></skip></head>"
+      + "<entry code=\"a\"><value>1</value><note>n</note></entry>"
+      + "<entry code=\"b\"><value>2</value></entry>"
+      + "<group><entry code=\"a\"><value>3</value></entry></group></doc>";
+
+    Assert.assertEquals("{\"doc\":{\"head\":{\"title\":\"T\"}}}", read(document, "/doc/head/title"));
+    Assert.assertEquals("{\"doc\":{\"head\":{\"skip\":{\"title\":\"S\"},\"title\":\"T\"}}}",
+                        read(document, "//title"));
+    Assert.assertEquals("{\"doc\":{\"entry\":[{\"code\":\"a\"},{\"code\":\"b\"}]}}", read(document, "/doc/entry/@code"));
+    Assert.assertEquals("{\"doc\":{\"entry\":{\"value\":1},\"group\":{\"entry\":{\"value\":3}}}}",
+                        read(document, "//entry[@code='a']/value"));
+    Assert.assertEquals("{\"doc\":{\"entry\":{\"code\":\"b\",\"value\":2}}}", read(document, "/doc/*[@code=\"b\"]"));
+    Assert.assertEquals("{\"doc\":{\"head\":{\"title\":\"T\"},\"id\":1}}", read(document, "/doc/@id | /doc/head/title"));
+    Assert.assertEquals("{\"doc\":{\"entry\":{\"note\":\"n\"}}}", read(document, "//note | //note/@missing"));
+    Assert.assertEquals("{}", read(document, "/other"));
+    Assert.assertEquals(new XmlJsonReader(false, null).read(document).toString(), read(document, "/doc"));
+  }
+
+  @Test
+  public void testInvalidPaths() {
+    for (String paths : new String[] { "", "a/b", "/", "/a/", "/@a", "/a/@b/c", "/a[1]", "/a[@b=c]", "/a[@b='c'",
+      "/a | ", "/a b" }) {
+      try {
+        XmlPaths.compile(paths);
+        Assert.fail(paths);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+
+  private static String read(String document, String paths) throws XMLStreamException {
+    return new XmlJsonReader(false, XmlPaths.compile(paths)).read(document).toString();
+  }
+}
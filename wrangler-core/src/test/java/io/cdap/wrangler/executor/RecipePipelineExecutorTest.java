@@ -18,13 +18,25 @@ package io.cdap.wrangler.executor;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.wrangler.TestingPipelineContext;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.BatchDirective;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.ErrorRecord;
+import io.cdap.wrangler.api.ErrorRowException;
+import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.RecipePipeline;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowErrors;
+import io.cdap.wrangler.api.parser.UsageDefinition;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Tests {@link RecipePipelineExecutor}.
@@ -96,4 +108,154 @@ public class RecipePipelineExecutorTest {
     Assert.assertEquals(1481666448L, record.<Long>get("timestamp").longValue());
     Assert.assertEquals(186.66f, record.get("weight"), 0.0001f);
   }
+
+  @Test
+  public void testBatchExecutionMatchesRowExecution() throws Exception {
+    String[] commands = new String[] {
+      "parse-as-csv __col ,",
+      "drop __col",
+      "set columns a,b,c",
+      "send-to-error exp:{ a == 'bad' }",
+      "send-to-error-and-continue exp:{ b == 'skip' }",
+      "uppercase :c"
+    };
+
+    List<Row> rows = new ArrayList<>();
+    List<Row> copies = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      String a = i % 4 == 1 ? "bad" : "a" + i;
+      String b = i % 5 == 3 ? "skip" : "b" + i;
+      rows.add(new Row("__col", a + "," + b + ",c" + i));
+      copies.add(new Row("__col", a + "," + b + ",c" + i));
+    }
+
+    RecipePipelineExecutor single = new RecipePipelineExecutor(TestingRig.parse(commands),
+                                                               new TestingPipelineContext());
+    RecipePipelineExecutor batched = new RecipePipelineExecutor(TestingRig.parse(commands),
+                                                                new TestingPipelineContext(), 4);
+
+    List<Row> expected = single.execute(rows);
+    List<Row> actual = batched.execute(copies);
+    Assert.assertEquals(5, expected.size());
+    Assert.assertEquals(expected, actual);
+    Assert.assertEquals("C0", actual.get(0).getValue("c"));
+
+    List<ErrorRecord> expectedErrors = single.errors();
+    List<ErrorRecord> actualErrors = batched.errors();
+    Assert.assertEquals(5, actualErrors.size());
+    for (int i = 0; i < expectedErrors.size(); i++) {
+      Assert.assertEquals(expectedErrors.get(i).getMessage(), actualErrors.get(i).getMessage());
+      Assert.assertEquals(expectedErrors.get(i).getCode(), actualErrors.get(i).getCode());
+    }
+  }
+
+  @Test
+  public void testBatchExecutionMatchesRowExecutionWithTransientVariables() throws Exception {
+    String[] commands = new String[] {
+      "parse-as-csv __col ,",
+      "drop __col",
+      "set columns a,b",
+      "set-variable last a",
+      "set-column :seen exp:{ last }",
+      "increment-variable count 1 exp:{ true }",
+      "set-column :count exp:{ count }",
+      "send-to-error-and-continue exp:{ b == 'skip' }",
+      "set-column :checks exp:{ dq_total }"
+    };
+
+    List<Row> rows = new ArrayList<>();
+    List<Row> copies = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      String b = i % 3 == 2 ? "skip" : "b" + i;
+      rows.add(new Row("__col", "a" + i + "," + b));
+      copies.add(new Row("__col", "a" + i + "," + b));
+    }
+
+    RecipePipelineExecutor single = new RecipePipelineExecutor(TestingRig.parse(commands),
+                                                               new TestingPipelineContext());
+    RecipePipelineExecutor batched = new RecipePipelineExecutor(TestingRig.parse(commands),
+                                                                new TestingPipelineContext(), 4);
+
+    List<Row> expected = single.execute(rows);
+    List<Row> actual = batched.execute(copies);
+    Assert.assertEquals(7, expected.size());
+    Assert.assertEquals(expected, actual);
+    Assert.assertEquals(3, batched.errors().size());
+    // Each row sees the variables as set by the directives run on it, and on the rows before it.
+    Row row = actual.get(2);
+    Assert.assertEquals("a3", row.getValue("seen"));
+    Assert.assertEquals(4L, ((Number) row.getValue("count")).longValue());
+    Assert.assertEquals(1L, ((Number) row.getValue("checks")).longValue());
+  }
+
+  @Test
+  public void testBatchExecutionIsolatesRowErrorsWithoutReplay() throws Exception {
+    EveryThirdRowFails everyThirdRowFails = new EveryThirdRowFails();
+    List<Directive> directives = new ArrayList<>();
+    directives.add(everyThirdRowFails);
+    directives.addAll(TestingRig.parse(new String[] { "send-to-error exp:{ a == 4 }" }).parse());
+
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      rows.add(new Row("a", i));
+    }
+    RecipePipelineExecutor executor = new RecipePipelineExecutor(() -> directives, new TestingPipelineContext(), 4);
+    List<Row> results = executor.execute(rows);
+
+    // Every row is executed once, whether or not another row of its chunk errors out.
+    Assert.assertEquals(10, everyThirdRowFails.executed);
+    List<Object> values = new ArrayList<>();
+    for (Row row : results) {
+      values.add(row.getValue("a"));
+    }
+    Assert.assertEquals(Arrays.asList(1, 2, 5, 7, 8), values);
+    List<Object> errors = new ArrayList<>();
+    for (ErrorRecord error : executor.errors()) {
+      errors.add(error.getRow().getValue("a"));
+    }
+    Assert.assertEquals(Arrays.asList(0, 3, 4, 6, 9), errors);
+    Assert.assertEquals("third", executor.errors().get(0).getMessage());
+  }
+
+  /**
+   * Reports an error for every row which value is a multiple of three.
+   */
+  private static final class EveryThirdRowFails implements BatchDirective {
+    private int executed;
+
+    @Override
+    public UsageDefinition define() {
+      return UsageDefinition.builder("every-third-row-fails").build();
+    }
+
+    @Override
+    public void initialize(Arguments args) {
+    }
+
+    @Override
+    public List<Row> execute(List<Row> rows, ExecutorContext context) throws ErrorRowException {
+      RowErrors errors = new RowErrors();
+      execute(rows, context, errors);
+      for (int i = 0; i < rows.size(); i++) {
+        if (errors.contains(i)) {
+          throw (ErrorRowException) errors.get(i);
+        }
+      }
+      return rows;
+    }
+
+    @Override
+    public void execute(List<Row> rows, ExecutorContext context, RowErrors errors) {
+      for (int i = 0; i < rows.size(); i++) {
+        executed++;
+        if ((Integer) rows.get(i).getValue("a") % 3 == 0) {
+          errors.add(i, new ErrorRowException("third", 1));
+        }
+      }
+    }
+
+    @Override
+    public void destroy() {
+    }
+  }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import io.cdap.wrangler.api.Row;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlScript;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link ELCompiler}
+ */
+public class ELCompilerTest {
+  private static final Map<String, Object> FUNCTIONS = new EL.DefaultFunctions().functions();
+
+  private static final List<String> SUPPORTED = Arrays.asList(
+    "a", "a + b", "a - b * d", "(a - b) * d", "a / b", "a % b", "-a", "- 1", "-2147483648 + a", "a+-1", "a - -1",
+    "a * -1", "1.5 * a", "10L + a", "010 + a", "a + 'x'", "\"s\\\"q\" + a", "a == b", "a != b", "a < b",
+    "a <= b", "a > b", "a >= b", "a<-1", "a == null", "null == a", "!c", "!(a > b)", "c && a > b",
+    "c || a > b", "c ? a : b", "c ? a : math:abs(b)", "c ? math:abs(a) : b", "c ? a : b ? 1 : 2",
+    "math:max(a, b)", "math:abs(a) + math:abs(b)", "toDouble(s) + a", "concat(s, 'x')", "string:upperCase(s)",
+    "s == 'abc'", "s + a + b", "a + b + s", "true", "false && c", "null", "coalesce(n, s)", "IsNull(n)");
+
+  private static final List<String> UNSUPPORTED = Arrays.asList(
+    "a.b", "a[0]", "s.length()", "a =~ b", "a ?: b", "x = a", "a; b", "a & b", "a | b", "a << 1", "~a",
+    "a eq b", "a and b", "not c", "empty(s)", "size(s)", "[1, 2]", "{'a' : 1}", "a += 1", "0x10 + a",
+    "1e5", "a // comment", "f:g(a)");
+
+  private static final List<Object[]> VALUES = Arrays.asList(
+    new Object[] {1, 2, 3, true, "abc", null},
+    new Object[] {7, -2, 0, false, "7", null},
+    new Object[] {2.5d, 4L, 1.5f, "true", "", null},
+    new Object[] {null, 2, 3, null, null, null},
+    new Object[] {"5", "x", 2, 0, "abc", null},
+    new Object[] {Integer.MAX_VALUE, 1, -1, 1, "1.5", "n"}
+  );
+
+  private static ELContext context(Object[] values) {
+    return new ELContext()
+      .add("a", values[0]).add("b", values[1]).add("d", values[2]).add("c", values[3])
+      .add("s", values[4]).add("n", values[5]);
+  }
+
+  @Test
+  public void testCompiledExpressionsMatchInterpreter() throws Exception {
+    JexlEngine engine = EL.engine(FUNCTIONS);
+    for (String expression : SUPPORTED) {
+      JexlScript script = engine.createScript(expression);
+      ELCompiler.Node node = ELCompiler.compile(engine, FUNCTIONS, expression);
+      Assert.assertNotNull(expression, node);
+
+      for (Object[] values : VALUES) {
+        String message = expression + " with " + Arrays.toString(values);
+        Object interpreted;
+        try {
+          interpreted = script.execute(context(values));
+        } catch (RuntimeException e) {
+          interpreted = e;
+        }
+        Object compiled;
+        try {
+          compiled = node.evaluate(context(values));
+        } catch (Exception e) {
+          // Errors are reported as they are raised, so they have to be raised in the same cases.
+          Assert.assertTrue(message, interpreted instanceof RuntimeException);
+          continue;
+        }
+        Assert.assertFalse(message, interpreted instanceof RuntimeException);
+        Assert.assertEquals(message, interpreted, compiled);
+        Assert.assertEquals(message, interpreted == null ? null : interpreted.getClass(),
+                            compiled == null ? null : compiled.getClass());
+      }
+    }
+  }
+
+  @Test
+  public void testUnsupportedExpressionsAreNotCompiled() {
+    JexlEngine engine = EL.engine(FUNCTIONS);
+    for (String expression : UNSUPPORTED) {
+      Assert.assertNull(expression, ELCompiler.compile(engine, FUNCTIONS, expression));
+    }
+  }
+
+  @Test
+  public void testCompiledExpressionsThroughEL() throws Exception {
+    EL.DefaultFunctions functions = new EL.DefaultFunctions();
+    EL el = EL.compile(functions, "'compiled ' + math:max(a, b)", true);
+    Assert.assertTrue(el.isCompiled());
+    ELContext ctx = new ELContext(null, el, new Row("a", 1).add("b", 2));
+    Assert.assertEquals("compiled 2", el.execute(ctx).getObject());
+
+    // The same expression is cached separately when it is only interpreted.
+    Assert.assertSame(el, EL.compile(functions, "'compiled ' + math:max(a, b)", true));
+    Assert.assertFalse(EL.compile(functions, "'compiled ' + math:max(a, b)").isCompiled());
+
+    // Failures are reported without interpreting the expression again.
+    EL division = EL.compile(functions, "a / b + 0", true);
+    Assert.assertTrue(division.isCompiled());
+    try {
+      division.execute(new ELContext(null, division, new Row("a", 1).add("b", 0)));
+      Assert.fail();
+    } catch (ELException e) {
+      Assert.assertTrue(e.getMessage().startsWith("Error encountered while executing 'a / b + 0'"));
+      Assert.assertTrue(e.getCause() instanceof ArithmeticException);
+    }
+
+    Assert.assertFalse(EL.compile(functions, "this.width() + 1", true).isCompiled());
+  }
+}
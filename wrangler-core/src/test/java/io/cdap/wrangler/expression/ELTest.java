@@ -16,11 +16,18 @@
 
 package io.cdap.wrangler.expression;
 
+import io.cdap.wrangler.TestingPipelineContext;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.TransientVariableScope;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -194,4 +201,96 @@ public class ELTest {
     execute = el.execute(new ELContext().add("a", d1).add("b", d2));
     Assert.assertEquals(d1, execute.getObject());
   }
+
+  @Test
+  public void testRowContextResolvesVariablesLazily() throws Exception {
+    EL el = EL.compile("a + b + c + ctx.name + this.width()");
+    ExecutorContext context = new TestingPipelineContext();
+    context.getTransientStore().set(TransientVariableScope.GLOBAL, "b", 10);
+
+    ELContext ctx = new ELContext(context, el, new Row("a", 1).add("b", 2).add("c", 3));
+    Assert.assertEquals("14testing3", el.execute(ctx).getObject());
+
+    // Missing columns are resolved as null, and the transient store is read at evaluation time.
+    context.getTransientStore().set(TransientVariableScope.GLOBAL, "b", 20);
+    Assert.assertTrue(ctx.reset(context, new Row("a", 5).add("c", 1)).has("a"));
+    Assert.assertEquals("26testing2", el.execute(ctx).getObject());
+  }
+
+  @Test
+  public void testRowContextDropsVariablesSetForPreviousRow() throws Exception {
+    EL el = EL.compile("x = a * 2; x + a");
+    ELContext ctx = new ELContext(null, el, new Row("a", 1));
+    Assert.assertEquals(3, el.execute(ctx).getObject());
+    Assert.assertEquals(2, ctx.get("x"));
+
+    ctx.reset(null, new Row("a", 2));
+    Assert.assertNull(ctx.get("x"));
+    Assert.assertFalse(ctx.has("ctx"));
+    Assert.assertEquals(6, el.execute(ctx).getObject());
+  }
+
+  @Test
+  public void testCompiledExpressionsAreShared() throws Exception {
+    EL el = EL.compile("a + b");
+    Assert.assertSame(el, EL.compile("a + b"));
+    Assert.assertSame(el, EL.compile(new EL.DefaultFunctions(), "a + b"));
+    Assert.assertNotSame(el, EL.compile("a + b + 1"));
+
+    ELRegistration registration = () -> Collections.singletonMap("custom", Math.class);
+    EL custom = EL.compile(registration, "custom:max(a, b)");
+    Assert.assertNotSame(el, EL.compile(registration, "a + b"));
+    Assert.assertEquals(2, custom.execute(new ELContext().add("a", 1).add("b", 2)).getObject());
+    Assert.assertSame(custom, EL.compile(registration, "custom:max(a, b)"));
+  }
+
+  @Test
+  public void testResetDropsEnginesOfOtherClassLoaders() throws Exception {
+    EL el = EL.compile("a + b");
+    ELRegistration registration = () -> Collections.singletonMap("custom", Math.class);
+    EL custom = EL.compile(registration, "custom:max(a, b)");
+
+    URL classes = Functions.class.getProtectionDomain().getCodeSource().getLocation();
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {classes}, null)) {
+      Class<?> functions = loader.loadClass(Functions.class.getName());
+      Assert.assertNotSame(Functions.class, functions);
+      ELRegistration isolated = () -> Collections.singletonMap("isolated", functions);
+      EL other = EL.compile(isolated, "isolated:hello(a)");
+      Assert.assertEquals("hello 1", other.execute(new ELContext().add("a", 1)).getObject());
+
+      EL.reset();
+      Assert.assertSame(el, EL.compile("a + b"));
+      Assert.assertSame(custom, EL.compile(registration, "custom:max(a, b)"));
+      Assert.assertNotSame(other, EL.compile(isolated, "isolated:hello(a)"));
+    }
+  }
+
+  @Test
+  public void testExpressionsCannotReachClasses() throws Exception {
+    ELContext context = new ELContext().add("a", "text").add("m", Collections.singletonMap("class", 1));
+    for (String expression : new String[] {"a.getClass()", "a.class", "a.getClass().forName('java.lang.Runtime')",
+      "math:forName('java.lang.Runtime')", "math:getClassLoader()", "math.class", "new('java.lang.StringBuilder')",
+      "new('java.lang.ProcessBuilder', 'ls')"}) {
+      try {
+        EL.compile(expression).execute(context);
+        Assert.fail(expression);
+      } catch (ELException e) {
+        // expected
+      }
+    }
+
+    Assert.assertEquals(4, EL.compile("a.length()").execute(context).getObject());
+    Assert.assertEquals("TEXT", EL.compile("string:upperCase(a)").execute(context).getObject());
+    Assert.assertEquals(2, EL.compile("math:max(1, 2)").execute(context).getObject());
+    Assert.assertEquals(1, EL.compile("m.class").execute(context).getObject());
+  }
+
+  /**
+   * Functions loaded by another classloader in {@link #testResetDropsEnginesOfOtherClassLoaders()}.
+   */
+  public static final class Functions {
+    public static String hello(Object value) {
+      return "hello " + value;
+    }
+  }
 }
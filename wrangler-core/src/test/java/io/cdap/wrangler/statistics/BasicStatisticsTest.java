@@ -16,14 +16,20 @@
 
 package io.cdap.wrangler.statistics;
 
+import com.google.common.base.Strings;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Pair;
 import io.cdap.wrangler.api.Row;
 import io.dataapps.chlorine.finder.FinderEngine;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Tests {@link BasicStatistics}
@@ -57,7 +63,7 @@ public class BasicStatisticsTest {
 
     Assert.assertTrue(rows.size() > 1);
 
-    Assert.assertEquals(3, summary.width());
+    Assert.assertEquals(4, summary.width());
     Assert.assertEquals(3.0, summary.getValue("total"));
 
     Row stats = (Row) summary.getValue("stats");
@@ -66,5 +72,55 @@ public class BasicStatisticsTest {
     Assert.assertEquals(7, stats.width());
     Assert.assertEquals(7, types.width());
   }
-}
 
+  @Test
+  public void testTypesAreDetectedOnSampledRows() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      // Only the even rows, which are the sampled ones, hold a phone number.
+      rows.add(new Row("phone", i % 2 == 0 ? "650-897-3839" : "none").add("id", i));
+    }
+
+    Row summary = new BasicStatistics(5, 256).aggregate(rows);
+
+    Assert.assertEquals(10.0, summary.getValue("total"));
+    Row types = (Row) summary.getValue("types");
+    Assert.assertEquals(1, types.width());
+    List<Pair<String, Double>> phoneTypes = (List<Pair<String, Double>>) types.getValue("phone");
+    Assert.assertFalse(phoneTypes.isEmpty());
+    for (Pair<String, Double> type : phoneTypes) {
+      Assert.assertEquals(1.0, type.getSecond(), 0.0001);
+    }
+    Row stats = (Row) summary.getValue("stats");
+    List<Pair<String, Double>> phoneStats = (List<Pair<String, Double>>) stats.getValue("phone");
+    Assert.assertEquals(1, phoneStats.size());
+    Assert.assertEquals("non-null", phoneStats.get(0).getFirst());
+    Assert.assertEquals(1.0, phoneStats.get(0).getSecond(), 0.0001);
+
+    // Only the sampled rows are profiled too.
+    Profile profile = (Profile) summary.getValue("profile");
+    Assert.assertEquals(5, profile.getRowCount());
+    Assert.assertEquals(1, profile.getColumn("phone").getDistinctCount());
+    Assert.assertEquals(8, profile.getColumn("id").getMax(), 0);
+  }
+
+  @Test
+  public void testTypesAreDetectedOnValuePrefix() throws Exception {
+    String value = Strings.repeat("x", 100) + " 650-897-3839";
+    List<Row> rows = Collections.singletonList(new Row("body", value));
+
+    Assert.assertFalse(detectedTypes(new BasicStatistics(10, 50), rows).contains("US Phone#Formatted"));
+    Assert.assertTrue(detectedTypes(new BasicStatistics(10, 200), rows).contains("US Phone#Formatted"));
+  }
+
+  private static Set<String> detectedTypes(Statistics statistics, List<Row> rows) {
+    Row types = (Row) statistics.aggregate(rows).getValue("types");
+    Set<String> detected = new HashSet<>();
+    for (Pair<String, Object> column : types.getFields()) {
+      for (Pair<String, Double> type : (List<Pair<String, Double>>) column.getSecond()) {
+        detected.add(type.getFirst());
+      }
+    }
+    return detected;
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link HyperLogLog}
+ */
+public class HyperLogLogTest {
+
+  @Test
+  public void testEstimate() {
+    for (int cardinality : new int[] {0, 1, 100, 1000, 100000}) {
+      HyperLogLog sketch = new HyperLogLog();
+      for (int i = 0; i < cardinality; i++) {
+        // Every value is added twice.
+        sketch.add("value " + i);
+        sketch.add("value " + i);
+      }
+      Assert.assertEquals(cardinality, sketch.estimate(), cardinality * 0.05 + 1);
+    }
+  }
+
+  @Test
+  public void testMerge() {
+    HyperLogLog first = new HyperLogLog();
+    HyperLogLog second = new HyperLogLog();
+    HyperLogLog all = new HyperLogLog();
+    for (int i = 0; i < 30000; i++) {
+      // Half of the values are in both sketches.
+      (i % 2 == 0 ? first : second).add(i);
+      first.add(-i);
+      all.add(i);
+      all.add(-i);
+    }
+    first.merge(second);
+    Assert.assertEquals(all.estimate(), first.estimate());
+    Assert.assertEquals(60000, first.estimate(), 3000);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMergeDifferentPrecisions() {
+    new HyperLogLog(10).merge(new HyperLogLog(12));
+  }
+}
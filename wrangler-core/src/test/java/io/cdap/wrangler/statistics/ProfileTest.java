@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics;
+
+import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Tests {@link Profile}
+ */
+public class ProfileTest {
+
+  private static Row row(int i) {
+    return new Row("id", i).add("state", i % 10 == 0 ? "CA" : (i % 5 == 0 ? "NY" : "state " + i))
+      .add("name", i % 4 == 0 ? null : (i % 4 == 1 ? "" : "name " + i));
+  }
+
+  private static Profile copy(Profile profile) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+      oos.writeObject(profile);
+    }
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return (Profile) ois.readObject();
+    }
+  }
+
+  @Test
+  public void testProfile() {
+    Profile profile = new Profile();
+    for (int i = 0; i < 10000; i++) {
+      profile.add(row(i));
+    }
+    profile.add(new Row("extra", 1.5d));
+
+    Assert.assertEquals(10001, profile.getRowCount());
+    Assert.assertEquals("[extra, id, name, state]", profile.getColumns().toString());
+
+    ColumnProfile id = profile.getColumn("id");
+    Assert.assertEquals(10000, id.getCount());
+    Assert.assertEquals(0, id.getNullCount());
+    Assert.assertEquals(10000, id.getNumericCount());
+    Assert.assertEquals(0, id.getMin(), 0);
+    Assert.assertEquals(9999, id.getMax(), 0);
+    Assert.assertEquals(4999.5, id.getMean(), 0.0001);
+    Assert.assertEquals(5000, id.getQuantile(0.5), 200);
+    Assert.assertEquals(10000, id.getDistinctCount(), 500);
+
+    ColumnProfile name = profile.getColumn("name");
+    Assert.assertEquals(2500, name.getNullCount());
+    Assert.assertEquals(2500, name.getEmptyCount());
+    Assert.assertEquals(0, name.getNumericCount());
+    Assert.assertTrue(Double.isNaN(name.getMean()));
+
+    // The frequent states are found among the distinct ones.
+    List<Pair<String, Long>> top = profile.getColumn("state").getTopValues(2);
+    Assert.assertEquals("CA", top.get(0).getFirst());
+    Assert.assertEquals("NY", top.get(1).getFirst());
+    Assert.assertTrue(top.get(0).getSecond() <= 1000 && top.get(0).getSecond() >= 700);
+
+    Assert.assertNull(profile.getColumn("missing"));
+  }
+
+  @Test
+  public void testNumericStrings() {
+    Profile profile = new Profile();
+    for (String value : new String[] {"1", "-2.5", "+3e2", ".5", "7.", "NaN", "Infinity", "1d", "0x10", "1e", "-",
+                                      "", "12 ", "a1"}) {
+      profile.add(new Row("value", value));
+    }
+
+    ColumnProfile column = profile.getColumn("value");
+    Assert.assertEquals(14, column.getCount());
+    Assert.assertEquals(5, column.getNumericCount());
+    Assert.assertEquals(-2.5, column.getMin(), 0);
+    Assert.assertEquals(300, column.getMax(), 0);
+    Assert.assertEquals(61.2, column.getMean(), 0.0001);
+  }
+
+  @Test
+  public void testColumnsAreNotChangedByLaterRows() {
+    Profile profile = new Profile();
+    profile.add(new Row("a", 1));
+    Set<String> columns = profile.getColumns();
+    profile.add(new Row("b", 2));
+
+    Assert.assertEquals(Collections.singleton("a"), columns);
+    Assert.assertEquals(new TreeSet<>(Arrays.asList("a", "b")), profile.getColumns());
+    try {
+      columns.add("c");
+      Assert.fail();
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testMergePartitions() throws Exception {
+    Profile all = new Profile();
+    Profile merged = new Profile();
+    for (int partition = 0; partition < 4; partition++) {
+      Profile profile = new Profile();
+      for (int i = partition * 2500; i < (partition + 1) * 2500; i++) {
+        profile.add(row(i));
+        all.add(row(i));
+      }
+      // Profiles are serialized from where the partitions are processed.
+      merged.merge(copy(profile));
+    }
+
+    Assert.assertEquals(all.getRowCount(), merged.getRowCount());
+    Assert.assertEquals(all.getColumns(), merged.getColumns());
+    for (String column : all.getColumns()) {
+      ColumnProfile expected = all.getColumn(column);
+      ColumnProfile actual = merged.getColumn(column);
+      Assert.assertEquals(expected.getCount(), actual.getCount());
+      Assert.assertEquals(expected.getNullCount(), actual.getNullCount());
+      Assert.assertEquals(expected.getEmptyCount(), actual.getEmptyCount());
+      Assert.assertEquals(expected.getDistinctCount(), actual.getDistinctCount());
+      Assert.assertEquals(expected.getMin(), actual.getMin(), 0);
+      Assert.assertEquals(expected.getMax(), actual.getMax(), 0);
+      Assert.assertEquals(expected.getMean(), actual.getMean(), 0.0001);
+    }
+    List<Pair<String, Long>> top = merged.getColumn("state").getTopValues(2);
+    Assert.assertEquals("CA", top.get(0).getFirst());
+    Assert.assertEquals("NY", top.get(1).getFirst());
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests {@link QuantileSketch}
+ */
+public class QuantileSketchTest {
+  private static final double[] FRACTIONS = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99};
+
+  @Test
+  public void testQuantiles() {
+    QuantileSketch sketch = new QuantileSketch();
+    Assert.assertTrue(Double.isNaN(sketch.quantile(0.5)));
+
+    List<Double> values = new ArrayList<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      values.add(random.nextGaussian());
+    }
+    values.forEach(sketch::add);
+    assertQuantiles(values, sketch);
+    Assert.assertEquals(100000, sketch.getCount());
+  }
+
+  @Test
+  public void testMerge() {
+    List<Double> values = new ArrayList<>();
+    QuantileSketch merged = new QuantileSketch();
+    for (int partition = 0; partition < 10; partition++) {
+      QuantileSketch sketch = new QuantileSketch();
+      // Partitions hold different ranges of values.
+      for (int i = 0; i < 5000 * (partition + 1); i++) {
+        double value = partition * 1000 + i % 1000;
+        values.add(value);
+        sketch.add(value);
+      }
+      merged.merge(sketch);
+    }
+    assertQuantiles(values, merged);
+    Assert.assertEquals(values.size(), merged.getCount());
+  }
+
+  private static void assertQuantiles(List<Double> values, QuantileSketch sketch) {
+    List<Double> sorted = new ArrayList<>(values);
+    Collections.sort(sorted);
+    Assert.assertEquals(sorted.get(0), sketch.quantile(0), 0);
+    Assert.assertEquals(sorted.get(sorted.size() - 1), sketch.quantile(1), 0);
+    for (double fraction : FRACTIONS) {
+      // The rank of the estimate is within 2% of the requested rank.
+      double estimate = sketch.quantile(fraction);
+      int rank = Collections.binarySearch(sorted, estimate);
+      Assert.assertTrue(String.valueOf(fraction), rank >= 0);
+      Assert.assertEquals(String.valueOf(fraction), fraction, (double) rank / sorted.size(), 0.02);
+    }
+  }
+}
@@ -136,11 +136,12 @@ public class KryoSerializerTest {
     Schema expectedSchema = converter.toSchema("myrecord", expectedRows.get(0));
 
     byte[] serializedRows = new KryoSerializer().fromRemoteDirectiveResponse(
-        new RemoteDirectiveResponse(expectedRows, expectedSchema));
+        new RemoteDirectiveResponse(expectedRows, expectedSchema, RemoteDirectiveResponse.USER_DIRECTIVES));
     RemoteDirectiveResponse response = new KryoSerializer().toRemoteDirectiveResponse(
         serializedRows);
 
     Assert.assertArrayEquals(expectedRows.toArray(), response.getRows().toArray());
     Assert.assertEquals(expectedSchema, response.getOutputSchema());
+    Assert.assertEquals(RemoteDirectiveResponse.USER_DIRECTIVES, response.getTerminationReason());
   }
 }
@@ -102,5 +102,6 @@ public class ObjectSerDeTest {
 
     Assert.assertEquals(expectedResponse.getRows().size(), actualResponse.getRows().size());
     Assert.assertEquals(expectedResponse.getOutputSchema(), actualResponse.getOutputSchema());
+    Assert.assertNull(actualResponse.getTerminationReason());
   }
 }
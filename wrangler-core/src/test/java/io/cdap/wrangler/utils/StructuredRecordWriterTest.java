@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.utils;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+/**
+ * Tests {@link StructuredRecordWriter}
+ */
+public class StructuredRecordWriterTest {
+
+  private static final Schema SCHEMA = Schema.recordOf(
+    "output",
+    Schema.Field.of("name", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+    Schema.Field.of("age", Schema.nullableOf(Schema.of(Schema.Type.INT))),
+    Schema.Field.of("weight", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))),
+    Schema.Field.of("dob", Schema.nullableOf(Schema.of(Schema.LogicalType.DATE)))
+  );
+
+  @Test
+  public void testWriteMatchesDecodedRecord() throws Exception {
+    Row row = new Row("name", "joltie").add("age", "32").add("weight", 56.5).add("dob", LocalDate.of(1990, 1, 2));
+
+    StructuredRecord expected = new RecordConvertor().decodeRecord(row, SCHEMA);
+    StructuredRecord actual = new StructuredRecordWriter(SCHEMA).write(row);
+
+    Assert.assertEquals(expected, actual);
+    Assert.assertEquals(32, (int) actual.<Integer>get("age"));
+    Assert.assertEquals(LocalDate.of(1990, 1, 2), actual.getDate("dob"));
+  }
+
+  @Test
+  public void testWriteOutOfOrderAndMissingColumns() throws Exception {
+    StructuredRecordWriter writer = new StructuredRecordWriter(SCHEMA);
+    StructuredRecord record = writer.write(new Row("WEIGHT", "12.5").add("extra", "x").add("Name", "root"));
+
+    Assert.assertEquals("root", record.get("name"));
+    Assert.assertEquals(12.5d, record.<Double>get("weight"), 0.0001d);
+    Assert.assertNull(record.get("age"));
+    Assert.assertNull(record.get("dob"));
+  }
+
+  @Test
+  public void testWriteProjectsRecord() throws Exception {
+    Schema inputSchema = Schema.recordOf(
+      "input",
+      Schema.Field.of("name", Schema.of(Schema.Type.STRING)),
+      Schema.Field.of("age", Schema.of(Schema.Type.STRING)),
+      Schema.Field.of("other", Schema.of(Schema.Type.STRING))
+    );
+    StructuredRecord input = StructuredRecord.builder(inputSchema)
+      .set("name", "joltie")
+      .set("age", "32")
+      .set("other", "ignored")
+      .build();
+
+    StructuredRecord record = new StructuredRecordWriter(SCHEMA).write(new Row("input", input));
+
+    Assert.assertEquals(SCHEMA, record.getSchema());
+    Assert.assertEquals("joltie", record.get("name"));
+    Assert.assertEquals(32, (int) record.<Integer>get("age"));
+  }
+
+  @Test(expected = RecordConvertorException.class)
+  public void testWriteInvalidValue() throws Exception {
+    new StructuredRecordWriter(SCHEMA).write(new Row("age", "not a number"));
+  }
+}
@@ -25,10 +25,24 @@ import javax.annotation.Nullable;
 public class ColumnStatistics {
   private final Map<String, Float> general;
   private final Map<String, Float> types;
+  private final Map<String, Double> profile;
+  private final Map<String, Long> top;
 
   public ColumnStatistics(@Nullable Map<String, Float> general, @Nullable Map<String, Float> types) {
+    this(general, types, null, null);
+  }
+
+  /**
+   * @param profile estimated count of distinct values, and the minimum, maximum, mean and quantiles of the numbers,
+   *                of the rows sampled for detecting types
+   * @param top estimated counts of the most frequent values of the sampled rows, most frequent first
+   */
+  public ColumnStatistics(@Nullable Map<String, Float> general, @Nullable Map<String, Float> types,
+                          @Nullable Map<String, Double> profile, @Nullable Map<String, Long> top) {
     this.general = general;
     this.types = types;
+    this.profile = profile;
+    this.top = top;
   }
 
   @Nullable
@@ -40,4 +54,14 @@ public class ColumnStatistics {
   public Map<String, Float> getTypes() {
     return types;
   }
+
+  @Nullable
+  public Map<String, Double> getProfile() {
+    return profile;
+  }
+
+  @Nullable
+  public Map<String, Long> getTop() {
+    return top;
+  }
 }
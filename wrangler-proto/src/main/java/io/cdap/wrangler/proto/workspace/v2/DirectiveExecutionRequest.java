@@ -26,16 +26,27 @@ import java.util.List;
 public class DirectiveExecutionRequest {
   private final List<String> directives;
   private final int limit;
+  // Index of the first row to return, to page through the rows produced by the directives.
+  private final int offset;
 
   public DirectiveExecutionRequest(List<String> directives, int limit) {
+    this(directives, limit, 0);
+  }
+
+  public DirectiveExecutionRequest(List<String> directives, int limit, int offset) {
     this.directives = directives;
     this.limit = limit;
+    this.offset = offset;
   }
 
   public int getLimit() {
     return limit;
   }
 
+  public int getOffset() {
+    return offset;
+  }
+
   public List<String> getDirectives() {
     return directives == null ? Collections.emptyList() : directives;
   }
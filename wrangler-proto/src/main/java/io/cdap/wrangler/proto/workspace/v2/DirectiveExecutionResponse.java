@@ -22,6 +22,7 @@ import io.cdap.wrangler.proto.workspace.WorkspaceValidationResult;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.Nullable;
 
 /**
  * V2 version of execution response
@@ -30,13 +31,24 @@ public class DirectiveExecutionResponse extends ServiceResponse<Map<String, Obje
   private final Set<String> headers;
   private final Map<String, String> types;
   private final WorkspaceValidationResult summary;
+  private final Integer offset;
+  // Offset of the next page of rows, null if there are no more rows.
+  private final Integer nextOffset;
 
   public DirectiveExecutionResponse(List<Map<String, Object>> values, Set<String> headers, Map<String, String> types,
                                     WorkspaceValidationResult summary) {
+    this(values, headers, types, summary, null, null);
+  }
+
+  public DirectiveExecutionResponse(List<Map<String, Object>> values, Set<String> headers, Map<String, String> types,
+                                    WorkspaceValidationResult summary, @Nullable Integer offset,
+                                    @Nullable Integer nextOffset) {
     super(values);
     this.headers = headers;
     this.types = types;
     this.summary = summary;
+    this.offset = offset;
+    this.nextOffset = nextOffset;
   }
 
   public Set<String> getHeaders() {
@@ -50,4 +62,14 @@ public class DirectiveExecutionResponse extends ServiceResponse<Map<String, Obje
   public WorkspaceValidationResult getSummary() {
     return summary;
   }
+
+  @Nullable
+  public Integer getOffset() {
+    return offset;
+  }
+
+  @Nullable
+  public Integer getNextOffset() {
+    return nextOffset;
+  }
 }
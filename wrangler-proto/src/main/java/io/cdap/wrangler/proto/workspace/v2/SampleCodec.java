@@ -0,0 +1,403 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.proto.workspace.v2;
+
+import io.cdap.wrangler.api.Row;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes the sample rows of a workspace into a compact, versioned, columnar binary format.
+ *
+ * <p>The encoded bytes start with a magic number and a version, followed by a deflate compressed payload made of
+ * the distinct column names, the distinct column layouts of the rows, the layout of each row and then the values
+ * of each column, one column after the other. Strings are dictionary encoded per column, integral numbers are
+ * variable length encoded and values of types without a dedicated encoding are Java serialized.</p>
+ *
+ * <p>{@link #decode(byte[])} also reads samples that were Java serialized as a {@code List<Row>}, which is how
+ * samples were stored before this format. Versions that predate the format can't read it, nor can a version read a
+ * later version of the format, which it rejects with an {@link IOException}. Samples are Java serialized instead
+ * when {@link #encode(List, boolean)} is asked to, for as long as such versions may read them, as during a rolling
+ * upgrade or before a possible rollback.</p>
+ */
+public final class SampleCodec {
+  private static final byte[] MAGIC = {'W', 'R', 'S', 'C'};
+  private static final byte VERSION = 1;
+
+  // Type tags of the values.
+  private static final int NULL = 0;
+  private static final int STRING = 1;
+  private static final int INTEGER = 2;
+  private static final int LONG = 3;
+  private static final int DOUBLE = 4;
+  private static final int FLOAT = 5;
+  private static final int TRUE = 6;
+  private static final int FALSE = 7;
+  private static final int BYTES = 8;
+  private static final int SERIALIZED = 9;
+
+  private SampleCodec() {
+    // no-op
+  }
+
+  /**
+   * Encodes rows in the columnar format.
+   *
+   * @param rows to be encoded.
+   * @return encoded rows.
+   */
+  public static byte[] encode(List<Row> rows) throws IOException {
+    return encode(rows, true);
+  }
+
+  /**
+   * Encodes rows.
+   *
+   * @param rows to be encoded.
+   * @param columnar whether the rows are encoded in the columnar format, or Java serialized as a {@code List<Row>}
+   *                 so that they can be read by versions that predate the format.
+   * @return encoded rows.
+   */
+  public static byte[] encode(List<Row> rows, boolean columnar) throws IOException {
+    // Rows with less values than columns, such as rows created with only the column names, can only be
+    // reproduced by Java serialization.
+    if (columnar && rows.stream().allMatch(Row::hasAllValues)) {
+      return encodeColumns(rows);
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+      oos.writeObject(rows);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Returns whether bytes were encoded in the columnar format, of any version.
+   */
+  public static boolean isColumnar(byte[] bytes) {
+    return bytes.length > MAGIC.length && Arrays.equals(MAGIC, Arrays.copyOf(bytes, MAGIC.length));
+  }
+
+  private static byte[] encodeColumns(List<Row> rows) throws IOException {
+    Map<String, Integer> columnIds = new HashMap<>();
+    List<ColumnWriter> columns = new ArrayList<>();
+    Map<List<Integer>, Integer> layoutIds = new HashMap<>();
+    List<List<Integer>> layouts = new ArrayList<>();
+    int[] rowLayouts = new int[rows.size()];
+    ByteArrayOutputStream objectBytes = new ByteArrayOutputStream();
+    ObjectOutputStream objects = null;
+
+    for (int r = 0; r < rows.size(); r++) {
+      Row row = rows.get(r);
+      List<Integer> layout = new ArrayList<>(row.width());
+      for (int i = 0; i < row.width(); i++) {
+        String name = row.getColumn(i);
+        Integer id = columnIds.get(name);
+        if (id == null) {
+          id = columns.size();
+          columnIds.put(name, id);
+          columns.add(new ColumnWriter(name));
+        }
+        layout.add(id);
+
+        Object value = row.getValue(i);
+        if (!columns.get(id).write(value)) {
+          if (objects == null) {
+            objects = new ObjectOutputStream(objectBytes);
+          }
+          objects.writeObject(value);
+        }
+      }
+      Integer layoutId = layoutIds.get(layout);
+      if (layoutId == null) {
+        layoutId = layouts.size();
+        layoutIds.put(layout, layoutId);
+        layouts.add(layout);
+      }
+      rowLayouts[r] = layoutId;
+    }
+    if (objects != null) {
+      objects.close();
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    bytes.write(MAGIC);
+    bytes.write(VERSION);
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+      writeVarInt(out, columns.size());
+      for (ColumnWriter column : columns) {
+        writeString(out, column.name);
+      }
+      writeVarInt(out, layouts.size());
+      for (List<Integer> layout : layouts) {
+        writeVarInt(out, layout.size());
+        for (int id : layout) {
+          writeVarInt(out, id);
+        }
+      }
+      writeVarInt(out, rowLayouts.length);
+      for (int layout : rowLayouts) {
+        writeVarInt(out, layout);
+      }
+      for (ColumnWriter column : columns) {
+        writeVarInt(out, column.bytes.size());
+        column.bytes.writeTo(out);
+      }
+      writeVarInt(out, objectBytes.size());
+      objectBytes.writeTo(out);
+    } finally {
+      deflater.end();
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes rows encoded by {@link #encode(List, boolean)}, or Java serialized as a {@code List<Row>}.
+   *
+   * @param bytes to be decoded.
+   * @return decoded rows.
+   */
+  public static List<Row> decode(byte[] bytes) throws IOException, ClassNotFoundException {
+    if (!isColumnar(bytes)) {
+      try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+        return (List<Row>) ois.readObject();
+      }
+    }
+    if (bytes[MAGIC.length] != VERSION) {
+      throw new IOException(String.format("Unsupported sample format version %d.", bytes[MAGIC.length]));
+    }
+
+    ByteArrayInputStream payload = new ByteArrayInputStream(bytes, MAGIC.length + 1,
+                                                             bytes.length - MAGIC.length - 1);
+    try (DataInputStream in = new DataInputStream(new InflaterInputStream(payload))) {
+      String[] names = new String[readVarInt(in)];
+      for (int i = 0; i < names.length; i++) {
+        names[i] = readString(in);
+      }
+      int[][] layouts = new int[readVarInt(in)][];
+      // Rows of the same layout are copies of the same template, so they share the column names of the template
+      // until one of them changes its columns.
+      Row[] templates = new Row[layouts.length];
+      for (int l = 0; l < layouts.length; l++) {
+        layouts[l] = new int[readVarInt(in)];
+        templates[l] = new Row();
+        for (int i = 0; i < layouts[l].length; i++) {
+          layouts[l][i] = readVarInt(in);
+          templates[l].add(names[layouts[l][i]], null);
+        }
+      }
+      int[] rowLayouts = new int[readVarInt(in)];
+      for (int r = 0; r < rowLayouts.length; r++) {
+        rowLayouts[r] = readVarInt(in);
+      }
+      ColumnReader[] columns = new ColumnReader[names.length];
+      for (int i = 0; i < names.length; i++) {
+        byte[] column = new byte[readVarInt(in)];
+        in.readFully(column);
+        columns[i] = new ColumnReader(column);
+      }
+      byte[] objectBytes = new byte[readVarInt(in)];
+      in.readFully(objectBytes);
+      ObjectInputStream objects = objectBytes.length == 0 ? null
+        : new ObjectInputStream(new ByteArrayInputStream(objectBytes));
+
+      List<Row> rows = new ArrayList<>(rowLayouts.length);
+      for (int layout : rowLayouts) {
+        Row row = new Row(templates[layout]);
+        for (int i = 0; i < layouts[layout].length; i++) {
+          row.setValue(i, columns[layouts[layout][i]].read(objects));
+        }
+        rows.add(row);
+      }
+      return rows;
+    }
+  }
+
+  /**
+   * Encodes the values of a column.
+   */
+  private static final class ColumnWriter {
+    private final String name;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(bytes);
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    private ColumnWriter(String name) {
+      this.name = name;
+    }
+
+    // Returns false if the value has to be serialized separately.
+    private boolean write(Object value) throws IOException {
+      if (value == null) {
+        out.writeByte(NULL);
+      } else if (value instanceof String) {
+        out.writeByte(STRING);
+        Integer id = dictionary.get(value);
+        if (id != null) {
+          writeVarInt(out, id);
+        } else {
+          writeVarInt(out, dictionary.size());
+          writeString(out, (String) value);
+          dictionary.put((String) value, dictionary.size());
+        }
+      } else if (value instanceof Integer) {
+        out.writeByte(INTEGER);
+        writeVarLong(out, (Integer) value);
+      } else if (value instanceof Long) {
+        out.writeByte(LONG);
+        writeVarLong(out, (Long) value);
+      } else if (value instanceof Double) {
+        out.writeByte(DOUBLE);
+        out.writeDouble((Double) value);
+      } else if (value instanceof Float) {
+        out.writeByte(FLOAT);
+        out.writeFloat((Float) value);
+      } else if (value instanceof Boolean) {
+        out.writeByte((Boolean) value ? TRUE : FALSE);
+      } else if (value instanceof byte[]) {
+        out.writeByte(BYTES);
+        writeVarInt(out, ((byte[]) value).length);
+        out.write((byte[]) value);
+      } else {
+        out.writeByte(SERIALIZED);
+        return false;
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Decodes the values of a column.
+   */
+  private static final class ColumnReader {
+    private final DataInputStream in;
+    private final List<String> dictionary = new ArrayList<>();
+
+    private ColumnReader(byte[] bytes) {
+      this.in = new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+
+    private Object read(ObjectInputStream objects) throws IOException, ClassNotFoundException {
+      int type = in.readByte();
+      switch (type) {
+        case NULL:
+          return null;
+        case STRING:
+          int id = readVarInt(in);
+          if (id == dictionary.size()) {
+            dictionary.add(readString(in));
+          }
+          return dictionary.get(id);
+        case INTEGER:
+          return (int) readVarLong(in);
+        case LONG:
+          return readVarLong(in);
+        case DOUBLE:
+          return in.readDouble();
+        case FLOAT:
+          return in.readFloat();
+        case TRUE:
+          return Boolean.TRUE;
+        case FALSE:
+          return Boolean.FALSE;
+        case BYTES:
+          byte[] value = new byte[readVarInt(in)];
+          in.readFully(value);
+          return value;
+        case SERIALIZED:
+          if (objects == null) {
+            throw new IOException("Missing serialized values in the sample.");
+          }
+          return objects.readObject();
+        default:
+          throw new IOException(String.format("Unknown value type %d in the sample.", type));
+      }
+    }
+  }
+
+  private static void writeString(DataOutput out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(out, bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInput in) throws IOException {
+    byte[] bytes = new byte[readVarInt(in)];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeVarInt(DataOutput out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  private static int readVarInt(DataInput in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = in.readByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer in the sample.");
+  }
+
+  // Signed values are zig-zag encoded, so that small negative values are short too.
+  private static void writeVarLong(DataOutput out, long value) throws IOException {
+    long encoded = (value << 1) ^ (value >> 63);
+    while ((encoded & ~0x7FL) != 0) {
+      out.writeByte((int) ((encoded & 0x7F) | 0x80));
+      encoded >>>= 7;
+    }
+    out.writeByte((int) encoded);
+  }
+
+  private static long readVarLong(DataInput in) throws IOException {
+    long encoded = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = in.readByte();
+      encoded |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return (encoded >>> 1) ^ -(encoded & 1);
+      }
+    }
+    throw new IOException("Malformed variable length integer in the sample.");
+  }
+}
@@ -19,47 +19,66 @@ package io.cdap.wrangler.proto.workspace.v2;
 
 import io.cdap.wrangler.api.Row;
 
-import java.io.ByteArrayOutputStream;
-import java.io.ObjectOutput;
-import java.io.ObjectOutputStream;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 /**
- * Full information about the workspace, including sample data
+ * Full information about the workspace, including sample data.
+ *
+ * <p>The sample is kept in the form it was given in, and converted between rows and bytes only when the other form
+ * is asked for.</p>
  */
 public class WorkspaceDetail {
   private final Workspace workspace;
-  private final List<Row> sample;
-  private final byte[] sampleAsBytes;
+  private List<Row> sample;
+  private byte[] sampleAsBytes;
 
   public WorkspaceDetail(Workspace workspace, List<Row> sample) {
     this.workspace = workspace;
     this.sample = sample;
-    this.sampleAsBytes = convertToBytes(sample);
   }
 
-  private byte[] convertToBytes(List<Row> sample) {
-    try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
-         ObjectOutput out = new ObjectOutputStream(bos)) {
-      out.writeObject(sample);
-      out.flush();
-      return bos.toByteArray();
-    } catch (Exception e) {
-      throw new RuntimeException("Error getting bytes from sample", e);
-    }
+  /**
+   * Creates the detail with the sample encoded by {@link SampleCodec}, the rows are decoded when first asked for.
+   */
+  public WorkspaceDetail(Workspace workspace, byte[] sampleAsBytes) {
+    this.workspace = workspace;
+    this.sampleAsBytes = sampleAsBytes;
   }
 
   public Workspace getWorkspace() {
     return workspace;
   }
 
-  public List<Row> getSample() {
+  public synchronized List<Row> getSample() {
+    if (sample == null) {
+      try {
+        sample = SampleCodec.decode(sampleAsBytes);
+      } catch (Exception e) {
+        throw new RuntimeException("Error getting sample from bytes", e);
+      }
+    }
     return sample;
   }
 
-  public byte[] getSampleAsBytes() {
+  public synchronized byte[] getSampleAsBytes() {
+    return getSampleAsBytes(true);
+  }
+
+  /**
+   * Returns the sample encoded by {@link SampleCodec}.
+   *
+   * @param columnar whether the sample may be in the columnar format. If not, a sample in that format is encoded
+   *                 again as Java serialized rows.
+   */
+  public synchronized byte[] getSampleAsBytes(boolean columnar) {
+    if (sampleAsBytes == null || (!columnar && SampleCodec.isColumnar(sampleAsBytes))) {
+      try {
+        sampleAsBytes = SampleCodec.encode(getSample(), columnar);
+      } catch (Exception e) {
+        throw new RuntimeException("Error getting bytes from sample", e);
+      }
+    }
     return sampleAsBytes;
   }
 
@@ -75,12 +94,11 @@ public class WorkspaceDetail {
 
     WorkspaceDetail detail = (WorkspaceDetail) o;
     return Objects.equals(workspace, detail.workspace) &&
-      Objects.equals(sample, detail.sample) &&
-      Arrays.equals(sampleAsBytes, detail.sampleAsBytes);
+      Objects.equals(getSample(), detail.getSample());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(workspace, sample, sampleAsBytes);
+    return Objects.hash(workspace, getSample());
   }
 }
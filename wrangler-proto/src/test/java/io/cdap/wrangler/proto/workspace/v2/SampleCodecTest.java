@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.proto.workspace.v2;
+
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests {@link SampleCodec}
+ */
+public class SampleCodecTest {
+
+  private static byte[] serialize(List<Row> rows) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+      oos.writeObject(rows);
+    }
+    return bytes.toByteArray();
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    List<Row> rows = Arrays.asList(
+      new Row("body", "a,b,c").add("int", 1).add("long", -5L).add("double", 1.5d).add("float", 2.5f)
+        .add("bool", true).add("bytes", new byte[] {1, 2}).add("null", null),
+      new Row("body", "a,b,c").add("int", Integer.MIN_VALUE).add("long", Long.MAX_VALUE).add("double", -0.0d)
+        .add("float", Float.NaN).add("bool", false).add("bytes", new byte[0]).add("null", null),
+      new Row("decimal", new BigDecimal("12.345")).add("date", LocalDate.of(2026, 1, 2)).add("body", "é中"),
+      new Row("list", new ArrayList<>(Arrays.asList("x", "y"))).add("body", null),
+      new Row());
+
+    byte[] bytes = SampleCodec.encode(rows);
+    List<Row> decoded = SampleCodec.decode(bytes);
+    Assert.assertEquals(rows.size(), decoded.size());
+    for (int i = 0; i < rows.size(); i++) {
+      Row expected = rows.get(i);
+      Row actual = decoded.get(i);
+      Assert.assertEquals(expected.getFields().size(), actual.width());
+      for (int j = 0; j < expected.width(); j++) {
+        Assert.assertEquals(expected.getColumn(j), actual.getColumn(j));
+        Object value = expected.getValue(j);
+        if (value instanceof byte[]) {
+          Assert.assertArrayEquals((byte[]) value, (byte[]) actual.getValue(j));
+        } else {
+          Assert.assertEquals(value, actual.getValue(j));
+        }
+      }
+    }
+
+    // Encoding is deterministic.
+    Assert.assertArrayEquals(bytes, SampleCodec.encode(decoded));
+  }
+
+  @Test
+  public void testDecodedRowsAreIndependent() throws Exception {
+    List<Row> decoded = SampleCodec.decode(SampleCodec.encode(Arrays.asList(new Row("a", "1").add("b", "2"),
+                                                                           new Row("a", "3").add("b", "4"))));
+    decoded.get(0).add("c", "5");
+    decoded.get(1).setValue(0, "6");
+    Assert.assertEquals(3, decoded.get(0).width());
+    Assert.assertEquals("1", decoded.get(0).getValue("a"));
+    Assert.assertEquals(2, decoded.get(1).width());
+    Assert.assertEquals("6", decoded.get(1).getValue("a"));
+  }
+
+  @Test
+  public void testDecodeJavaSerializedSample() throws Exception {
+    List<Row> rows = Arrays.asList(new Row("a", "1").add("b", 2), new Row("a", null));
+    Assert.assertEquals(rows, SampleCodec.decode(serialize(rows)));
+    Assert.assertEquals(Collections.emptyList(), SampleCodec.decode(serialize(new ArrayList<>())));
+
+    // Rows without values are Java serialized.
+    List<Row> columnsOnly = Collections.singletonList(new Row(Arrays.asList("a", "b")));
+    Assert.assertArrayEquals(serialize(columnsOnly), SampleCodec.encode(columnsOnly));
+    Assert.assertEquals(columnsOnly, SampleCodec.decode(SampleCodec.encode(columnsOnly)));
+
+    // Rows are Java serialized when asked to, for versions that predate the columnar format.
+    Assert.assertArrayEquals(serialize(rows), SampleCodec.encode(rows, false));
+    Assert.assertFalse(SampleCodec.isColumnar(SampleCodec.encode(rows, false)));
+    Assert.assertTrue(SampleCodec.isColumnar(SampleCodec.encode(rows)));
+  }
+
+  @Test
+  public void testEncodingIsSmallerThanJavaSerialization() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      rows.add(new Row("id", i).add("name", "name_" + i).add("state", i % 2 == 0 ? "CA" : "NY")
+                 .add("amount", i * 1.25d).add("active", i % 3 == 0));
+    }
+    byte[] bytes = SampleCodec.encode(rows);
+    Assert.assertTrue(bytes.length * 4 < serialize(rows).length);
+    Assert.assertEquals(rows, SampleCodec.decode(bytes));
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.proto.workspace.v2;
+
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link WorkspaceDetail}
+ */
+public class WorkspaceDetailTest {
+
+  @Test
+  public void testSampleIsConvertedOnDemand() throws Exception {
+    Workspace workspace = Workspace.builder("name", "id").build();
+    List<Row> rows = Arrays.asList(new Row("a", "1").add("b", 2), new Row("a", "3").add("b", 4));
+    byte[] bytes = SampleCodec.encode(rows);
+
+    WorkspaceDetail fromBytes = new WorkspaceDetail(workspace, bytes);
+    Assert.assertSame(bytes, fromBytes.getSampleAsBytes());
+    Assert.assertEquals(rows, fromBytes.getSample());
+    Assert.assertSame(fromBytes.getSample(), fromBytes.getSample());
+
+    WorkspaceDetail fromRows = new WorkspaceDetail(workspace, rows);
+    Assert.assertSame(rows, fromRows.getSample());
+    Assert.assertArrayEquals(bytes, fromRows.getSampleAsBytes());
+    Assert.assertEquals(fromRows, fromBytes);
+    Assert.assertEquals(fromRows.hashCode(), fromBytes.hashCode());
+  }
+
+  @Test
+  public void testSampleIsJavaSerializedWhenNotColumnar() throws Exception {
+    Workspace workspace = Workspace.builder("name", "id").build();
+    List<Row> rows = Arrays.asList(new Row("a", "1").add("b", 2), new Row("a", "3").add("b", 4));
+    byte[] serialized = SampleCodec.encode(rows, false);
+    Assert.assertFalse(SampleCodec.isColumnar(serialized));
+
+    // A columnar sample is encoded again, a Java serialized one is kept as it is
+    WorkspaceDetail fromBytes = new WorkspaceDetail(workspace, SampleCodec.encode(rows));
+    byte[] bytes = fromBytes.getSampleAsBytes(false);
+    Assert.assertFalse(SampleCodec.isColumnar(bytes));
+    Assert.assertEquals(rows, SampleCodec.decode(bytes));
+    Assert.assertSame(bytes, fromBytes.getSampleAsBytes(true));
+    Assert.assertArrayEquals(serialized, new WorkspaceDetail(workspace, rows).getSampleAsBytes(false));
+    Assert.assertEquals(rows, new WorkspaceDetail(workspace, serialized).getSample());
+  }
+}
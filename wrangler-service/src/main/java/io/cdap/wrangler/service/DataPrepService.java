@@ -99,7 +99,8 @@ public class DataPrepService extends AbstractSystemService {
     }
 
     UpgradeStore upgradeStore = new UpgradeStore(context);
-    WorkspaceStore wsStore = new WorkspaceStore(context);
+    WorkspaceStore wsStore = new WorkspaceStore(context,
+                                                WorkspaceStore.isColumnarSamples(context.getRuntimeArguments()));
     UpgradeState connState = upgradeStore.getEntityUpgradeState(UpgradeEntityType.CONNECTION);
     UpgradeState wsState = upgradeStore.getEntityUpgradeState(UpgradeEntityType.WORKSPACE);
     boolean isConnDone = connState != null && connState.getVersion() == 1L;
@@ -29,6 +29,7 @@ import io.cdap.cdap.api.annotation.TransactionControl;
 import io.cdap.cdap.api.annotation.TransactionPolicy;
 import io.cdap.cdap.api.service.http.HttpServiceRequest;
 import io.cdap.cdap.api.service.http.HttpServiceResponder;
+import io.cdap.cdap.api.service.http.SystemHttpServiceContext;
 import io.cdap.cdap.spi.data.transaction.TransactionRunners;
 import io.cdap.wrangler.PropertyIds;
 import io.cdap.wrangler.RequestExtractor;
@@ -58,10 +59,10 @@ import io.cdap.wrangler.service.FileTypeDetector;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.service.common.Format;
 import io.cdap.wrangler.service.explorer.BoundedLineInputStream;
+import io.cdap.wrangler.service.explorer.FileContents;
 import io.cdap.wrangler.utils.ObjectSerDe;
 import io.cdap.wrangler.utils.ReferenceNames;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -84,8 +85,14 @@ import javax.ws.rs.QueryParam;
 @Deprecated
 public class ADLSHandler extends AbstractWranglerHandler {
   private static final String COLUMN_NAME = "body";
-  private static final int FILE_SIZE = 10 * 1024 * 1024;
   private static final FileTypeDetector detector = new FileTypeDetector();
+  private long maxFileBytes;
+
+  @Override
+  public void initialize(SystemHttpServiceContext context) throws Exception {
+    super.initialize(context);
+    this.maxFileBytes = FileContents.maxBytes(context.getRuntimeArguments());
+  }
 
   /**
    * Create an ADLS client using connection details from the HTTP request.
@@ -338,10 +345,6 @@ public class ADLSHandler extends AbstractWranglerHandler {
 
   private ADLSConnectionSample loadFile(NamespacedId connectionId, String scope, InputStream inputStream,
                                         DirectoryEntry fileEntry) throws IOException {
-    if (fileEntry.length > FILE_SIZE) {
-      throw new BadRequestException("Files greater than 10MB are not supported.");
-    }
-
     // Creates workspace.
     String name = fileEntry.name;
 
@@ -349,9 +352,9 @@ public class ADLSHandler extends AbstractWranglerHandler {
     String identifier = ServiceUtils.generateMD5(file);
     String fileName = fileEntry.fullName;
 
-    byte[] bytes = new byte[(int) fileEntry.length + 1];
-    try (BufferedInputStream stream = new BufferedInputStream(inputStream)) {
-      stream.read(bytes);
+    byte[] bytes;
+    try (InputStream stream = inputStream) {
+      bytes = FileContents.read(stream, fileEntry.length, maxFileBytes);
     }
 
     // Set all properties and write to workspace.
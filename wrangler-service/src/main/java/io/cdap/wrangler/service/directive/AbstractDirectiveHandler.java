@@ -17,8 +17,7 @@
 
 package io.cdap.wrangler.service.directive;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.common.base.Preconditions;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.cdap.api.service.http.SystemHttpServiceContext;
 import io.cdap.cdap.features.Feature;
@@ -29,7 +28,6 @@ import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ErrorRecordBase;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.GrammarMigrator;
-import io.cdap.wrangler.api.Pair;
 import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.RecipeParser;
 import io.cdap.wrangler.api.Row;
@@ -42,8 +40,6 @@ import io.cdap.wrangler.parser.MigrateToV2;
 import io.cdap.wrangler.parser.RecipeCompiler;
 import io.cdap.wrangler.proto.BadRequestException;
 import io.cdap.wrangler.proto.ErrorRecordsException;
-import io.cdap.wrangler.proto.workspace.ColumnStatistics;
-import io.cdap.wrangler.proto.workspace.ColumnValidationResult;
 import io.cdap.wrangler.proto.workspace.WorkspaceValidationResult;
 import io.cdap.wrangler.proto.workspace.v2.DirectiveExecutionResponse;
 import io.cdap.wrangler.registry.CompositeDirectiveRegistry;
@@ -54,21 +50,11 @@ import io.cdap.wrangler.schema.TransientStoreKeys;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.statistics.BasicStatistics;
 import io.cdap.wrangler.statistics.Statistics;
-import io.cdap.wrangler.utils.SchemaConverter;
-import io.cdap.wrangler.validator.ColumnNameValidator;
-import io.cdap.wrangler.validator.Validator;
-import io.cdap.wrangler.validator.ValidatorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -78,17 +64,19 @@ import java.util.stream.Collectors;
  */
 public class AbstractDirectiveHandler extends AbstractWranglerHandler {
   private static final Logger LOG = LoggerFactory.getLogger(AbstractDirectiveHandler.class);
-  private static final Gson  GSON = new GsonBuilder().registerTypeAdapterFactory(
-    new WranglerDisplaySerializer()).create();
-
-  private static final String NULL_COLUMN_DISPLAY_TYPE = "NULL";
   protected static final String COLUMN_NAME = "body";
   protected static final String RECORD_DELIMITER_HEADER = "recorddelimiter";
   protected static final String DELIMITER_HEADER = "delimiter";
   protected static final TransientStore TRANSIENT_STORE = new DefaultTransientStore();
+  /**
+   * Runtime argument of the number of rows executed together by each directive, 1 to execute the directives on one
+   * row at a time, see {@link RecipePipelineExecutor}.
+   */
+  static final String EXECUTION_BATCH_SIZE = "wrangler.execution.batch.size";
 
   protected DirectiveRegistry composite;
   protected boolean schemaManagementEnabled;
+  protected int batchSize;
 
   @Override
   public void initialize(SystemHttpServiceContext context) throws Exception {
@@ -98,6 +86,9 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
       new UserDirectiveRegistry(context)
     );
     schemaManagementEnabled = Feature.WRANGLER_SCHEMA_MANAGEMENT.isEnabled(context);
+    batchSize = Integer.parseInt(context.getRuntimeArguments().getOrDefault(
+      EXECUTION_BATCH_SIZE, String.valueOf(RecipePipelineExecutor.DEFAULT_BATCH_SIZE)));
+    Preconditions.checkArgument(batchSize > 0, "Runtime argument '%s' must be positive.", EXECUTION_BATCH_SIZE);
   }
 
   /**
@@ -140,7 +131,8 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
     try (RecipePipelineExecutor executor = new RecipePipelineExecutor(parser,
                                                                       new ServicePipelineContext(
                                                                         namespace, ExecutorContext.Environment.SERVICE,
-                                                                        getContext(), TRANSIENT_STORE))) {
+                                                                        getContext(), TRANSIENT_STORE),
+                                                                      batchSize)) {
       List<Row> result = executor.execute(sample);
 
       List<ErrorRecordBase> errors = executor.errors()
@@ -160,125 +152,27 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
    */
   protected DirectiveExecutionResponse generateExecutionResponse(
     List<Row> rows, int limit) throws Exception {
-    List<Map<String, Object>> values = new ArrayList<>(rows.size());
-    Map<String, String> types = new LinkedHashMap<>();
-    SchemaConverter convertor = new SchemaConverter();
+    return createResponseWriter(rows, 0, limit).toResponse();
+  }
 
+  /**
+   * Creates a writer of the response for a page of the rows, which also generates the summary from all the rows.
+   */
+  ExecutionResponseWriter createResponseWriter(List<Row> rows, int offset, int limit) throws Exception {
+    Schema schema = null;
     if (schemaManagementEnabled) {
-      Schema outputSchema = TRANSIENT_STORE.get(TransientStoreKeys.OUTPUT_SCHEMA) != null ?
+      schema = TRANSIENT_STORE.get(TransientStoreKeys.OUTPUT_SCHEMA) != null ?
         TRANSIENT_STORE.get(TransientStoreKeys.OUTPUT_SCHEMA) : TRANSIENT_STORE.get(TransientStoreKeys.INPUT_SCHEMA);
-      for (Schema.Field field : outputSchema.getFields()) {
-        types.put(field.getName(), getColumnDisplayType(field.getSchema()));
-      }
-    }
-
-    // Iterate through all the new rows.
-    for (Row row : rows) {
-      // If output array has more than return result values, we terminate.
-      if (values.size() >= limit) {
-        break;
-      }
-
-      Map<String, Object> value = new HashMap<>(row.width());
-
-      // Iterate through all the fields of the row.
-      for (Pair<String, Object> field : row.getFields()) {
-        String fieldName = field.getFirst();
-        Object object = field.getSecond();
-
-        if (object != null) {
-          if (!schemaManagementEnabled) {
-            Schema schema = convertor.getSchema(object, fieldName);
-            types.put(fieldName, schema != null ? getColumnDisplayType(schema) : object.getClass().getSimpleName());
-          }
-
-          if ((object instanceof Iterable)
-              || (object instanceof Row)) {
-            value.put(fieldName, GSON.toJson(object));
-          } else {
-            if ((object.getClass().getMethod("toString").getDeclaringClass() != Object.class)) {
-              value.put(fieldName, object.toString());
-            } else {
-              value.put(fieldName, WranglerDisplaySerializer.NONDISPLAYABLE_STRING);
-            }
-          }
-        } else {
-          value.put(fieldName, null);
-          if (!schemaManagementEnabled) {
-            types.put(fieldName, NULL_COLUMN_DISPLAY_TYPE);
-          }
-        }
-      }
-      values.add(value);
     }
-    return new DirectiveExecutionResponse(values, types.keySet(), types, getWorkspaceSummary(rows));
+    return new ExecutionResponseWriter(rows, offset, limit, schema);
   }
 
   /**
    * Get the summary for the workspace rows
    */
   protected WorkspaceValidationResult getWorkspaceSummary(List<Row> rows) throws Exception {
-    // Validate Column names.
-    Validator<String> validator = new ColumnNameValidator();
-    validator.initialize();
-
-    // Iterate through columns to value a set
-    Set<String> uniqueColumns = new HashSet<>();
-    for (Row row : rows) {
-      for (int i = 0; i < row.width(); ++i) {
-        uniqueColumns.add(row.getColumn(i));
-      }
-    }
-
-    Map<String, ColumnValidationResult> columnValidationResults = new HashMap<>();
-    for (String name : uniqueColumns) {
-      try {
-        validator.validate(name);
-        columnValidationResults.put(name, new ColumnValidationResult(null));
-      } catch (ValidatorException e) {
-        columnValidationResults.put(name, new ColumnValidationResult(e.getMessage()));
-      }
-    }
-
     // Generate General and Type related Statistics for each column.
     Statistics statsGenerator = new BasicStatistics();
-    Row summary = statsGenerator.aggregate(rows);
-
-    Row stats = (Row) summary.getValue("stats");
-    Row types = (Row) summary.getValue("types");
-
-    List<Pair<String, Object>> fields = stats.getFields();
-    Map<String, ColumnStatistics> statistics = new HashMap<>();
-    for (Pair<String, Object> field : fields) {
-      List<Pair<String, Double>> values = (List<Pair<String, Double>>) field.getSecond();
-      Map<String, Float> generalStats = new HashMap<>();
-      for (Pair<String, Double> value : values) {
-        generalStats.put(value.getFirst(), value.getSecond().floatValue() * 100);
-      }
-      ColumnStatistics columnStatistics = new ColumnStatistics(generalStats, null);
-      statistics.put(field.getFirst(), columnStatistics);
-    }
-
-    fields = types.getFields();
-    for (Pair<String, Object> field : fields) {
-      List<Pair<String, Double>> values = (List<Pair<String, Double>>) field.getSecond();
-      Map<String, Float> typeStats = new HashMap<>();
-      for (Pair<String, Double> value : values) {
-        typeStats.put(value.getFirst(), value.getSecond().floatValue() * 100);
-      }
-      ColumnStatistics existingStats = statistics.get(field.getFirst());
-      Map<String, Float> generalStats = existingStats == null ? null : existingStats.getGeneral();
-      statistics.put(field.getFirst(), new ColumnStatistics(generalStats, typeStats));
-    }
-
-    return new WorkspaceValidationResult(columnValidationResults, statistics);
-  }
-
-  private String getColumnDisplayType(Schema schema) {
-    schema = schema.isNullable() ? schema.getNonNullable() : schema;
-    String type = schema.getLogicalType() == null ? schema.getType().name() : schema.getLogicalType().name();
-    // for backward compatibility, make the characters except the first one to lower case
-    type = type.substring(0, 1).toUpperCase() + type.substring(1).toLowerCase();
-    return type;
+    return ExecutionResponseWriter.summarize(statsGenerator.aggregate(rows));
   }
 }
@@ -0,0 +1,314 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+import io.cdap.cdap.api.Transactional;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.api.service.http.HttpContentProducer;
+import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.proto.workspace.ColumnStatistics;
+import io.cdap.wrangler.proto.workspace.ColumnValidationResult;
+import io.cdap.wrangler.proto.workspace.WorkspaceValidationResult;
+import io.cdap.wrangler.proto.workspace.v2.DirectiveExecutionResponse;
+import io.cdap.wrangler.statistics.BasicStatistics;
+import io.cdap.wrangler.statistics.ColumnProfile;
+import io.cdap.wrangler.statistics.Profile;
+import io.cdap.wrangler.utils.SchemaConverter;
+import io.cdap.wrangler.validator.ColumnNameValidator;
+import io.cdap.wrangler.validator.Validator;
+import io.cdap.wrangler.validator.ValidatorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.CharArrayWriter;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Generates the response of executing directives on a sample, in a single pass over the rows that converts the rows
+ * of the requested page to the values shown to users and computes the summary of all the rows.
+ *
+ * <p>The pass is made when the writer is created, so that any error converting the rows is raised before a response
+ * is sent. The response is then either returned as a {@link DirectiveExecutionResponse}, or streamed as chunks of
+ * JSON by the producer returned by {@link #toContentProducer()}, which only serializes the values and the summary.
+ * A writer generates a single response.</p>
+ */
+final class ExecutionResponseWriter {
+  private static final Logger LOG = LoggerFactory.getLogger(ExecutionResponseWriter.class);
+  private static final Gson DISPLAY_GSON = new GsonBuilder().registerTypeAdapterFactory(
+    new WranglerDisplaySerializer()).create();
+  // Same as the one used by the responder to send JSON.
+  private static final Gson GSON = new Gson();
+  private static final Type VALUE_TYPE = new TypeToken<Map<String, Object>>() { }.getType();
+  private static final Type HEADERS_TYPE = new TypeToken<Set<String>>() { }.getType();
+  private static final Type TYPES_TYPE = new TypeToken<Map<String, String>>() { }.getType();
+  private static final String NULL_COLUMN_DISPLAY_TYPE = "NULL";
+  // Number of most frequent values of each column in the summary.
+  private static final int TOP_VALUES = 10;
+  // Number of characters written before a chunk is sent.
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  private final int offset;
+  private final Integer nextOffset;
+  // Whether the types of the columns are given by a schema, rather than by the values in the page.
+  private final boolean schemaTypes;
+  private final Map<String, String> types = new LinkedHashMap<>();
+  private final SchemaConverter converter = new SchemaConverter();
+  private final List<Map<String, Object>> values;
+  private final WorkspaceValidationResult summary;
+
+  /**
+   * Creates a writer of a page of rows, converting the rows of the page and computing the summary of all the rows.
+   *
+   * @param rows rows produced by the directives
+   * @param offset index of the first row of the page
+   * @param limit maximum number of rows of the page
+   * @param schema schema of the rows if schemas are managed, null to derive the types of the columns from the values
+   */
+  ExecutionResponseWriter(List<Row> rows, int offset, int limit, @Nullable Schema schema) throws Exception {
+    Preconditions.checkArgument(offset >= 0, "Offset must not be negative.");
+    this.offset = offset;
+    int end = (int) Math.min(rows.size(), (long) offset + Math.max(0, limit));
+    this.nextOffset = end < rows.size() ? end : null;
+    this.schemaTypes = schema != null;
+    if (schema != null) {
+      for (Schema.Field field : schema.getFields()) {
+        types.put(field.getName(), getColumnDisplayType(field.getSchema()));
+      }
+    }
+
+    BasicStatistics.Accumulator statistics = new BasicStatistics().accumulator(rows.size());
+    this.values = new ArrayList<>(Math.max(0, end - offset));
+    for (int i = 0; i < rows.size(); i++) {
+      Row row = rows.get(i);
+      statistics.add(row);
+      if (i >= offset && i < end) {
+        values.add(toValue(row));
+      }
+    }
+    this.summary = summarize(statistics.aggregate());
+  }
+
+  /**
+   * Returns the response with the values of the page.
+   */
+  DirectiveExecutionResponse toResponse() {
+    return new DirectiveExecutionResponse(values, types.keySet(), types, summary, offset, nextOffset);
+  }
+
+  /**
+   * Returns a producer of the response in JSON, which is sent in chunks as the values are serialized.
+   */
+  HttpContentProducer toContentProducer() {
+    return new HttpContentProducer() {
+      private final CharArrayWriter buffer = new CharArrayWriter(CHUNK_SIZE);
+      private final JsonWriter writer = new JsonWriter(buffer);
+      private int index;
+      private boolean started;
+      private boolean finished;
+
+      @Override
+      public ByteBuffer nextChunk(Transactional transactional) throws Exception {
+        if (finished) {
+          return ByteBuffer.allocate(0);
+        }
+        if (!started) {
+          writer.beginObject().name("values").beginArray();
+          started = true;
+        }
+        while (index < values.size() && buffer.size() < CHUNK_SIZE) {
+          GSON.toJson(values.get(index++), VALUE_TYPE, writer);
+        }
+        if (index == values.size()) {
+          writer.endArray();
+          writer.name("message").value("Success");
+          writer.name("count").value(values.size());
+          writer.name("headers");
+          GSON.toJson(types.keySet(), HEADERS_TYPE, writer);
+          writer.name("types");
+          GSON.toJson(types, TYPES_TYPE, writer);
+          writer.name("summary");
+          GSON.toJson(summary, WorkspaceValidationResult.class, writer);
+          writer.name("offset").value(offset);
+          if (nextOffset != null) {
+            writer.name("nextOffset").value(nextOffset);
+          }
+          writer.endObject();
+          finished = true;
+        }
+        ByteBuffer chunk = StandardCharsets.UTF_8.encode(CharBuffer.wrap(buffer.toCharArray()));
+        buffer.reset();
+        return chunk;
+      }
+
+      @Override
+      public void onFinish() {
+        // no-op
+      }
+
+      @Override
+      public void onError(Throwable failureCause) {
+        LOG.warn("Error writing the response of the execution of directives", failureCause);
+      }
+    };
+  }
+
+  /**
+   * Returns the summary of rows from their statistics, see {@link BasicStatistics}.
+   */
+  static WorkspaceValidationResult summarize(Row summary) throws Exception {
+    Row stats = (Row) summary.getValue("stats");
+    Row types = (Row) summary.getValue("types");
+
+    // Validate column names. Every column of every row has general statistics.
+    Validator<String> validator = new ColumnNameValidator();
+    validator.initialize();
+    Map<String, ColumnValidationResult> columnValidationResults = new HashMap<>();
+    for (int i = 0; i < stats.width(); i++) {
+      String name = stats.getColumn(i);
+      try {
+        validator.validate(name);
+        columnValidationResults.put(name, new ColumnValidationResult(null));
+      } catch (ValidatorException e) {
+        columnValidationResults.put(name, new ColumnValidationResult(e.getMessage()));
+      }
+    }
+
+    List<Pair<String, Object>> fields = stats.getFields();
+    Map<String, ColumnStatistics> statistics = new HashMap<>();
+    for (Pair<String, Object> field : fields) {
+      List<Pair<String, Double>> values = (List<Pair<String, Double>>) field.getSecond();
+      Map<String, Float> generalStats = new HashMap<>();
+      for (Pair<String, Double> value : values) {
+        generalStats.put(value.getFirst(), value.getSecond().floatValue() * 100);
+      }
+      ColumnStatistics columnStatistics = new ColumnStatistics(generalStats, null);
+      statistics.put(field.getFirst(), columnStatistics);
+    }
+
+    fields = types.getFields();
+    for (Pair<String, Object> field : fields) {
+      List<Pair<String, Double>> values = (List<Pair<String, Double>>) field.getSecond();
+      Map<String, Float> typeStats = new HashMap<>();
+      for (Pair<String, Double> value : values) {
+        typeStats.put(value.getFirst(), value.getSecond().floatValue() * 100);
+      }
+      ColumnStatistics existingStats = statistics.get(field.getFirst());
+      Map<String, Float> generalStats = existingStats == null ? null : existingStats.getGeneral();
+      statistics.put(field.getFirst(), new ColumnStatistics(generalStats, typeStats));
+    }
+
+    Profile profile = (Profile) summary.getValue("profile");
+    if (profile != null) {
+      for (String column : profile.getColumns()) {
+        ColumnProfile columnProfile = profile.getColumn(column);
+        ColumnStatistics existingStats = statistics.get(column);
+        statistics.put(column, new ColumnStatistics(existingStats == null ? null : existingStats.getGeneral(),
+                                                    existingStats == null ? null : existingStats.getTypes(),
+                                                    getProfile(columnProfile), getTop(columnProfile)));
+      }
+    }
+
+    return new WorkspaceValidationResult(columnValidationResults, statistics);
+  }
+
+  private static Map<String, Double> getProfile(ColumnProfile profile) {
+    Map<String, Double> values = new LinkedHashMap<>();
+    values.put("distinct", (double) profile.getDistinctCount());
+    // Only columns with numbers have a distribution.
+    if (profile.getNumericCount() > 0) {
+      values.put("numeric", (double) profile.getNumericCount() * 100 / profile.getCount());
+      values.put("min", profile.getMin());
+      values.put("p25", profile.getQuantile(0.25));
+      values.put("median", profile.getQuantile(0.5));
+      values.put("p75", profile.getQuantile(0.75));
+      values.put("max", profile.getMax());
+      values.put("mean", profile.getMean());
+    }
+    // Infinite values, of numbers or of their sum, can't be sent in JSON.
+    values.values().removeIf(value -> value.isInfinite());
+    return values;
+  }
+
+  private static Map<String, Long> getTop(ColumnProfile profile) {
+    Map<String, Long> top = new LinkedHashMap<>();
+    for (Pair<String, Long> value : profile.getTopValues(TOP_VALUES)) {
+      top.put(value.getFirst(), value.getSecond());
+    }
+    return top;
+  }
+
+  /**
+   * Returns the value shown for a row of the page.
+   */
+  private Map<String, Object> toValue(Row row) throws Exception {
+    Map<String, Object> value = new HashMap<>(row.width());
+
+    // Iterate through all the fields of the row.
+    for (Pair<String, Object> field : row.getFields()) {
+      String fieldName = field.getFirst();
+      Object object = field.getSecond();
+
+      if (object != null) {
+        if (!schemaTypes) {
+          Schema schema = converter.getSchema(object, fieldName);
+          types.put(fieldName, schema != null ? getColumnDisplayType(schema) : object.getClass().getSimpleName());
+        }
+
+        if ((object instanceof Iterable)
+            || (object instanceof Row)) {
+          value.put(fieldName, DISPLAY_GSON.toJson(object));
+        } else {
+          if ((object.getClass().getMethod("toString").getDeclaringClass() != Object.class)) {
+            value.put(fieldName, object.toString());
+          } else {
+            value.put(fieldName, WranglerDisplaySerializer.NONDISPLAYABLE_STRING);
+          }
+        }
+      } else {
+        value.put(fieldName, null);
+        if (!schemaTypes) {
+          types.put(fieldName, NULL_COLUMN_DISPLAY_TYPE);
+        }
+      }
+    }
+    return value;
+  }
+
+  private static String getColumnDisplayType(Schema schema) {
+    schema = schema.isNullable() ? schema.getNonNullable() : schema;
+    String type = schema.getLogicalType() == null ? schema.getType().name() : schema.getLogicalType().name();
+    // for backward compatibility, make the characters except the first one to lower case
+    type = type.substring(0, 1).toUpperCase() + type.substring(1).toLowerCase();
+    return type;
+  }
+}
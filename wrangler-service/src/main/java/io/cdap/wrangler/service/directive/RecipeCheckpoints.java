@@ -0,0 +1,493 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.ErrorRecordBase;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.RecipeParser;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.TokenGroup;
+import io.cdap.wrangler.api.TransientStore;
+import io.cdap.wrangler.api.TransientVariableScope;
+import io.cdap.wrangler.api.parser.Token;
+import io.cdap.wrangler.api.parser.TokenType;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import io.cdap.wrangler.proto.ErrorRecordsException;
+import io.cdap.wrangler.schema.TransientStoreKeys;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Executes recipes on workspace samples, keeping the rows produced by the last directives of a recipe, so that
+ * executing the recipe again after appending or changing one of its last directives only executes the directives
+ * that follow the longest prefix of the recipe that was executed before.
+ *
+ * <p>A prefix is identified by the digest of the sample, the input schema and the parsed tokens of its directives.
+ * The rows of the prefixes are kept within a budget of bytes, least recently used first out. Prefixes only go up to
+ * the first directive whose result depends on more than its input rows, such as lookups, HTTP calls or expressions
+ * reading the current time, as the rows kept would be stale when resumed from.</p>
+ *
+ * <p>When resuming from a prefix, the remaining directives are executed in segments, with the rows of each segment
+ * kept before executing the next one. If a segment sets transient variables, reports errors or fails, the whole
+ * recipe is executed again from the sample through all the directives as it would be without checkpoints, since
+ * the result or the error reported may depend on the order in which rows and directives are interleaved.</p>
+ */
+final class RecipeCheckpoints {
+  /**
+   * Runtime argument of the service of the maximum number of bytes of rows to keep in the service. Recipes executed
+   * on task workers are not checkpointed, as task workers may terminate after every task.
+   */
+  static final String MAX_BYTES = "wrangler.checkpoint.cache.bytes";
+  static final long DEFAULT_MAX_BYTES = 128L * 1024 * 1024;
+  // Number of prefixes ending with the last directives of a recipe that are kept.
+  private static final int TAIL_CHECKPOINTS = 3;
+  // Directives whose result depends on more than their input rows and arguments.
+  private static final Set<String> VOLATILE_DIRECTIVES = ImmutableSet.of(
+    "table-lookup", "invoke-http", "generate-uuid", "current-datetime", "diff-date");
+  // Functions and variables of expressions whose value depends on when or where expressions are evaluated.
+  private static final Pattern VOLATILE_EXPRESSION = Pattern.compile(
+    "\\b(Current\\w*|EpochSeconds|DateFromDaysSince|TimeDate|DAYS_BETWEEN_NOW|random|ctx)\\b");
+
+  // Checkpoints kept by the process, replaced when the budget changes.
+  private static RecipeCheckpoints shared;
+
+  private final long maxBytes;
+  private final Cache<String, Checkpoint> checkpoints;
+
+  RecipeCheckpoints(long maxBytes) {
+    this.maxBytes = maxBytes;
+    this.checkpoints = CacheBuilder.newBuilder()
+      .concurrencyLevel(1)
+      .maximumWeight(maxBytes)
+      .weigher((String key, Checkpoint checkpoint) -> checkpoint.bytes)
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * Returns the maximum number of bytes of rows to keep, as set by the runtime arguments of the service.
+   *
+   * @throws IllegalArgumentException if the runtime argument is not a positive number
+   */
+  static long maxBytes(Map<String, String> runtimeArguments) {
+    long maxBytes = Long.parseLong(runtimeArguments.getOrDefault(MAX_BYTES, String.valueOf(DEFAULT_MAX_BYTES)));
+    Preconditions.checkArgument(maxBytes > 0, "Runtime argument '%s' must be positive.", MAX_BYTES);
+    return maxBytes;
+  }
+
+  /**
+   * Returns the checkpoints shared by the process, with the given budget. The checkpoints kept are dropped if the
+   * budget is not the same as the one of the previous call.
+   */
+  static synchronized RecipeCheckpoints shared(long maxBytes) {
+    if (shared == null || shared.maxBytes != maxBytes) {
+      shared = new RecipeCheckpoints(maxBytes);
+    }
+    return shared;
+  }
+
+  /**
+   * Returns the fingerprint of a directive, as it is given to a {@link io.cdap.wrangler.parser.GrammarWalker}, or
+   * {@code null} if the result of the directive depends on more than its input rows, so that it is not checkpointed.
+   */
+  @Nullable
+  static String fingerprint(String command, TokenGroup tokenGroup) {
+    if (VOLATILE_DIRECTIVES.contains(command)) {
+      return null;
+    }
+    Hasher hasher = Hashing.sha256().newHasher().putString(command, StandardCharsets.UTF_8);
+    for (int i = 0; i < tokenGroup.size(); i++) {
+      Token token = tokenGroup.get(i);
+      if (token.type() == TokenType.EXPRESSION && VOLATILE_EXPRESSION.matcher(token.value().toString()).find()) {
+        return null;
+      }
+      hasher.putString(token.type().name(), StandardCharsets.UTF_8)
+        .putString(token.toJson().toString(), StandardCharsets.UTF_8);
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Executes a recipe on a sample.
+   *
+   * @param sampleId identifies the sample and where the directives are loaded from
+   * @param sample rows of the sample, which may be modified by the execution
+   * @param parser parser creating new instances of the directives of the recipe every time it is called
+   * @param fingerprints fingerprints of the directives of the recipe, see {@link #fingerprint(String, TokenGroup)}.
+   *                     Only the directives before the first {@code null} fingerprint are checkpointed.
+   * @param context the context to execute the directives with
+   * @param batchSize number of rows executed together by each directive, see {@link RecipePipelineExecutor}
+   * @return the rows produced by the recipe
+   * @throws ErrorRecordsException if some rows errored out in a way that is reported to users
+   */
+  List<Row> execute(String sampleId, List<Row> sample, RecipeParser parser, List<String> fingerprints,
+                    @Nullable ExecutorContext context, int batchSize) throws RecipeException {
+    TransientStore store = context == null ? null : context.getTransientStore();
+    Schema inputSchema = store == null ? null : store.get(TransientStoreKeys.INPUT_SCHEMA);
+
+    // Only the directives up to the first one with a volatile result are checkpointed
+    int cacheable = fingerprints.indexOf(null);
+    if (cacheable < 0) {
+      cacheable = fingerprints.size();
+    }
+    if (cacheable == 0) {
+      return executeAll(sample, parser, context, batchSize, variables(store), inputSchema);
+    }
+
+    // keys.get(i) identifies the prefix made of the first i directives
+    List<String> keys = new ArrayList<>(cacheable + 1);
+    keys.add(Hashing.sha256().hashString(sampleId + "\n" + inputSchema, StandardCharsets.UTF_8).toString());
+    for (String fingerprint : fingerprints.subList(0, cacheable)) {
+      keys.add(Hashing.sha256().hashString(keys.get(keys.size() - 1) + fingerprint, StandardCharsets.UTF_8)
+                 .toString());
+    }
+
+    int start = cacheable;
+    Checkpoint checkpoint = null;
+    while (start > 0 && (checkpoint = checkpoints.getIfPresent(keys.get(start))) == null) {
+      start--;
+    }
+    if (start == fingerprints.size() && checkpoint != null) {
+      if (store != null && inputSchema != null) {
+        store.set(TransientVariableScope.GLOBAL, TransientStoreKeys.OUTPUT_SCHEMA, checkpoint.schema);
+      }
+      return checkpoint.copyRows();
+    }
+
+    // The sample is copied, so that it is still intact if the recipe has to be executed again from the start
+    List<Row> rows = checkpoint == null ? Checkpoint.copy(sample) : checkpoint.copyRows();
+    if (store != null) {
+      // Local variables are reset before each row anyway
+      store.reset(TransientVariableScope.LOCAL);
+    }
+    Map<String, Object> variables = variables(store);
+    if (rows == null) {
+      // The sample holds values that can't be copied, so it is only executed as it is
+      return executeAll(sample, parser, context, batchSize, variables, inputSchema);
+    }
+    Schema schema = checkpoint == null ? inputSchema : checkpoint.schema;
+    List<Directive> directives = parser.parse();
+    while (start < fingerprints.size()) {
+      // All the directives up to the first tail checkpoint are executed together, and all the ones after the last
+      // directive that can be checkpointed
+      int from = start;
+      int to = start < cacheable ? Math.max(start + 1, cacheable - TAIL_CHECKPOINTS + 1) : fingerprints.size();
+      if (store != null && inputSchema != null) {
+        store.set(TransientVariableScope.GLOBAL, TransientStoreKeys.INPUT_SCHEMA, schema);
+      }
+      try (RecipePipelineExecutor executor = new RecipePipelineExecutor(() -> directives.subList(from, to),
+                                                                        context, batchSize)) {
+        rows = executor.execute(rows);
+        if (executor.errors().stream().anyMatch(ErrorRecordBase::isShownInWrangler)
+          || !variables.equals(variables(store))) {
+          return executeAll(sample, parser, context, batchSize, variables, inputSchema);
+        }
+      } catch (RecipeException e) {
+        return executeAll(sample, parser, context, batchSize, variables, inputSchema);
+      }
+      if (store != null && inputSchema != null) {
+        schema = store.get(TransientStoreKeys.OUTPUT_SCHEMA);
+      }
+      // Rows holding values that can't be copied are not kept, the next directives are executed regardless
+      Checkpoint next = to <= cacheable ? Checkpoint.of(rows, schema) : null;
+      if (next != null) {
+        checkpoints.put(keys.get(to), next);
+      }
+      start = to;
+    }
+
+    if (store != null && inputSchema != null) {
+      store.set(TransientVariableScope.GLOBAL, TransientStoreKeys.INPUT_SCHEMA, inputSchema);
+    }
+    return rows;
+  }
+
+  CacheStats stats() {
+    return checkpoints.stats();
+  }
+
+  private List<Row> executeAll(List<Row> sample, RecipeParser parser, @Nullable ExecutorContext context,
+                               int batchSize, Map<String, Object> variables,
+                               @Nullable Schema inputSchema) throws RecipeException {
+    if (context != null) {
+      // Restores the variables as they were before executing the segments
+      TransientStore store = context.getTransientStore();
+      store.reset(TransientVariableScope.GLOBAL);
+      store.reset(TransientVariableScope.LOCAL);
+      for (Map.Entry<String, Object> variable : variables.entrySet()) {
+        store.set(TransientVariableScope.GLOBAL, variable.getKey(), variable.getValue());
+      }
+      if (inputSchema != null) {
+        store.set(TransientVariableScope.GLOBAL, TransientStoreKeys.INPUT_SCHEMA, inputSchema);
+      }
+    }
+    try (RecipePipelineExecutor executor = new RecipePipelineExecutor(parser, context, batchSize)) {
+      List<Row> result = executor.execute(sample);
+      List<ErrorRecordBase> errors = executor.errors().stream()
+        .filter(ErrorRecordBase::isShownInWrangler)
+        .collect(Collectors.toList());
+      if (!errors.isEmpty()) {
+        throw new ErrorRecordsException(errors);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Returns the transient variables set by directives, which are all but the schemas.
+   */
+  private static Map<String, Object> variables(@Nullable TransientStore store) {
+    Map<String, Object> variables = new HashMap<>();
+    if (store != null) {
+      for (String name : store.getVariables()) {
+        if (!TransientStoreKeys.INPUT_SCHEMA.equals(name) && !TransientStoreKeys.OUTPUT_SCHEMA.equals(name)) {
+          variables.put(name, store.get(name));
+        }
+      }
+    }
+    return variables;
+  }
+
+  /**
+   * Rows produced by a prefix of a recipe, which are copied in and out since directives modify rows in place.
+   *
+   * <p>Rows are copied deeply: values of mutable types that directives produce, such as maps, lists, JSON
+   * elements, rows, byte arrays and dates, are copied, and values of immutable types are shared. Rows holding values
+   * of any other type cannot be copied, so the rows they are part of are not kept.</p>
+   */
+  private static final class Checkpoint {
+    private static final Set<Class<?>> IMMUTABLE = ImmutableSet.of(
+      String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class,
+      Double.class, BigInteger.class, BigDecimal.class, LocalDate.class, LocalTime.class, LocalDateTime.class,
+      OffsetDateTime.class, ZonedDateTime.class, Instant.class, JsonNull.class, JsonPrimitive.class);
+    // Returned in place of the copy of a value that cannot be copied.
+    private static final Object NOT_COPYABLE = new Object();
+
+    private final List<Row> rows;
+    @Nullable
+    private final Schema schema;
+    private final int bytes;
+
+    private Checkpoint(List<Row> rows, @Nullable Schema schema) {
+      this.rows = rows;
+      this.schema = schema;
+      long bytes = 64;
+      for (Row row : rows) {
+        bytes += estimateBytes(row);
+      }
+      this.bytes = (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    /**
+     * Returns a checkpoint of a copy of the given rows, null if they cannot be copied.
+     */
+    @Nullable
+    private static Checkpoint of(List<Row> rows, @Nullable Schema schema) {
+      List<Row> copy = copy(rows);
+      return copy == null ? null : new Checkpoint(copy, schema);
+    }
+
+    private List<Row> copyRows() {
+      // The rows were copied in, so they can be copied out.
+      return copy(rows);
+    }
+
+    /**
+     * Returns a deep copy of rows, null if some of their values cannot be copied.
+     */
+    @Nullable
+    private static List<Row> copy(List<Row> rows) {
+      List<Row> copy = new ArrayList<>(rows.size());
+      for (Row row : rows) {
+        Row rowCopy = copyRow(row);
+        if (rowCopy == null) {
+          return null;
+        }
+        copy.add(rowCopy);
+      }
+      return copy;
+    }
+
+    @Nullable
+    private static Row copyRow(Row row) {
+      // Shares the column names, which are copied before being changed
+      Row copy = new Row(row);
+      for (int i = 0; i < copy.width(); i++) {
+        Object value = copy.getValue(i);
+        Object valueCopy = copyValue(value);
+        if (valueCopy == NOT_COPYABLE) {
+          return null;
+        }
+        if (valueCopy != value) {
+          copy.setValue(i, valueCopy);
+        }
+      }
+      return copy;
+    }
+
+    private static Object copyValue(@Nullable Object value) {
+      if (value == null || IMMUTABLE.contains(value.getClass()) || value instanceof Enum) {
+        return value;
+      }
+      if (value instanceof byte[]) {
+        return ((byte[]) value).clone();
+      }
+      if (value instanceof Date) {
+        // Also copies the java.sql dates, times and timestamps
+        return ((Date) value).clone();
+      }
+      if (value instanceof Row) {
+        Row copy = copyRow((Row) value);
+        return copy == null ? NOT_COPYABLE : copy;
+      }
+      if (value instanceof List) {
+        List<Object> copy = new ArrayList<>(((List<?>) value).size());
+        for (Object element : (List<?>) value) {
+          Object elementCopy = copyValue(element);
+          if (elementCopy == NOT_COPYABLE) {
+            return NOT_COPYABLE;
+          }
+          copy.add(elementCopy);
+        }
+        return copy;
+      }
+      if (value instanceof Map) {
+        // Keeps the order in which the entries are iterated
+        Map<Object, Object> copy = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+          Object key = entry.getKey();
+          Object entryValue = copyValue(entry.getValue());
+          if ((key != null && !IMMUTABLE.contains(key.getClass())) || entryValue == NOT_COPYABLE) {
+            return NOT_COPYABLE;
+          }
+          copy.put(key, entryValue);
+        }
+        return copy;
+      }
+      if (value instanceof JsonElement) {
+        return copyJson((JsonElement) value);
+      }
+      return NOT_COPYABLE;
+    }
+
+    private static JsonElement copyJson(JsonElement element) {
+      if (element.isJsonObject()) {
+        JsonObject copy = new JsonObject();
+        for (Map.Entry<String, JsonElement> member : element.getAsJsonObject().entrySet()) {
+          copy.add(member.getKey(), copyJson(member.getValue()));
+        }
+        return copy;
+      }
+      if (element.isJsonArray()) {
+        JsonArray copy = new JsonArray();
+        for (JsonElement item : element.getAsJsonArray()) {
+          copy.add(copyJson(item));
+        }
+        return copy;
+      }
+      // Primitives and nulls can't be changed
+      return element;
+    }
+
+    // Rough estimate of the heap used by a value, column names being shared by the rows of the same layout.
+    private static long estimateBytes(@Nullable Object value) {
+      if (value == null) {
+        return 0;
+      }
+      if (value instanceof String) {
+        return 40 + 2L * ((String) value).length();
+      }
+      if (value instanceof byte[]) {
+        return 16 + ((byte[]) value).length;
+      }
+      if (value instanceof Row) {
+        Row row = (Row) value;
+        long bytes = 64 + 8L * row.width();
+        for (int i = 0; i < row.width(); i++) {
+          bytes += estimateBytes(row.getValue(i));
+        }
+        return bytes;
+      }
+      if (value instanceof Collection) {
+        long bytes = 40;
+        for (Object element : (Collection<?>) value) {
+          bytes += 8 + estimateBytes(element);
+        }
+        return bytes;
+      }
+      if (value instanceof Map) {
+        long bytes = 48;
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+          bytes += 32 + estimateBytes(entry.getKey()) + estimateBytes(entry.getValue());
+        }
+        return bytes;
+      }
+      if (value instanceof JsonObject) {
+        long bytes = 48;
+        for (Map.Entry<String, JsonElement> member : ((JsonObject) value).entrySet()) {
+          bytes += 32 + estimateBytes(member.getKey()) + estimateBytes(member.getValue());
+        }
+        return bytes;
+      }
+      if (value instanceof JsonArray) {
+        long bytes = 40;
+        for (JsonElement item : (JsonArray) value) {
+          bytes += 8 + estimateBytes(item);
+        }
+        return bytes;
+      }
+      if (value instanceof JsonPrimitive && ((JsonPrimitive) value).isString()) {
+        return 16 + estimateBytes(((JsonPrimitive) value).getAsString());
+      }
+      return 32;
+    }
+  }
+}
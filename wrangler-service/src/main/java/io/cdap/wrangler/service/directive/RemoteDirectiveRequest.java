@@ -16,10 +16,13 @@
 package io.cdap.wrangler.service.directive;
 
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
 import io.cdap.wrangler.parser.DirectiveClass;
 
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
 
 /**
  * Request for remote execution of directives
@@ -29,16 +32,30 @@ public class RemoteDirectiveRequest {
   private final String recipe;
   private final Map<String, DirectiveClass> systemDirectives;
   private final String pluginNameSpace;
-  private final byte[] data;
+  private final String sampleDigest;
+  // Base64 encoded, as the request is sent as a json string parameter of the task. This adds a third to the size of
+  // the encoded sample, which is only sent when the task worker isn't known to have it cached.
+  private final String data;
   private final Schema inputSchema;
+  // Missing from the requests of older versions
+  private final int batchSize;
+  private final long sampleCacheBytes;
 
+  /**
+   * Creates a request for the sample of the given digest. The sample can be left out if the task worker
+   * is expected to have it cached.
+   */
   RemoteDirectiveRequest(String recipe, Map<String, DirectiveClass> systemDirectives,
-                         String pluginNameSpace, byte[] data, Schema inputSchema) {
+                         String pluginNameSpace, String sampleDigest, @Nullable byte[] data, Schema inputSchema,
+                         int batchSize, long sampleCacheBytes) {
     this.recipe = recipe;
     this.systemDirectives = new HashMap<>(systemDirectives);
     this.pluginNameSpace = pluginNameSpace;
-    this.data = data;
+    this.sampleDigest = sampleDigest;
+    this.data = data == null ? null : Base64.getEncoder().encodeToString(data);
     this.inputSchema = inputSchema;
+    this.batchSize = batchSize;
+    this.sampleCacheBytes = sampleCacheBytes;
   }
 
   public String getRecipe() {
@@ -49,8 +66,13 @@ public class RemoteDirectiveRequest {
     return systemDirectives;
   }
 
+  public String getSampleDigest() {
+    return sampleDigest;
+  }
+
+  @Nullable
   public byte[] getData() {
-    return data;
+    return data == null ? null : Base64.getDecoder().decode(data);
   }
 
   public String getPluginNameSpace() {
@@ -60,4 +82,18 @@ public class RemoteDirectiveRequest {
   public Schema getInputSchema() {
     return inputSchema;
   }
+
+  /**
+   * Returns the number of rows executed together by each directive.
+   */
+  public int getBatchSize() {
+    return batchSize > 0 ? batchSize : RecipePipelineExecutor.DEFAULT_BATCH_SIZE;
+  }
+
+  /**
+   * Returns the maximum number of bytes of samples the task worker caches.
+   */
+  public long getSampleCacheBytes() {
+    return sampleCacheBytes > 0 ? sampleCacheBytes : SampleCache.DEFAULT_MAX_BYTES;
+  }
 }
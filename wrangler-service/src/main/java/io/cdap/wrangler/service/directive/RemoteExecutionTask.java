@@ -47,6 +47,7 @@ import io.cdap.wrangler.parser.MapArguments;
 import io.cdap.wrangler.parser.RecipeCompiler;
 import io.cdap.wrangler.proto.BadRequestException;
 import io.cdap.wrangler.proto.ErrorRecordsException;
+import io.cdap.wrangler.proto.workspace.v2.SampleCodec;
 import io.cdap.wrangler.registry.DirectiveInfo;
 import io.cdap.wrangler.registry.UserDirectiveRegistry;
 import io.cdap.wrangler.utils.KryoSerializer;
@@ -73,6 +74,19 @@ public class RemoteExecutionTask implements RunnableTask {
   public void run(RunnableTaskContext runnableTaskContext) throws Exception {
     RemoteDirectiveRequest directiveRequest = GSON.fromJson(runnableTaskContext.getParam(),
                                                             RemoteDirectiveRequest.class);
+    SampleCache samples = SampleCache.shared(directiveRequest.getSampleCacheBytes());
+    byte[] sample = directiveRequest.getData();
+    if (sample == null) {
+      sample = samples.get(directiveRequest.getSampleDigest());
+      if (sample == null) {
+        throw new SampleNotCachedException(directiveRequest.getSampleDigest());
+      }
+    } else {
+      samples.put(sample);
+    }
+
+    // Engines of functions loaded for other tasks are dropped
+    EL.reset();
 
     SystemAppTaskContext systemAppContext = runnableTaskContext.getRunnableTaskSystemAppContext();
     String namespace = directiveRequest.getPluginNameSpace();
@@ -81,69 +95,42 @@ public class RemoteExecutionTask implements RunnableTask {
 
     // Collect directives.
     try (UserDirectiveRegistry userDirectiveRegistry = new UserDirectiveRegistry(systemAppContext)) {
-      List<Directive> directives = new ArrayList<>();
-      GrammarWalker walker = new GrammarWalker(new RecipeCompiler(), new ConfigDirectiveContext(DirectiveConfig.EMPTY));
-      walker.walk(directiveRequest.getRecipe(), (command, tokenGroup) -> {
-        DirectiveInfo info;
-        DirectiveClass directiveClass = systemDirectives.get(command);
-        if (directiveClass == null) {
-          info = userDirectiveRegistry.get(namespace, command);
-          hasUDD.set(true);
-        } else {
-          // For system directives, we can load it directly from the classloader.
-          try {
-            info = DirectiveInfo.fromSystem((Class<? extends Directive>) Class.forName(directiveClass.getClassName()));
-          } catch (ClassNotFoundException e) {
-            throw new DirectiveLoadException("Failed to load system directive " + directiveClass.getName(), e);
-          }
-        }
-
-        Directive directive = info.instance();
-        UsageDefinition definition = directive.define();
-        Arguments arguments = new MapArguments(definition, tokenGroup);
-        directive.initialize(arguments);
-        directives.add(directive);
-      });
+      List<Directive> directives = parse(directiveRequest.getRecipe(), systemDirectives, userDirectiveRegistry,
+                                         namespace, hasUDD);
 
       // If there is no directives, there is nothing to execute
       if (directives.isEmpty()) {
-        runnableTaskContext.writeResult(directiveRequest.getData());
+        runnableTaskContext.writeResult(sample);
         return;
       }
 
-      ObjectSerDe<List<Row>> objectSerDe = new ObjectSerDe<>();
-      List<Row> rows = objectSerDe.toObject(directiveRequest.getData());
+      List<Row> rows = SampleCodec.decode(sample);
 
       Schema inputSchema = directiveRequest.getInputSchema();
       TransientStore transientStore = new DefaultTransientStore();
       if (inputSchema != null) {
         transientStore.set(TransientVariableScope.GLOBAL, INPUT_SCHEMA, inputSchema);
       }
+      ExecutorContext context = new ServicePipelineContext(namespace, ExecutorContext.Environment.SERVICE,
+                                                           systemAppContext, transientStore);
 
-      try (RecipePipelineExecutor executor = new RecipePipelineExecutor(() -> directives,
-                                                                        new ServicePipelineContext(
-                                                                          namespace,
-                                                                          ExecutorContext.Environment.SERVICE,
-                                                                          systemAppContext,
-                                                                          transientStore))) {
-        rows = executor.execute(rows);
-        List<ErrorRecordBase> errors = executor.errors().stream()
-            .filter(ErrorRecordBase::isShownInWrangler)
-            .collect(Collectors.toList());
-
-        if (!errors.isEmpty()) {
-          throw new ErrorRecordsException(errors);
-        }
+      // Recipes are not checkpointed on task workers, as they may terminate after every task
+      try {
+        rows = execute(directives, rows, context, directiveRequest.getBatchSize());
       } catch (RecipeException e) {
         throw new BadRequestException(e.getMessage(), e);
       }
 
+      // User directives are loaded from artifacts of the namespace and can hold state in any class of the worker,
+      // so the worker isn't reused after they ran. Expressions only reach the classes of their values and functions,
+      // so they don't keep the worker from being reused. The response tells the service why the worker terminates.
+      String terminationReason = hasUDD.get() ? RemoteDirectiveResponse.USER_DIRECTIVES : null;
+      runnableTaskContext.setTerminateOnComplete(terminationReason != null);
+
       Schema outputSchema = transientStore.get(OUTPUT_SCHEMA);
-      RemoteDirectiveResponse response = new RemoteDirectiveResponse(rows, outputSchema);
+      RemoteDirectiveResponse response = new RemoteDirectiveResponse(rows, outputSchema, terminationReason);
       ObjectSerDe<RemoteDirectiveResponse> responseSerDe = new ObjectSerDe<>();
 
-      runnableTaskContext.setTerminateOnComplete(hasUDD.get() || EL.isUsed());
-
       if (Feature.WRANGLER_KRYO_SERIALIZATION.isEnabled(systemAppContext)) {
         runnableTaskContext.writeResult(new KryoSerializer().fromRemoteDirectiveResponse(response));
       } else {
@@ -153,4 +140,51 @@ public class RemoteExecutionTask implements RunnableTask {
       throw new BadRequestException(e.getMessage(), e);
     }
   }
+
+  /**
+   * Creates the directives of a recipe.
+   */
+  private List<Directive> parse(String recipe, Map<String, DirectiveClass> systemDirectives,
+                                UserDirectiveRegistry userDirectiveRegistry, String namespace,
+                                AtomicBoolean hasUDD) throws Exception {
+    List<Directive> directives = new ArrayList<>();
+    GrammarWalker walker = new GrammarWalker(new RecipeCompiler(), new ConfigDirectiveContext(DirectiveConfig.EMPTY));
+    walker.walk(recipe, (command, tokenGroup) -> {
+      DirectiveInfo info;
+      DirectiveClass directiveClass = systemDirectives.get(command);
+      if (directiveClass == null) {
+        info = userDirectiveRegistry.get(namespace, command);
+        hasUDD.set(true);
+      } else {
+        // For system directives, we can load it directly from the classloader.
+        try {
+          info = DirectiveInfo.fromSystem((Class<? extends Directive>) Class.forName(directiveClass.getClassName()));
+        } catch (ClassNotFoundException e) {
+          throw new DirectiveLoadException("Failed to load system directive " + directiveClass.getName(), e);
+        }
+      }
+
+      Directive directive = info.instance();
+      UsageDefinition definition = directive.define();
+      Arguments arguments = new MapArguments(definition, tokenGroup);
+      directive.initialize(arguments);
+      directives.add(directive);
+    });
+    return directives;
+  }
+
+  private List<Row> execute(List<Directive> directives, List<Row> rows,
+                            ExecutorContext context, int batchSize) throws RecipeException {
+    try (RecipePipelineExecutor executor = new RecipePipelineExecutor(() -> directives, context, batchSize)) {
+      List<Row> result = executor.execute(rows);
+      List<ErrorRecordBase> errors = executor.errors().stream()
+          .filter(ErrorRecordBase::isShownInWrangler)
+          .collect(Collectors.toList());
+
+      if (!errors.isEmpty()) {
+        throw new ErrorRecordsException(errors);
+      }
+      return result;
+    }
+  }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Caches encoded workspace samples on task workers, by the digest of their content.
+ *
+ * <p>Once a task worker that is kept after running a recipe cached a sample, executing directives on the same
+ * sample again only sends the digest of the sample. The whole sample is sent again if the task worker running the
+ * request doesn't have it cached, or if the last task worker that got it terminated.</p>
+ */
+final class SampleCache {
+  /**
+   * Runtime argument of the service of the maximum number of bytes of samples to cache on each task worker.
+   */
+  static final String MAX_BYTES = "wrangler.sample.cache.bytes";
+  static final long DEFAULT_MAX_BYTES = 128L * 1024 * 1024;
+
+  // Samples cached by the process, replaced when the budget changes.
+  private static SampleCache shared;
+
+  private final long maxBytes;
+  private final Cache<String, byte[]> samples;
+
+  SampleCache(long maxBytes) {
+    this.maxBytes = maxBytes;
+    // A single segment, so that the budget is shared by all samples rather than split between segments
+    this.samples = CacheBuilder.newBuilder()
+      .concurrencyLevel(1)
+      .maximumWeight(maxBytes)
+      .weigher((String digest, byte[] sample) -> sample.length)
+      .build();
+  }
+
+  /**
+   * Returns the maximum number of bytes of samples to cache, as set by the runtime arguments of the service.
+   *
+   * @throws IllegalArgumentException if the runtime argument is not a positive number
+   */
+  static long maxBytes(Map<String, String> runtimeArguments) {
+    long maxBytes = Long.parseLong(runtimeArguments.getOrDefault(MAX_BYTES, String.valueOf(DEFAULT_MAX_BYTES)));
+    Preconditions.checkArgument(maxBytes > 0, "Runtime argument '%s' must be positive.", MAX_BYTES);
+    return maxBytes;
+  }
+
+  /**
+   * Returns the cache shared by the process, with the given budget. The samples cached are dropped if the budget
+   * is not the same as the one of the previous call.
+   */
+  static synchronized SampleCache shared(long maxBytes) {
+    if (shared == null || shared.maxBytes != maxBytes) {
+      shared = new SampleCache(maxBytes);
+    }
+    return shared;
+  }
+
+  /**
+   * Returns the digest that identifies the given sample.
+   */
+  static String digest(byte[] sample) {
+    return Hashing.sha256().hashBytes(sample).toString();
+  }
+
+  /**
+   * Caches a sample.
+   *
+   * @return the digest of the sample
+   */
+  String put(byte[] sample) {
+    String digest = digest(sample);
+    samples.put(digest, sample);
+    return digest;
+  }
+
+  /**
+   * Returns the cached sample of the given digest, or {@code null} if it is not cached.
+   */
+  @Nullable
+  byte[] get(String digest) {
+    return samples.getIfPresent(digest);
+  }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+/**
+ * Thrown by {@link RemoteExecutionTask} when the sample of a request is neither sent nor cached by the task worker.
+ * The request has to be sent again with the sample.
+ */
+public class SampleNotCachedException extends Exception {
+
+  public SampleNotCachedException(String digest) {
+    super(String.format("Sample %s is not cached.", digest));
+  }
+}
@@ -18,6 +18,8 @@
 package io.cdap.wrangler.service.directive;
 
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -33,6 +35,7 @@ import io.cdap.cdap.api.metrics.Metrics;
 import io.cdap.cdap.api.service.http.HttpServiceRequest;
 import io.cdap.cdap.api.service.http.HttpServiceResponder;
 import io.cdap.cdap.api.service.http.SystemHttpServiceContext;
+import io.cdap.cdap.api.service.worker.RemoteExecutionException;
 import io.cdap.cdap.api.service.worker.RunnableTaskRequest;
 import io.cdap.cdap.etl.api.connector.SampleRequest;
 import io.cdap.cdap.etl.common.Constants;
@@ -44,16 +47,20 @@ import io.cdap.cdap.internal.io.SchemaTypeAdapter;
 import io.cdap.cdap.proto.id.NamespaceId;
 import io.cdap.wrangler.PropertyIds;
 import io.cdap.wrangler.RequestExtractor;
+import io.cdap.wrangler.api.CompileException;
 import io.cdap.wrangler.api.DirectiveConfig;
 import io.cdap.wrangler.api.DirectiveLoadException;
 import io.cdap.wrangler.api.DirectiveParseException;
+import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.GrammarMigrator;
 import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.RecipeParser;
 import io.cdap.wrangler.api.RemoteDirectiveResponse;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.TransientVariableScope;
 import io.cdap.wrangler.parser.ConfigDirectiveContext;
 import io.cdap.wrangler.parser.DirectiveClass;
+import io.cdap.wrangler.parser.GrammarBasedParser;
 import io.cdap.wrangler.parser.GrammarWalker;
 import io.cdap.wrangler.parser.MigrateToV2;
 import io.cdap.wrangler.parser.RecipeCompiler;
@@ -62,7 +69,6 @@ import io.cdap.wrangler.proto.recipe.v2.Recipe;
 import io.cdap.wrangler.proto.recipe.v2.RecipeId;
 import io.cdap.wrangler.proto.workspace.v2.Artifact;
 import io.cdap.wrangler.proto.workspace.v2.DirectiveExecutionRequest;
-import io.cdap.wrangler.proto.workspace.v2.DirectiveExecutionResponse;
 import io.cdap.wrangler.proto.workspace.v2.DirectiveUsage;
 import io.cdap.wrangler.proto.workspace.v2.Plugin;
 import io.cdap.wrangler.proto.workspace.v2.SampleSpec;
@@ -117,10 +123,25 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
   private static final Pattern PRAGMA_PATTERN = Pattern.compile("^\\s*#pragma\\s+load-directives\\s+");
   private static final String UPLOAD_COUNT = "upload.file.count";
   private static final String CONNECTION_TYPE = "upload";
+  private static final String WORKER_TERMINATION = "task.worker.termination";
+  private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+  // Maximum number of samples remembered as cached by a task worker that was kept.
+  private static final int MAX_CACHED_SAMPLES = 1000;
+
+  // Samples, by namespace and digest, last sent to a task worker that was kept after running the recipe. Only these
+  // samples are sent as their digest alone, as a task worker that terminates doesn't keep the samples it cached.
+  private static final Cache<String, Boolean> CACHED_SAMPLES =
+    CacheBuilder.newBuilder().maximumSize(MAX_CACHED_SAMPLES).build();
 
   private WorkspaceStore wsStore;
   private RecipeStore recipeStore;
   private ConnectionDiscoverer discoverer;
+  // Budget of the samples cached by task workers
+  private long sampleCacheBytes;
+  // Budget of the rows kept to resume recipes from when they are executed in the service
+  private long checkpointCacheBytes;
+  // Whether samples are stored and sent to task workers in the columnar format
+  private boolean columnarSamples;
 
   // Injected by CDAP
   @SuppressWarnings("unused")
@@ -129,9 +150,12 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
   @Override
   public void initialize(SystemHttpServiceContext context) throws Exception {
     super.initialize(context);
-    wsStore = new WorkspaceStore(context);
+    columnarSamples = WorkspaceStore.isColumnarSamples(context.getRuntimeArguments());
+    wsStore = new WorkspaceStore(context, columnarSamples);
     recipeStore = new RecipeStore(context);
     discoverer = new ConnectionDiscoverer(context);
+    sampleCacheBytes = SampleCache.maxBytes(context.getRuntimeArguments());
+    checkpointCacheBytes = RecipeCheckpoints.maxBytes(context.getRuntimeArguments());
   }
 
   @POST
@@ -361,9 +385,8 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
     respond(responder, namespace, ns -> {
       validateNamespace(ns, "Executing directives in system namespace is currently not supported");
 
-      DirectiveExecutionResponse response = execute(ns, request, new WorkspaceId(ns, workspaceId),
-                                                    null);
-      responder.sendJson(response);
+      ExecutionResponseWriter response = execute(ns, request, new WorkspaceId(ns, workspaceId), null);
+      responder.send(HttpURLConnection.HTTP_OK, response.toContentProducer(), JSON_CONTENT_TYPE);
     });
   }
 
@@ -452,9 +475,9 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
       RecipeId recipeId = RecipeId.builder(ns).setRecipeId(recipeIdString).build();
       Recipe recipe = recipeStore.getRecipeById(recipeId);
 
-      DirectiveExecutionResponse response = execute(ns, request, new WorkspaceId(ns, workspaceId),
-                                                    recipe.getDirectives());
-      responder.sendJson(response);
+      ExecutionResponseWriter response = execute(ns, request, new WorkspaceId(ns, workspaceId),
+                                                 recipe.getDirectives());
+      responder.send(HttpURLConnection.HTTP_OK, response.toContentProducer(), JSON_CONTENT_TYPE);
     });
   }
 
@@ -464,12 +487,19 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
     }
   }
 
-  private DirectiveExecutionResponse execute(NamespaceSummary ns, HttpServiceRequest request,
-                                             WorkspaceId workspaceId,
-                                             List<String> recipeDirectives) throws Exception {
+  /**
+   * Executes the directives of a request on the sample of a workspace, and returns the writer of the response, which
+   * is streamed to the client after the workspace is updated.
+   */
+  private ExecutionResponseWriter execute(NamespaceSummary ns, HttpServiceRequest request,
+                                          WorkspaceId workspaceId,
+                                          List<String> recipeDirectives) throws Exception {
     DirectiveExecutionRequest executionRequest =
       GSON.fromJson(StandardCharsets.UTF_8.decode(request.getContent()).toString(),
                     DirectiveExecutionRequest.class);
+    if (executionRequest.getOffset() < 0) {
+      throw new BadRequestException("Offset of the rows to return must not be negative");
+    }
 
     List<String> directives = new ArrayList<>(executionRequest.getDirectives());
     if (recipeDirectives != null) {
@@ -480,8 +510,8 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
     UserDirectivesCollector userDirectivesCollector = new UserDirectivesCollector();
     List<Row> result = executeDirectives(ns.getName(), directives, detail,
                                          userDirectivesCollector);
-    DirectiveExecutionResponse response = generateExecutionResponse(result,
-                                                                    executionRequest.getLimit());
+    ExecutionResponseWriter response = createResponseWriter(result, executionRequest.getOffset(),
+                                                            executionRequest.getLimit());
     userDirectivesCollector.addLoadDirectivesPragma(directives);
     Workspace newWorkspace = Workspace.builder(detail.getWorkspace())
       .setDirectives(directives)
@@ -585,8 +615,39 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
 
     // load the udd
     composite.reload(namespace);
-    return executeDirectives(namespace, directives, new ArrayList<>(detail.getSample()),
-                             grammarVisitor);
+    if (directives.isEmpty()) {
+      return new ArrayList<>(detail.getSample());
+    }
+
+    GrammarMigrator migrator = new MigrateToV2(directives);
+    String recipe = migrator.migrate();
+
+    // Parse and call grammar visitor, while taking the fingerprints of the directives
+    List<String> fingerprints = new ArrayList<>();
+    AtomicBoolean hasUserDirectives = new AtomicBoolean();
+    try {
+      GrammarWalker walker = new GrammarWalker(new RecipeCompiler(), new ConfigDirectiveContext(DirectiveConfig.EMPTY));
+      walker.walk(recipe, (command, tokenGroup) -> {
+        grammarVisitor.visit(command, tokenGroup);
+        fingerprints.add(RecipeCheckpoints.fingerprint(command, tokenGroup));
+        hasUserDirectives.compareAndSet(false, SystemDirectiveRegistry.INSTANCE.get(command) == null);
+      });
+    } catch (CompileException e) {
+      throw new BadRequestException(e.getMessage(), e);
+    }
+
+    // Only recipes of system directives are checkpointed, as user directives can be reloaded with changes
+    if (hasUserDirectives.get()) {
+      return executeDirectives(namespace, directives, new ArrayList<>(detail.getSample()), (command, tokenGroup) -> { });
+    }
+
+    RecipeParser parser = new GrammarBasedParser(namespace, recipe, composite,
+                                                 new ConfigDirectiveContext(DirectiveConfig.EMPTY));
+    String sampleId = namespace + "\n" + SampleCache.digest(detail.getSampleAsBytes(columnarSamples));
+    RecipeCheckpoints checkpoints = RecipeCheckpoints.shared(checkpointCacheBytes);
+    return checkpoints.execute(sampleId, new ArrayList<>(detail.getSample()), parser, fingerprints,
+                               new ServicePipelineContext(namespace, ExecutorContext.Environment.SERVICE,
+                                                          getContext(), TRANSIENT_STORE), batchSize);
   }
 
   /**
@@ -623,26 +684,58 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
       return detail.getSample();
     }
 
-    RemoteDirectiveRequest directiveRequest = new RemoteDirectiveRequest(recipe, systemDirectives,
-                                                                         namespace, detail.getSampleAsBytes(),
-                                                                         TRANSIENT_STORE.get(INPUT_SCHEMA));
-    RunnableTaskRequest runnableTaskRequest = RunnableTaskRequest.getBuilder(RemoteExecutionTask.class.getName())
-      .withParam(GSON.toJson(directiveRequest))
-      .withNamespace(namespace)
-      .build();
-    byte[] bytes = getContext().runTask(runnableTaskRequest);
+    // The sample is sent as its digest alone only if it was last sent to a task worker that was kept, and sent
+    // again if the task worker running the request doesn't have it cached
+    byte[] sample = detail.getSampleAsBytes(columnarSamples);
+    String digest = SampleCache.digest(sample);
+    String sampleId = namespace + "\n" + digest;
+    Schema inputSchema = TRANSIENT_STORE.get(INPUT_SCHEMA);
+    byte[] bytes = null;
+    if (CACHED_SAMPLES.getIfPresent(sampleId) != null) {
+      try {
+        bytes = runTask(namespace, new RemoteDirectiveRequest(recipe, systemDirectives, namespace, digest,
+                                                              null, inputSchema, batchSize, sampleCacheBytes));
+      } catch (RemoteExecutionException e) {
+        if (!SampleNotCachedException.class.getName().equals(e.getCause().getRemoteExceptionClassName())) {
+          throw e;
+        }
+        CACHED_SAMPLES.invalidate(sampleId);
+      }
+    }
+    if (bytes == null) {
+      bytes = runTask(namespace, new RemoteDirectiveRequest(recipe, systemDirectives, namespace, digest,
+                                                            sample, inputSchema, batchSize, sampleCacheBytes));
+    }
     RemoteDirectiveResponse response;
     if (Feature.WRANGLER_KRYO_SERIALIZATION.isEnabled(getContext())) {
       response = new KryoSerializer().toRemoteDirectiveResponse(bytes);
     } else {
       response = new ObjectSerDe<RemoteDirectiveResponse>().toObject(bytes);
     }
+    // The task worker decides whether it terminates after running the recipe, and tells why
+    if (response.getTerminationReason() != null) {
+      metrics.count(WORKER_TERMINATION + "." + response.getTerminationReason(), 1);
+      CACHED_SAMPLES.invalidate(sampleId);
+    } else {
+      CACHED_SAMPLES.put(sampleId, true);
+    }
     if (response.getOutputSchema() != null) {
         TRANSIENT_STORE.set(TransientVariableScope.GLOBAL, OUTPUT_SCHEMA, response.getOutputSchema());
     }
     return response.getRows();
   }
 
+  /**
+   * Runs the {@link RemoteExecutionTask} for the given request and returns its result.
+   */
+  private byte[] runTask(String namespace, RemoteDirectiveRequest directiveRequest) throws Exception {
+    RunnableTaskRequest runnableTaskRequest = RunnableTaskRequest.getBuilder(RemoteExecutionTask.class.getName())
+      .withParam(GSON.toJson(directiveRequest))
+      .withNamespace(namespace)
+      .build();
+    return getContext().runTask(runnableTaskRequest);
+  }
+
   private List<Row> getSample(SampleResponse sampleResponse) {
     List<Row> rows = new ArrayList<>();
     if (!sampleResponse.getSample().isEmpty()) {
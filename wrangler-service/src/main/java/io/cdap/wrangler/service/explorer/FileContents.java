@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.explorer;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+import io.cdap.wrangler.proto.BadRequestException;
+import org.apache.twill.filesystem.Location;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Reads whole files into workspaces, within a byte budget which is 10MB unless set with the
+ * {@code wrangler.explorer.file.max.bytes} runtime argument of the service.
+ *
+ * <p>Contents are read in full whatever the number of bytes each read returns, and those longer than the budget are
+ * rejected before they are buffered, whether their announced length says so or not. Local files are memory mapped
+ * and copied once, rather than streamed through intermediate buffers.</p>
+ */
+public final class FileContents {
+  public static final String MAX_BYTES = "wrangler.explorer.file.max.bytes";
+  private static final long DEFAULT_MAX_BYTES = 10 * 1024 * 1024;
+
+  private FileContents() {
+  }
+
+  /**
+   * Returns the maximum number of bytes of the files read, as set by the runtime arguments of the service.
+   *
+   * @throws IllegalArgumentException if the runtime argument is not a positive number
+   */
+  public static long maxBytes(Map<String, String> runtimeArguments) {
+    String value = runtimeArguments.get(MAX_BYTES);
+    long maxBytes = value == null ? DEFAULT_MAX_BYTES : Long.parseLong(value);
+    Preconditions.checkArgument(maxBytes > 0, "Runtime argument '%s' must be positive.", MAX_BYTES);
+    // Arrays cannot hold more.
+    return Math.min(maxBytes, Integer.MAX_VALUE - 8);
+  }
+
+  /**
+   * Reads the content of a file.
+   *
+   * @param maxBytes maximum number of bytes of the file
+   * @throws BadRequestException if the file is larger than {@code maxBytes}
+   */
+  public static byte[] read(Location location, long maxBytes) throws IOException {
+    URI uri = location.toURI();
+    if (!"file".equals(uri.getScheme())) {
+      try (InputStream stream = location.getInputStream()) {
+        return read(stream, location.length(), maxBytes);
+      }
+    }
+    try (FileChannel channel = FileChannel.open(Paths.get(uri), StandardOpenOption.READ)) {
+      long size = channel.size();
+      checkSize(size, maxBytes);
+      byte[] bytes = new byte[(int) size];
+      channel.map(FileChannel.MapMode.READ_ONLY, 0, size).get(bytes);
+      return bytes;
+    }
+  }
+
+  /**
+   * Reads a stream to its end.
+   *
+   * @param length expected number of bytes of the stream
+   * @param maxBytes maximum number of bytes of the stream
+   * @throws BadRequestException if the stream has more than {@code maxBytes} bytes
+   */
+  public static byte[] read(InputStream stream, long length, long maxBytes) throws IOException {
+    checkSize(length, maxBytes);
+    byte[] bytes = new byte[(int) Math.max(0, length)];
+    int read = ByteStreams.read(stream, bytes, 0, bytes.length);
+    if (read < bytes.length) {
+      return Arrays.copyOf(bytes, read);
+    }
+
+    // The stream is longer than expected, it is read up to one byte over the budget.
+    ByteArrayOutputStream rest = new ByteArrayOutputStream();
+    long extra = ByteStreams.copy(ByteStreams.limit(stream, maxBytes - bytes.length + 1), rest);
+    if (extra == 0) {
+      return bytes;
+    }
+    checkSize(bytes.length + extra, maxBytes);
+    byte[] all = Arrays.copyOf(bytes, (int) (bytes.length + extra));
+    System.arraycopy(rest.toByteArray(), 0, all, bytes.length, (int) extra);
+    return all;
+  }
+
+  private static void checkSize(long size, long maxBytes) {
+    if (size > maxBytes) {
+      throw new BadRequestException(String.format("Files larger than %s are currently not supported.",
+                                                  maxBytes % (1024 * 1024) == 0
+                                                    ? maxBytes / (1024 * 1024) + "MB" : maxBytes + " bytes"));
+    }
+  }
+}
@@ -17,6 +17,7 @@
 package io.cdap.wrangler.service.explorer;
 
 import com.google.common.base.Charsets;
+import com.google.common.collect.Iterators;
 import io.cdap.cdap.api.annotation.TransactionControl;
 import io.cdap.cdap.api.annotation.TransactionPolicy;
 import io.cdap.cdap.api.dataset.Dataset;
@@ -42,6 +43,7 @@ import io.cdap.wrangler.proto.file.FileSpec;
 import io.cdap.wrangler.sampling.Bernoulli;
 import io.cdap.wrangler.sampling.Poisson;
 import io.cdap.wrangler.sampling.Reservoir;
+import io.cdap.wrangler.sampling.XORShiftRNG;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.service.common.Format;
 import io.cdap.wrangler.utils.ObjectSerDe;
@@ -49,7 +51,6 @@ import io.cdap.wrangler.utils.ReferenceNames;
 import org.apache.twill.filesystem.Location;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.security.Security;
 import java.util.ArrayList;
@@ -57,6 +58,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
@@ -72,6 +74,7 @@ public class FilesystemExplorer extends AbstractWranglerHandler {
   private Explorer explorer;
   private static final String COLUMN_NAME = "body";
   private static final int FILE_SIZE = 10 * 1024 * 1024;
+  private long maxFileBytes;
 
   /**
    * Lists the content of the path specified using the {@link Location}.
@@ -182,9 +185,8 @@ public class FilesystemExplorer extends AbstractWranglerHandler {
       throw new BadRequestException(String.format("%s (No such file)", path));
     }
 
-    if (location.length() > FILE_SIZE) {
-      throw new BadRequestException("Files larger than 10MB are currently not supported.");
-    }
+    // Reads the file before the transaction, which only writes it.
+    byte[] bytes = FileContents.read(location, maxFileBytes);
 
     // Creates workspace.
     String name = location.getName();
@@ -204,13 +206,6 @@ public class FilesystemExplorer extends AbstractWranglerHandler {
       WorkspaceDataset ws = WorkspaceDataset.get(context);
       NamespacedId workspaceId = ws.createWorkspace(namespace, workspaceMeta);
 
-      byte[] bytes = new byte[(int) location.length() + 1];
-      try (BufferedInputStream stream = new BufferedInputStream(location.getInputStream())) {
-        stream.read(bytes);
-      } catch (IOException e) {
-        e.printStackTrace();
-      }
-
       // Write records to workspace.
       if (type == DataType.RECORDS) {
         List<Row> rows = new ArrayList<>();
@@ -261,20 +256,16 @@ public class FilesystemExplorer extends AbstractWranglerHandler {
       WorkspaceDataset ws = WorkspaceDataset.get(context);
       NamespacedId workspaceId = ws.createWorkspace(namespace, workspaceMeta);
 
-      // Iterate through lines to extract only 'limit' random lines.
-      // Depending on the type, the sampling of the input is performed.
+      // Extracts the first 'lines' lines, or a sample of lines of the whole file.
       List<Row> rows = new ArrayList<>();
-      BoundedLineInputStream blis = BoundedLineInputStream.iterator(location.getInputStream(), Charsets.UTF_8, lines);
-      Iterator<String> it = blis;
-      if (samplingMethod == SamplingMethod.POISSON) {
-        it = new Poisson<String>(fraction).sample(blis);
-      } else if (samplingMethod == SamplingMethod.BERNOULLI) {
-        it = new Bernoulli<String>(fraction).sample(blis);
-      } else if (samplingMethod == SamplingMethod.RESERVOIR) {
-        it = new Reservoir<String>(lines).sample(blis);
-      }
-      while (it.hasNext()) {
-        rows.add(new Row(COLUMN_NAME, it.next()));
+      if (samplingMethod == SamplingMethod.FIRST) {
+        try (BoundedLineInputStream blis = BoundedLineInputStream.iterator(location.getInputStream(),
+                                                                           Charsets.UTF_8, lines)) {
+          blis.forEachRemaining(line -> rows.add(new Row(COLUMN_NAME, line)));
+        }
+      } else {
+        sample(location, sampleSize(samplingMethod, lines, fraction))
+          .forEachRemaining(line -> rows.add(new Row(COLUMN_NAME, line)));
       }
 
       // Write rows to workspace.
@@ -290,9 +281,37 @@ public class FilesystemExplorer extends AbstractWranglerHandler {
                                     location.getName());
   }
 
+  /**
+   * Returns the number of lines sampled, which is the number of lines the sampling method would pick out of the
+   * first 'lines' lines of the file.
+   */
+  private static int sampleSize(SamplingMethod samplingMethod, int lines, double fraction) {
+    Iterator<Integer> indexes = IntStream.range(0, Math.max(0, lines)).iterator();
+    if (samplingMethod == SamplingMethod.POISSON) {
+      indexes = new Poisson<Integer>(fraction).sample(indexes);
+    } else if (samplingMethod == SamplingMethod.BERNOULLI) {
+      indexes = new Bernoulli<Integer>(fraction).sample(indexes);
+    }
+    return Iterators.size(indexes);
+  }
+
+  /**
+   * Samples lines of the whole file, small files are read entirely and larger ones around random offsets.
+   */
+  private static Iterator<String> sample(Location location, int count) throws IOException {
+    if (location.length() > FILE_SIZE) {
+      return new LineOffsetSampler(new XORShiftRNG()).sample(location, count).iterator();
+    }
+    try (BoundedLineInputStream blis = BoundedLineInputStream.iterator(location.getInputStream(), Charsets.UTF_8,
+                                                                       Integer.MAX_VALUE)) {
+      return new Reservoir<String>(count).sample(blis);
+    }
+  }
+
   @Override
   public void initialize(SystemHttpServiceContext context) throws Exception {
     super.initialize(context);
+    this.maxFileBytes = FileContents.maxBytes(context.getRuntimeArguments());
     final HttpServiceContext ctx = context;
     Security.addProvider(new BouncyCastleProvider());
     this.explorer = new Explorer(new DatasetProvider() {
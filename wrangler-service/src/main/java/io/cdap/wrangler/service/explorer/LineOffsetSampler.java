@@ -0,0 +1,299 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.explorer;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteSource;
+import org.apache.twill.filesystem.Location;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Samples lines spread over a whole file, reading only around random byte offsets of it instead of scanning it.
+ *
+ * <p>Each offset is moved forward to the start of the next line, which is sampled. A line is thus picked with a
+ * probability proportional to the length of the line before it, which does not depend on the line itself when the
+ * lengths of consecutive lines are independent, as in logs and most delimited files. Offsets are visited in
+ * increasing order, so that files are read forward only, skipping the bytes in between: local files are memory
+ * mapped, other files are read through a stream which skips by seeking when the filesystem supports it. Offsets
+ * landing on a line already sampled are drawn again, for a few rounds. Lines are returned in the order of the
+ * file.</p>
+ */
+final class LineOffsetSampler {
+  // Rounds of offsets drawn to replace the ones landing on lines already sampled.
+  private static final int MAX_ROUNDS = 4;
+  // Offsets further than this from a line start are dropped, rather than read until a line break.
+  private static final int MAX_LINE_LENGTH = 1024 * 1024;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Random random;
+
+  LineOffsetSampler(Random random) {
+    this.random = random;
+  }
+
+  /**
+   * Samples lines of a file, memory mapping it if it is local.
+   *
+   * @param count number of lines to sample, fewer are returned if the file does not have that many
+   */
+  List<String> sample(Location location, int count) throws IOException {
+    URI uri = location.toURI();
+    if ("file".equals(uri.getScheme())) {
+      return sample(Paths.get(uri), count);
+    }
+    return sample(new ByteSource() {
+      @Override
+      public InputStream openStream() throws IOException {
+        return location.getInputStream();
+      }
+    }, location.length(), count);
+  }
+
+  /**
+   * Samples lines of a local file, which is memory mapped.
+   */
+  List<String> sample(Path path, int count) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long length = channel.size();
+      return sample(length, count, () -> new MappedCursor(channel, length));
+    }
+  }
+
+  /**
+   * Samples lines of the bytes of a source of the given length, which stream is skipped to the offsets.
+   */
+  List<String> sample(ByteSource source, long length, int count) throws IOException {
+    return sample(length, count, () -> new StreamCursor(source.openStream()));
+  }
+
+  private List<String> sample(long length, int count, CursorFactory cursors) throws IOException {
+    Preconditions.checkArgument(count >= 0, "Count must not be negative.");
+    Map<Long, String> lines = new TreeMap<>();
+    for (int round = 0; round < MAX_ROUNDS && lines.size() < count && length > 0; round++) {
+      long[] offsets = new long[count - lines.size()];
+      for (int i = 0; i < offsets.length; i++) {
+        offsets[i] = (long) (random.nextDouble() * length);
+      }
+      Arrays.sort(offsets);
+      try (Cursor cursor = cursors.open()) {
+        sample(cursor, offsets, lines, count);
+      }
+    }
+    return new ArrayList<>(lines.values());
+  }
+
+  // Adds the lines starting after each of the offsets to the lines keyed by their start.
+  private void sample(Cursor cursor, long[] offsets, Map<Long, String> lines, int count) throws IOException {
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    // Start of the last line read and the start of the line after it, -1 if it was not read until its end.
+    long lastStart = -1;
+    long nextStart = -1;
+    for (long offset : offsets) {
+      if (lines.size() >= count) {
+        return;
+      }
+      if (offset <= lastStart) {
+        continue;
+      }
+      long start;
+      if (nextStart >= 0 && offset <= nextStart) {
+        start = nextStart;
+      } else if (offset == 0) {
+        start = 0;
+      } else if (offset - 1 < cursor.position()) {
+        // Past a line too long to be read, the cursor cannot go back.
+        continue;
+      } else {
+        cursor.seek(offset - 1);
+        if (!skipLine(cursor)) {
+          nextStart = -1;
+          continue;
+        }
+        start = cursor.position();
+      }
+
+      lastStart = start;
+      line.reset();
+      int read = readLine(cursor, line);
+      nextStart = read == -1 ? -1 : cursor.position();
+      if (read == 1 || (read == 0 && line.size() > 0)) {
+        lines.putIfAbsent(start, toString(line));
+      }
+    }
+  }
+
+  // Moves the cursor after the next line break, returns false if there is none close enough.
+  private static boolean skipLine(Cursor cursor) throws IOException {
+    for (int i = 0; i < MAX_LINE_LENGTH; i++) {
+      int b = cursor.read();
+      if (b == '\n') {
+        return true;
+      }
+      if (b < 0) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  // Reads a line without its line break, returns 1 if it ended with a line break, 0 at the end of the file and -1
+  // if it is too long.
+  private static int readLine(Cursor cursor, ByteArrayOutputStream line) throws IOException {
+    for (int i = 0; i < MAX_LINE_LENGTH; i++) {
+      int b = cursor.read();
+      if (b == '\n') {
+        return 1;
+      }
+      if (b < 0) {
+        return 0;
+      }
+      line.write(b);
+    }
+    return -1;
+  }
+
+  private static String toString(ByteArrayOutputStream line) {
+    byte[] bytes = line.toByteArray();
+    int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+    return new String(bytes, 0, length, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads bytes forward from any position.
+   */
+  private interface Cursor extends Closeable {
+    long position();
+
+    // Moves to a position after the current one.
+    void seek(long position) throws IOException;
+
+    // Returns the byte at the position and moves after it, -1 at the end of the file.
+    int read() throws IOException;
+  }
+
+  private interface CursorFactory {
+    Cursor open() throws IOException;
+  }
+
+  /**
+   * Reads a stream, skipping the bytes before the positions sought.
+   */
+  private static final class StreamCursor implements Cursor {
+    private final InputStream stream;
+    private long position;
+
+    StreamCursor(InputStream stream) {
+      this.stream = new BufferedInputStream(stream, BUFFER_SIZE);
+    }
+
+    @Override
+    public long position() {
+      return position;
+    }
+
+    @Override
+    public void seek(long target) throws IOException {
+      while (position < target) {
+        long skipped = stream.skip(target - position);
+        if (skipped <= 0) {
+          // Skip may stop early, a read tells whether it is at the end of the stream.
+          if (stream.read() < 0) {
+            return;
+          }
+          skipped = 1;
+        }
+        position += skipped;
+      }
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = stream.read();
+      if (b >= 0) {
+        position++;
+      }
+      return b;
+    }
+
+    @Override
+    public void close() throws IOException {
+      stream.close();
+    }
+  }
+
+  /**
+   * Reads a file through windows of it mapped in memory around the positions sought.
+   */
+  private static final class MappedCursor implements Cursor {
+    private final FileChannel channel;
+    private final long length;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    MappedCursor(FileChannel channel, long length) {
+      this.channel = channel;
+      this.length = length;
+    }
+
+    @Override
+    public long position() {
+      return position;
+    }
+
+    @Override
+    public void seek(long target) {
+      position = Math.min(Math.max(position, target), length);
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (position >= length) {
+        return -1;
+      }
+      if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(BUFFER_SIZE, length - position));
+      }
+      return window.get((int) (position++ - windowStart)) & 0xff;
+    }
+
+    @Override
+    public void close() {
+      // The channel is closed by the sampler, the windows are unmapped when collected.
+      window = null;
+    }
+  }
+}
@@ -63,10 +63,10 @@ import io.cdap.wrangler.service.FileTypeDetector;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.service.common.Format;
 import io.cdap.wrangler.service.explorer.BoundedLineInputStream;
+import io.cdap.wrangler.service.explorer.FileContents;
 import io.cdap.wrangler.service.macro.ServiceMacroEvaluator;
 import io.cdap.wrangler.utils.ObjectSerDe;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -90,10 +90,16 @@ public class S3Handler extends AbstractWranglerHandler {
   private static final String BUCKET_NAME = "bucket-name";
   private static final String KEY = "key";
   private static final String COLUMN_NAME = "body";
-  private static final int FILE_SIZE = 10 * 1024 * 1024;
   private static final List<String> MACRO_FIELDS = ImmutableList.of("accessKeyId", "accessSecretKey");
   private static final FileTypeDetector detector = new FileTypeDetector();
   private final Map<String, ServiceMacroEvaluator> macroEvaluators = new HashMap<>();
+  private long maxFileBytes;
+
+  @Override
+  public void initialize(SystemHttpServiceContext context) throws Exception {
+    super.initialize(context);
+    this.maxFileBytes = FileContents.maxBytes(context.getRuntimeArguments());
+  }
 
   @POST
   @Path("/contexts/{context}/connections/s3/test")
@@ -357,17 +363,13 @@ public class S3Handler extends AbstractWranglerHandler {
 
   private S3ConnectionSample loadFile(NamespacedId connectionId, String scope,
                                       InputStream inputStream, S3Object s3Object) throws IOException {
-    if (s3Object.getObjectMetadata().getContentLength() > FILE_SIZE) {
-      throw new BadRequestException("Files greater than 10MB are not supported.");
-    }
-
     // Creates workspace.
     String name = s3Object.getKey();
     String fileName = name.substring(name.lastIndexOf("/") + 1);
 
-    byte[] bytes = new byte[(int) s3Object.getObjectMetadata().getContentLength() + 1];
-    try (BufferedInputStream stream = new BufferedInputStream(inputStream)) {
-      stream.read(bytes);
+    byte[] bytes;
+    try (InputStream stream = inputStream) {
+      bytes = FileContents.read(stream, s3Object.getObjectMetadata().getContentLength(), maxFileBytes);
     }
 
     Map<String, String> properties = new HashMap<>();
@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.cdap.cdap.api.service.http.HttpContentProducer;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.proto.workspace.v2.DirectiveExecutionResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tests {@link ExecutionResponseWriter}
+ */
+public class ExecutionResponseWriterTest {
+
+  private static List<Row> rows(int count) {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Row row = new Row("id", i).add("name", i % 10 == 0 ? "" : "name " + i)
+        .add("list", Arrays.asList("a", String.valueOf(i)));
+      if (i % 3 == 0) {
+        row.add("extra", null);
+      }
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  private static String stream(ExecutionResponseWriter writer) throws Exception {
+    HttpContentProducer producer = writer.toContentProducer();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ByteBuffer chunk;
+    while ((chunk = producer.nextChunk(null)).hasRemaining()) {
+      byte[] array = new byte[chunk.remaining()];
+      chunk.get(array);
+      bytes.write(array);
+    }
+    return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testPages() throws Exception {
+    List<Row> rows = rows(25);
+
+    DirectiveExecutionResponse first = new ExecutionResponseWriter(rows, 0, 10, null).toResponse();
+    Assert.assertEquals(10, first.getValues().size());
+    Assert.assertEquals(Integer.valueOf(0), first.getOffset());
+    Assert.assertEquals(Integer.valueOf(10), first.getNextOffset());
+    Assert.assertEquals("0", first.getValues().iterator().next().get("id"));
+    Assert.assertEquals("[\"a\",\"0\"]", first.getValues().iterator().next().get("list"));
+
+    DirectiveExecutionResponse last = new ExecutionResponseWriter(rows, 20, 10, null).toResponse();
+    Assert.assertEquals(5, last.getValues().size());
+    Assert.assertNull(last.getNextOffset());
+    Assert.assertEquals("20", last.getValues().iterator().next().get("id"));
+
+    Assert.assertTrue(new ExecutionResponseWriter(rows, 30, 10, null).toResponse().getValues().isEmpty());
+
+    // The summary is of all the rows, whatever the page.
+    Gson gson = new Gson();
+    JsonObject summary = gson.toJsonTree(last.getSummary()).getAsJsonObject();
+    Assert.assertEquals(gson.toJsonTree(first.getSummary()), summary);
+    JsonObject general = summary.getAsJsonObject("statistics").getAsJsonObject("name").getAsJsonObject("general");
+    Assert.assertEquals(12f, general.get("empty").getAsFloat(), 0.001f);
+    Assert.assertEquals(100f, general.get("non-null").getAsFloat(), 0.001f);
+    Set<String> columns = new HashSet<>();
+    for (Map.Entry<String, JsonElement> entry : summary.getAsJsonObject("validation").entrySet()) {
+      columns.add(entry.getKey());
+    }
+    Assert.assertEquals(new HashSet<>(Arrays.asList("id", "name", "list", "extra")), columns);
+
+    // Columns are profiled over all the rows.
+    JsonObject id = summary.getAsJsonObject("statistics").getAsJsonObject("id");
+    Assert.assertEquals(25, id.getAsJsonObject("profile").get("distinct").getAsDouble(), 1);
+    Assert.assertEquals(24, id.getAsJsonObject("profile").get("max").getAsDouble(), 0);
+    Assert.assertEquals(3, summary.getAsJsonObject("statistics").getAsJsonObject("name").getAsJsonObject("top")
+      .get("").getAsLong());
+  }
+
+  @Test
+  public void testStreamedResponseMatchesResponse() throws Exception {
+    Gson gson = new Gson();
+    for (List<Row> rows : Arrays.asList(rows(5000), rows(3), Collections.<Row>emptyList())) {
+      for (int offset : new int[] {0, 2, 4990}) {
+        JsonElement expected =
+          new JsonParser().parse(gson.toJson(new ExecutionResponseWriter(rows, offset, 100, null).toResponse()));
+        JsonElement actual = new JsonParser().parse(stream(new ExecutionResponseWriter(rows, offset, 100, null)));
+        Assert.assertEquals(expected, actual);
+      }
+    }
+  }
+
+  @Test
+  public void testErrorsAreRaisedBeforeStreaming() throws Exception {
+    Object invalid = new Object() {
+      @Override
+      public String toString() {
+        throw new IllegalStateException("invalid value");
+      }
+    };
+    List<Row> rows = rows(3);
+    rows.get(1).add("invalid", invalid);
+    try {
+      new ExecutionResponseWriter(rows, 0, 10, null);
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("invalid value", e.getMessage());
+    }
+  }
+}
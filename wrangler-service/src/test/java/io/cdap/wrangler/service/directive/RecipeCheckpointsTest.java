@@ -0,0 +1,262 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.gson.JsonObject;
+import io.cdap.wrangler.api.Arguments;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.DirectiveConfig;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.RecipeParser;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.parser.UsageDefinition;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import io.cdap.wrangler.parser.ConfigDirectiveContext;
+import io.cdap.wrangler.parser.GrammarBasedParser;
+import io.cdap.wrangler.parser.GrammarWalker;
+import io.cdap.wrangler.parser.RecipeCompiler;
+import io.cdap.wrangler.registry.SystemDirectiveRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link RecipeCheckpoints}
+ */
+public class RecipeCheckpointsTest {
+  private static final List<String> RECIPE = Arrays.asList(
+    "parse-as-csv :body ',' false",
+    "drop :body",
+    "rename :body_1 :name",
+    "filter-by-regex if-matched :name '^skip.*'",
+    "set-column :greeting exp:{'hello ' + name}",
+    "uppercase :greeting",
+    "set-column :length exp:{string:length(greeting)}"
+  );
+
+  private static List<Row> sample() {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      rows.add(new Row("body", (i % 5 == 0 ? "skip" : "name") + i + "," + i));
+    }
+    return rows;
+  }
+
+  private static String recipe(List<String> directives) {
+    return String.join(";\n", directives) + ";";
+  }
+
+  private static RecipeParser parser(List<String> directives) {
+    return new GrammarBasedParser("default", recipe(directives), SystemDirectiveRegistry.INSTANCE,
+                                  new ConfigDirectiveContext(DirectiveConfig.EMPTY));
+  }
+
+  private static List<String> fingerprints(List<String> directives) throws Exception {
+    List<String> fingerprints = new ArrayList<>();
+    new GrammarWalker(new RecipeCompiler(), new ConfigDirectiveContext(DirectiveConfig.EMPTY))
+      .walk(recipe(directives),
+            (command, tokenGroup) -> fingerprints.add(RecipeCheckpoints.fingerprint(command, tokenGroup)));
+    return fingerprints;
+  }
+
+  private static List<Row> execute(RecipeCheckpoints checkpoints, List<String> directives) throws Exception {
+    List<Row> rows = checkpoints.execute("sample", sample(), parser(directives), fingerprints(directives), null,
+                                         RecipePipelineExecutor.DEFAULT_BATCH_SIZE);
+    try (RecipePipelineExecutor executor = new RecipePipelineExecutor(parser(directives), null)) {
+      Assert.assertEquals(executor.execute(sample()), rows);
+    }
+    return rows;
+  }
+
+  @Test
+  public void testExecutionResumesFromLongestPrefix() throws Exception {
+    RecipeCheckpoints checkpoints = new RecipeCheckpoints(Long.MAX_VALUE);
+    List<Row> rows = execute(checkpoints, RECIPE);
+    Assert.assertEquals(16, rows.size());
+    Assert.assertEquals("HELLO NAME1", rows.get(0).getValue("greeting"));
+    Assert.assertEquals(0, checkpoints.stats().hitCount());
+
+    // Appending a directive resumes from the whole recipe.
+    List<String> appended = new ArrayList<>(RECIPE);
+    appended.add("lowercase :name");
+    execute(checkpoints, appended);
+    Assert.assertEquals(1, checkpoints.stats().hitCount());
+
+    // Changing the last but one directive resumes from the directives before it.
+    List<String> changed = new ArrayList<>(RECIPE);
+    changed.set(RECIPE.size() - 2, "lowercase :greeting");
+    Assert.assertEquals("hello name1", execute(checkpoints, changed).get(0).getValue("greeting"));
+    Assert.assertEquals(2, checkpoints.stats().hitCount());
+
+    // Executing the same recipe again doesn't execute any directive, and returns rows that can be modified.
+    rows = execute(checkpoints, RECIPE);
+    Assert.assertEquals(3, checkpoints.stats().hitCount());
+    rows.get(0).setValue(0, "modified");
+    Assert.assertEquals("name1", execute(checkpoints, RECIPE).get(0).getValue("name"));
+
+    // A different sample doesn't use the checkpoints of another one.
+    checkpoints.execute("other", sample(), parser(RECIPE), fingerprints(RECIPE), null,
+                        RecipePipelineExecutor.DEFAULT_BATCH_SIZE);
+    Assert.assertEquals(4, checkpoints.stats().hitCount());
+  }
+
+  @Test
+  public void testVolatileDirectivesAreNotCheckpointed() throws Exception {
+    List<String> fingerprints = fingerprints(Arrays.asList(
+      "table-lookup :name 'names'",
+      "set-column :random exp:{math:random()}",
+      "set-column :millis exp:{ctx.millis}",
+      "set-column :now exp:{datetime:CurrentTimestampMS()}",
+      "set-column :length exp:{string:length(name)}"));
+    Assert.assertEquals(Arrays.asList(null, null, null, null), fingerprints.subList(0, 4));
+    Assert.assertNotNull(fingerprints.get(4));
+
+    // Only the directives before the first volatile one are resumed from.
+    List<String> recipe = new ArrayList<>(RECIPE.subList(0, 3));
+    recipe.add("set-column :now exp:{datetime:CurrentTimestampMS()}");
+    recipe.add("uppercase :name");
+    RecipeCheckpoints checkpoints = new RecipeCheckpoints(Long.MAX_VALUE);
+    for (int i = 0; i < 2; i++) {
+      long before = System.currentTimeMillis();
+      List<Row> rows = checkpoints.execute("sample", sample(), parser(recipe), fingerprints(recipe), null,
+                                           RecipePipelineExecutor.DEFAULT_BATCH_SIZE);
+      Assert.assertEquals("NAME1", rows.get(1).getValue("name"));
+      Assert.assertTrue((Long) rows.get(1).getValue("now") >= before);
+      Assert.assertEquals(i, checkpoints.stats().hitCount());
+    }
+  }
+
+  @Test
+  public void testCheckpointsAreBoundedByBytes() throws Exception {
+    RecipeCheckpoints checkpoints = new RecipeCheckpoints(1024);
+    execute(checkpoints, RECIPE);
+    execute(checkpoints, RECIPE);
+    Assert.assertEquals(0, checkpoints.stats().hitCount());
+  }
+
+  @Test
+  public void testCheckpointsAreNotChangedByLaterDirectives() throws Exception {
+    RecipeCheckpoints checkpoints = new RecipeCheckpoints(Long.MAX_VALUE);
+    // The first directive is kept as a checkpoint, before the second one changes the values of the rows in place.
+    checkpoints.execute("mutable", mutableSample(),
+                        () -> Arrays.asList(new ChangeValues(false), new ChangeValues(true)),
+                        Arrays.asList("keep", "change"), null, RecipePipelineExecutor.DEFAULT_BATCH_SIZE);
+
+    List<Row> rows = checkpoints.execute("mutable", mutableSample(),
+                                         () -> Arrays.asList(new ChangeValues(false), new ChangeValues(false)),
+                                         Arrays.asList("keep", "keep"), null,
+                                         RecipePipelineExecutor.DEFAULT_BATCH_SIZE);
+    Assert.assertEquals(1, checkpoints.stats().hitCount());
+    Row row = rows.get(0);
+    Assert.assertEquals(Collections.singletonMap("k", 1), row.getValue("map"));
+    Assert.assertEquals(Collections.singletonList(1), row.getValue("list"));
+    Assert.assertEquals(1, ((JsonObject) row.getValue("json")).get("k").getAsInt());
+    Assert.assertArrayEquals(new byte[] {1}, (byte[]) row.getValue("bytes"));
+    Assert.assertEquals(1, ((Row) row.getValue("row")).getValue("k"));
+  }
+
+  @Test
+  public void testRowsWithValuesThatCannotBeCopiedAreNotKept() throws Exception {
+    RecipeCheckpoints checkpoints = new RecipeCheckpoints(Long.MAX_VALUE);
+    for (int i = 0; i < 2; i++) {
+      List<Row> sample = Collections.singletonList(new Row("builder", new StringBuilder("a")));
+      List<Row> rows = checkpoints.execute("builder", sample,
+                                           () -> Collections.singletonList(new ChangeValues(true)),
+                                           Collections.singletonList("change"), null,
+                                           RecipePipelineExecutor.DEFAULT_BATCH_SIZE);
+      Assert.assertEquals("ab", rows.get(0).getValue("builder").toString());
+    }
+    Assert.assertEquals(0, checkpoints.stats().hitCount());
+  }
+
+  @Test
+  public void testSharedCheckpointsBudget() {
+    Assert.assertEquals(RecipeCheckpoints.DEFAULT_MAX_BYTES, RecipeCheckpoints.maxBytes(Collections.emptyMap()));
+    Assert.assertEquals(64, RecipeCheckpoints.maxBytes(Collections.singletonMap(RecipeCheckpoints.MAX_BYTES, "64")));
+    try {
+      RecipeCheckpoints.maxBytes(Collections.singletonMap(RecipeCheckpoints.MAX_BYTES, "0"));
+      Assert.fail("Budget must be positive");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+
+    RecipeCheckpoints checkpoints = RecipeCheckpoints.shared(64);
+    Assert.assertSame(checkpoints, RecipeCheckpoints.shared(64));
+    Assert.assertNotSame(checkpoints, RecipeCheckpoints.shared(128));
+  }
+
+  private static List<Row> mutableSample() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("k", 1);
+    List<Object> list = new ArrayList<>();
+    list.add(1);
+    JsonObject json = new JsonObject();
+    json.addProperty("k", 1);
+    return Collections.singletonList(new Row("map", map).add("list", list).add("json", json)
+                                       .add("bytes", new byte[] {1}).add("row", new Row("k", 1)));
+  }
+
+  /**
+   * Changes the values of rows in place, or leaves them as they are.
+   */
+  private static final class ChangeValues implements Directive {
+    private final boolean change;
+
+    private ChangeValues(boolean change) {
+      this.change = change;
+    }
+
+    @Override
+    public UsageDefinition define() {
+      return UsageDefinition.builder("change-values").build();
+    }
+
+    @Override
+    public void initialize(Arguments args) {
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Row> execute(List<Row> rows, ExecutorContext context) {
+      if (!change) {
+        return rows;
+      }
+      for (Row row : rows) {
+        if (row.find("builder") >= 0) {
+          ((StringBuilder) row.getValue("builder")).append("b");
+          continue;
+        }
+        ((Map<String, Object>) row.getValue("map")).put("k", 2);
+        ((List<Object>) row.getValue("list")).set(0, 2);
+        ((JsonObject) row.getValue("json")).addProperty("k", 2);
+        ((byte[]) row.getValue("bytes"))[0] = 2;
+        ((Row) row.getValue("row")).setValue(0, 2);
+      }
+      return rows;
+    }
+
+    @Override
+    public void destroy() {
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.gson.Gson;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+/**
+ * Tests {@link SampleCache}
+ */
+public class SampleCacheTest {
+
+  @Test
+  public void testSamplesAreCachedByDigest() {
+    SampleCache cache = new SampleCache(16);
+    byte[] sample = "sample".getBytes(StandardCharsets.UTF_8);
+    String digest = cache.put(sample);
+    Assert.assertEquals(SampleCache.digest(sample.clone()), digest);
+    Assert.assertSame(sample, cache.get(digest));
+    Assert.assertNull(cache.get(SampleCache.digest(new byte[] {1})));
+
+    // Samples are evicted once the cache is full.
+    cache.put("other sample".getBytes(StandardCharsets.UTF_8));
+    Assert.assertNull(cache.get(digest));
+  }
+
+  @Test
+  public void testSharedCacheBudget() {
+    Assert.assertEquals(SampleCache.DEFAULT_MAX_BYTES, SampleCache.maxBytes(Collections.emptyMap()));
+    Assert.assertEquals(64, SampleCache.maxBytes(Collections.singletonMap(SampleCache.MAX_BYTES, "64")));
+    try {
+      SampleCache.maxBytes(Collections.singletonMap(SampleCache.MAX_BYTES, "-1"));
+      Assert.fail("Budget must be positive");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+
+    SampleCache cache = SampleCache.shared(64);
+    Assert.assertSame(cache, SampleCache.shared(64));
+    Assert.assertNotSame(cache, SampleCache.shared(128));
+  }
+
+  @Test
+  public void testRequestWithAndWithoutSample() {
+    Gson gson = new Gson();
+    byte[] sample = {0, -1, 127, -128};
+    String digest = SampleCache.digest(sample);
+
+    RemoteDirectiveRequest request = new RemoteDirectiveRequest("lowercase :a", Collections.emptyMap(), "ns",
+                                                                 digest, sample, null, 16, 1024);
+    String json = gson.toJson(request);
+    Assert.assertTrue(json.contains("AP9/gA"));
+    request = gson.fromJson(json, RemoteDirectiveRequest.class);
+    Assert.assertEquals(digest, request.getSampleDigest());
+    Assert.assertArrayEquals(sample, request.getData());
+    Assert.assertEquals(16, request.getBatchSize());
+    Assert.assertEquals(1024, request.getSampleCacheBytes());
+    // Requests of older versions have no batch size nor cache budget
+    request = gson.fromJson(json.replace(",\"batchSize\":16,\"sampleCacheBytes\":1024", ""),
+                            RemoteDirectiveRequest.class);
+    Assert.assertEquals(RecipePipelineExecutor.DEFAULT_BATCH_SIZE, request.getBatchSize());
+    Assert.assertEquals(SampleCache.DEFAULT_MAX_BYTES, request.getSampleCacheBytes());
+
+    request = gson.fromJson(gson.toJson(new RemoteDirectiveRequest("lowercase :a", Collections.emptyMap(), "ns",
+                                                                   digest, null, null, 1, 1)),
+                            RemoteDirectiveRequest.class);
+    Assert.assertEquals(digest, request.getSampleDigest());
+    Assert.assertNull(request.getData());
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.explorer;
+
+import io.cdap.wrangler.proto.BadRequestException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests {@link FileContents}
+ */
+public class FileContentsTest {
+
+  @Test
+  public void testReadsWholeStream() throws Exception {
+    byte[] content = new byte[100000];
+    Arrays.fill(content, (byte) 'a');
+    // Exact, shorter and longer than announced.
+    Assert.assertArrayEquals(content, FileContents.read(new TrickleInputStream(content), content.length, 200000));
+    Assert.assertArrayEquals(content, FileContents.read(new TrickleInputStream(content), 150000, 200000));
+    Assert.assertArrayEquals(content, FileContents.read(new TrickleInputStream(content), 1000, 200000));
+    Assert.assertArrayEquals(content, FileContents.read(new TrickleInputStream(content), 1000, content.length));
+    Assert.assertArrayEquals(new byte[0], FileContents.read(new TrickleInputStream(new byte[0]), 0, 10));
+  }
+
+  @Test
+  public void testRejectsLargeStreams() throws Exception {
+    byte[] content = new byte[1000];
+    try {
+      FileContents.read(new TrickleInputStream(content), content.length, 999);
+      Assert.fail("Announced length over the budget");
+    } catch (BadRequestException e) {
+      Assert.assertEquals("Files larger than 999 bytes are currently not supported.", e.getMessage());
+    }
+    try {
+      FileContents.read(new TrickleInputStream(content), 10, 999);
+      Assert.fail("Content over the budget");
+    } catch (BadRequestException e) {
+      // expected
+    }
+    try {
+      FileContents.read(new TrickleInputStream(content), 10, 0);
+      Assert.fail("Content over the budget");
+    } catch (BadRequestException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testMaxBytesFromRuntimeArguments() {
+    Assert.assertEquals(10 * 1024 * 1024, FileContents.maxBytes(Collections.emptyMap()));
+    Assert.assertEquals(1000, FileContents.maxBytes(Collections.singletonMap(FileContents.MAX_BYTES, "1000")));
+    Assert.assertEquals(Integer.MAX_VALUE - 8,
+                        FileContents.maxBytes(Collections.singletonMap(FileContents.MAX_BYTES, "10000000000")));
+    try {
+      FileContents.maxBytes(Collections.singletonMap(FileContents.MAX_BYTES, "0"));
+      Assert.fail("Budget must be positive");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  /**
+   * A stream returning at most 7 bytes for each read.
+   */
+  private static final class TrickleInputStream extends FilterInputStream {
+
+    TrickleInputStream(byte[] content) {
+      super(new ByteArrayInputStream(content));
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      return in.read(b, off, Math.min(len, 7));
+    }
+  }
+}
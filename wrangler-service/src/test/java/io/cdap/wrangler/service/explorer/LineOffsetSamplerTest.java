@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2026 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.explorer;
+
+import com.google.common.base.Strings;
+import com.google.common.io.Files;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests {@link LineOffsetSampler}
+ */
+public class LineOffsetSamplerTest {
+
+  @ClassRule
+  public static final TemporaryFolder TEMP_FOLDER = new TemporaryFolder();
+
+  @Test
+  public void testSampleSpreadsOverFile() throws Exception {
+    int lines = 20000;
+    File file = write(lines, new Random(0), "\n");
+    List<String> mapped = new LineOffsetSampler(new Random(1)).sample(file.toPath(), 2000);
+    List<String> streamed = new LineOffsetSampler(new Random(1)).sample(Files.asByteSource(file), file.length(), 2000);
+
+    Assert.assertEquals(mapped, streamed);
+    Assert.assertEquals(2000, mapped.size());
+    Assert.assertEquals(2000, new HashSet<>(mapped).size());
+    int previous = -1;
+    long sum = 0;
+    int[] quarters = new int[4];
+    for (String line : mapped) {
+      int index = Integer.parseInt(line.substring(0, line.indexOf(',')));
+      // Lines are returned in file order, and are whole lines.
+      Assert.assertTrue(index > previous);
+      Assert.assertEquals(line, index + "," + Strings.repeat("x", line.length() - line.indexOf(',') - 1));
+      previous = index;
+      sum += index;
+      quarters[index * 4 / lines]++;
+    }
+    Assert.assertEquals(lines / 2, sum / mapped.size(), lines * 0.03);
+    for (int quarter : quarters) {
+      Assert.assertEquals(500, quarter, 75);
+    }
+  }
+
+  @Test
+  public void testSmallFile() throws Exception {
+    File file = write(5, new Random(0), "\r\n");
+    List<String> all = Files.readLines(file, StandardCharsets.UTF_8);
+    List<String> sample = new LineOffsetSampler(new Random(0)).sample(file.toPath(), 10);
+    Assert.assertFalse(sample.isEmpty());
+    Assert.assertTrue(all.containsAll(sample));
+
+    File empty = TEMP_FOLDER.newFile();
+    Assert.assertTrue(new LineOffsetSampler(new Random(0)).sample(empty.toPath(), 10).isEmpty());
+    Assert.assertTrue(new LineOffsetSampler(new Random(0)).sample(file.toPath(), 0).isEmpty());
+  }
+
+  // Writes lines made of their index and a random number of x.
+  private static File write(int lines, Random random, String separator) throws IOException {
+    List<String> content = new ArrayList<>();
+    for (int i = 0; i < lines; i++) {
+      content.add(i + "," + Strings.repeat("x", random.nextInt(200)));
+    }
+    File file = TEMP_FOLDER.newFile();
+    Files.asCharSink(file, StandardCharsets.UTF_8).write(String.join(separator, content) + separator);
+    return file;
+  }
+}
@@ -32,18 +32,17 @@ import io.cdap.cdap.spi.data.table.field.Fields;
 import io.cdap.cdap.spi.data.table.field.Range;
 import io.cdap.cdap.spi.data.transaction.TransactionRunner;
 import io.cdap.cdap.spi.data.transaction.TransactionRunners;
-import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.dataset.workspace.WorkspaceNotFoundException;
+import io.cdap.wrangler.proto.workspace.v2.SampleCodec;
 import io.cdap.wrangler.proto.workspace.v2.Workspace;
 import io.cdap.wrangler.proto.workspace.v2.WorkspaceDetail;
 import io.cdap.wrangler.proto.workspace.v2.WorkspaceId;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import javax.annotation.Nullable;
 
@@ -76,10 +75,37 @@ public class WorkspaceStore {
 
   private static final Gson GSON = new GsonBuilder()
                                      .registerTypeAdapter(Schema.class, new SchemaTypeAdapter()).create();
+  // Runtime argument of the service, false to store samples in the format of versions that predate the columnar one
+  public static final String COLUMNAR_SAMPLES = "wrangler.sample.columnar";
+
   private final TransactionRunner transactionRunner;
+  private final boolean columnarSamples;
 
   public WorkspaceStore(TransactionRunner transactionRunner) {
+    this(transactionRunner, true);
+  }
+
+  /**
+   * @param columnarSamples whether samples are stored in the columnar format of {@link SampleCodec}, rather than
+   *                        Java serialized so that the versions of the service that predate it can read them.
+   */
+  public WorkspaceStore(TransactionRunner transactionRunner, boolean columnarSamples) {
     this.transactionRunner = transactionRunner;
+    this.columnarSamples = columnarSamples;
+  }
+
+  /**
+   * Returns whether samples are stored in the columnar format, as set by the runtime arguments of the service.
+   *
+   * @throws IllegalArgumentException if the runtime argument is neither true nor false
+   */
+  public static boolean isColumnarSamples(Map<String, String> runtimeArguments) {
+    String value = runtimeArguments.getOrDefault(COLUMNAR_SAMPLES, Boolean.TRUE.toString());
+    if (!Boolean.TRUE.toString().equalsIgnoreCase(value) && !Boolean.FALSE.toString().equalsIgnoreCase(value)) {
+      throw new IllegalArgumentException(
+        String.format("Runtime argument '%s' must be either true or false.", COLUMNAR_SAMPLES));
+    }
+    return Boolean.parseBoolean(value);
   }
 
   /**
@@ -113,15 +139,12 @@ public class WorkspaceStore {
       }
 
       Workspace workspace = GSON.fromJson(row.get().getString(WORKSPACE_INFO_COL), Workspace.class);
-      List<Row> rows = new ArrayList<>();
       byte[] sample = row.get().getBytes(SAMPLE_COL);
-      if (sample != null) {
-        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(sample))) {
-          rows = (List<Row>) ois.readObject();
-        }
+      if (sample == null) {
+        return new WorkspaceDetail(workspace, new ArrayList<>());
       }
-
-      return new WorkspaceDetail(workspace, rows);
+      // The sample is decoded only if the rows are used
+      return new WorkspaceDetail(workspace, sample);
     }, WorkspaceNotFoundException.class);
   }
 
@@ -152,7 +175,7 @@ public class WorkspaceStore {
    * @param workspace workspace to create/update
    */
   public void saveWorkspace(WorkspaceId workspaceId, WorkspaceDetail workspace) {
-    saveWorkspace(workspaceId, workspace.getWorkspace(), workspace.getSampleAsBytes(), false);
+    saveWorkspace(workspaceId, workspace.getWorkspace(), workspace.getSampleAsBytes(columnarSamples), false);
   }
 
   /**
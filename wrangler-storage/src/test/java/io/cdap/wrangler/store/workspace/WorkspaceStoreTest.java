@@ -23,6 +23,7 @@ import io.cdap.cdap.api.NamespaceSummary;
 import io.cdap.cdap.test.SystemAppTestBase;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.dataset.workspace.WorkspaceNotFoundException;
+import io.cdap.wrangler.proto.workspace.v2.SampleCodec;
 import io.cdap.wrangler.proto.workspace.v2.SampleSpec;
 import io.cdap.wrangler.proto.workspace.v2.Workspace;
 import io.cdap.wrangler.proto.workspace.v2.WorkspaceDetail;
@@ -35,6 +36,7 @@ import org.junit.Test;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 
 public class WorkspaceStoreTest extends SystemAppTestBase {
   private static WorkspaceStore store;
@@ -187,4 +189,31 @@ public class WorkspaceStoreTest extends SystemAppTestBase {
     // test that listing with a different generation doesn't include the workspace
     Assert.assertTrue(store.listWorkspaces(nsGen2).isEmpty());
   }
+
+  @Test
+  public void testJavaSerializedSamples() throws Exception {
+    Assert.assertTrue(WorkspaceStore.isColumnarSamples(Collections.emptyMap()));
+    Assert.assertFalse(WorkspaceStore.isColumnarSamples(
+      Collections.singletonMap(WorkspaceStore.COLUMNAR_SAMPLES, "false")));
+    try {
+      WorkspaceStore.isColumnarSamples(Collections.singletonMap(WorkspaceStore.COLUMNAR_SAMPLES, "no"));
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+
+    WorkspaceStore javaSerialized = new WorkspaceStore(getTransactionRunner(), false);
+    NamespaceSummary ns = new NamespaceSummary("ns1", "", 10L);
+    WorkspaceId id = new WorkspaceId(ns);
+    Workspace meta = Workspace.builder("name", id.getWorkspaceId())
+                       .setCreatedTimeMillis(0L)
+                       .setUpdatedTimeMillis(0L)
+                       .build();
+    List<Row> sample = ImmutableList.of(new Row("a", "1").add("b", 2));
+    javaSerialized.saveWorkspace(id, new WorkspaceDetail(meta, SampleCodec.encode(sample)));
+
+    WorkspaceDetail detail = store.getWorkspaceDetail(id);
+    Assert.assertFalse(SampleCodec.isColumnar(detail.getSampleAsBytes()));
+    Assert.assertEquals(sample, detail.getSample());
+  }
 }
@@ -35,6 +35,7 @@ import io.cdap.cdap.etl.api.FailureCollector;
 import io.cdap.cdap.etl.api.InvalidEntry;
 import io.cdap.cdap.etl.api.PipelineConfigurer;
 import io.cdap.cdap.etl.api.StageContext;
+import io.cdap.cdap.etl.api.StageMetrics;
 import io.cdap.cdap.etl.api.StageSubmitterContext;
 import io.cdap.cdap.etl.api.Transform;
 import io.cdap.cdap.etl.api.TransformContext;
@@ -76,6 +77,8 @@ import io.cdap.wrangler.registry.DirectiveInfo;
 import io.cdap.wrangler.registry.DirectiveRegistry;
 import io.cdap.wrangler.registry.SystemDirectiveRegistry;
 import io.cdap.wrangler.registry.UserDirectiveRegistry;
+import io.cdap.wrangler.utils.RecordConvertorException;
+import io.cdap.wrangler.utils.StructuredRecordWriter;
 import io.cdap.wrangler.utils.StructuredToRowTransformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -90,6 +93,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
@@ -124,6 +128,9 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
   public static final int DIRECTIVE_METRIC_COUNT = 1;
   public static final String DIRECTIVE_ENTITY_TYPE = "directive";
 
+  // Minimum interval between two reports of the record processing time gauge.
+  private static final long PROCESS_TIME_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
   // Precondition languages
   private static final String PRECONDITION_LANGUAGE_JEXL = "jexl";
   private static final String PRECONDITION_LANGUAGE_SQL = "sql";
@@ -137,9 +144,18 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
   // Output Schema associated with readable output.
   private Schema oSchema = null;
 
+  // Writes the rows of the pipeline into records of the output schema.
+  private StructuredRecordWriter writer;
+
   // Error counter.
   private long errorCounter;
 
+  // Stage metrics, resolved once in initialize instead of for every record.
+  private StageMetrics metrics;
+
+  // Time at which the record processing time was last reported.
+  private long lastProcessTimeReport;
+
   // Precondition application
   private Precondition condition = null;
 
@@ -375,6 +391,8 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
           errorMessage, ErrorType.USER);
     }
 
+    writer = new StructuredRecordWriter(oSchema);
+
     // Check if jexl pre-condition is not null or empty and if so compile expression.
     if (!config.containsMacro(Config.NAME_PRECONDITION_LANGUAGE)) {
       if (PRECONDITION_LANGUAGE_JEXL.equalsIgnoreCase(config.getPreconditionLanguage())
@@ -405,6 +423,8 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
     onErrorStrategy = (defaultStrategy != null && config.onError == null) ? defaultStrategy : config.getOnError();
     // Initialize the error counter.
     errorCounter = 0;
+    metrics = context.getMetrics();
+    lastProcessTimeReport = System.nanoTime() - PROCESS_TIME_REPORT_INTERVAL_NANOS;
   }
 
   @Override
@@ -446,22 +466,29 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
           && checkPreconditionNotEmpty(false)) {
         boolean skip = condition.apply(row);
         if (skip) {
-          getContext().getMetrics().count("precondition.filtered", 1);
+          metrics.count("precondition.filtered", 1);
           return; // Expression evaluated to true, so we skip the record.
         }
       }
 
-      // Reset record aggregation store.
+      // Reset record aggregation store. The local scope is reset by the pipeline for every row.
       store.reset(TransientVariableScope.GLOBAL);
-      store.reset(TransientVariableScope.LOCAL);
 
       start = System.nanoTime();
-      records = pipeline.execute(Collections.singletonList(row), oSchema);
+      List<Row> rows = pipeline.execute(Collections.singletonList(row));
+      records = new ArrayList<>(rows.size());
+      for (Row output : rows) {
+        try {
+          records.add(writer.write(output));
+        } catch (RecordConvertorException e) {
+          throw new RecipeException("Problem converting into output record. Reason : " + e.getMessage(), e);
+        }
+      }
       // We now extract errors from the execution and pass it on to the error emitter.
       List<ErrorRecord> errors = pipeline.errors();
       if (errors.size() > 0) {
         StringJoiner errorMessages = new StringJoiner(",");
-        getContext().getMetrics().count("errors", errors.size());
+        metrics.count("errors", errors.size());
         for (ErrorRecord error : errors) {
           emitter.emitError(new InvalidEntry<>(error.getCode(), error.getMessage(), input));
           errorMessages.add(error.getMessage());
@@ -476,7 +503,7 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
         }
       }
     } catch (Exception e) {
-      getContext().getMetrics().count("failure", 1);
+      metrics.count("failure", 1);
       if (onErrorStrategy.equalsIgnoreCase(ON_ERROR_PROCEED)) {
         // Emit error record, if the Error flattener or error handlers are not connected, then
         // the record is automatically omitted.
@@ -501,28 +528,17 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
       // If it's 'skip-on-error' we continue processing and don't emit any error records.
       return;
     } finally {
-      getContext().getMetrics().gauge("process.time", System.nanoTime() - start);
+      // A gauge only keeps the latest value reported within an interval, so there is no need to
+      // report it for every record.
+      long end = System.nanoTime();
+      if (end - lastProcessTimeReport >= PROCESS_TIME_REPORT_INTERVAL_NANOS) {
+        metrics.gauge("process.time", end - start);
+        lastProcessTimeReport = end;
+      }
     }
 
     for (StructuredRecord record : records) {
-      StructuredRecord.Builder builder = StructuredRecord.builder(oSchema);
-      // Iterate through output schema, if the 'record' doesn't have it, then
-      // attempt to take if from 'input'.
-      for (Schema.Field field : oSchema.getFields()) {
-        Object wObject = record.get(field.getName()); // wrangled records
-        if (wObject == null) {
-          builder.set(field.getName(), null);
-        } else {
-          if (wObject instanceof String) {
-            builder.convertAndSet(field.getName(), (String) wObject);
-          } else {
-            // No need to use specific methods for fields of logical type - timestamp, date and time. This is because
-            // the wObject should already have correct values for corresponding primitive types.
-            builder.set(field.getName(), wObject);
-          }
-        }
-      }
-      emitter.emit(builder.build());
+      emitter.emit(record);
     }
   }
 